@@ -1,5 +1,6 @@
 package com.example.hygimeter.model;
 
+import com.example.hygimeter.util.Psychrometrics;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -31,4 +32,9 @@ public class Microclimate {
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "humidity_id", referencedColumnName = "id")
     private Humidity humidity;
+
+    @PrePersist
+    void completeHumidity() {
+        Psychrometrics.completeHumidity(this); //відсутню вологість нового мікроклімату обчислюємо з іншої та температури
+    }
 }
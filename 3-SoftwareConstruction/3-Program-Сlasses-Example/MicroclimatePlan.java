@@ -1,5 +1,6 @@
 package com.example.hygimeter.model;
 
+import com.example.hygimeter.schedule.MicroclimatePlanListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,6 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity
 @Table(name = "MicroclimatePlan")
+@EntityListeners(MicroclimatePlanListener.class)
 public class MicroclimatePlan {
 
     @Id
@@ -1,10 +1,8 @@
 package com.example.hygimeter.model;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 @Getter
-@RequiredArgsConstructor
 public enum Permission {
 
     ADMIN_READ("admin:read"),
@@ -19,4 +17,10 @@ public enum Permission {
     ;
 
     private final String permission;
+    private final long mask;
+
+    Permission(String permission) {
+        this.permission = permission;
+        this.mask = 1L << ordinal();
+    }
 }
@@ -15,7 +15,8 @@ import java.time.LocalTime;
 public class PlanParameters {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "planparameters_seq")
+    @SequenceGenerator(name = "planparameters_seq", sequenceName = "planparameters_seq", allocationSize = 50)
     private Integer id;
 
     @Column
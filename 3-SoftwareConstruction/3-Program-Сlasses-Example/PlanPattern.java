@@ -15,7 +15,8 @@ import java.util.List;
 public class PlanPattern {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "planpattern_seq")
+    @SequenceGenerator(name = "planpattern_seq", sequenceName = "planpattern_seq", allocationSize = 50)
     private Integer id;
 
     @OneToOne(mappedBy = "planPattern")
@@ -30,4 +31,7 @@ public class PlanPattern {
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "planParameters_id", referencedColumnName = "id")
     private PlanParameters planParameters;
+
+    @Version
+    private Integer version;
 }
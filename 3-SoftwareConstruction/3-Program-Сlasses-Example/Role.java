@@ -1,17 +1,14 @@
 package com.example.hygimeter.model;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static com.example.hygimeter.model.Permission.*;
 
-@RequiredArgsConstructor
 @Getter
 public enum Role {
 
@@ -39,13 +36,29 @@ public enum Role {
     ;
 
     private final Set<Permission> permissions;
+    private final long permissionMask; //усі дозволи ролі у вигляді бітової маски
+    private final List<SimpleGrantedAuthority> authorities; //незмінний список повноважень, створений один раз
 
-    public List<SimpleGrantedAuthority> getAuthorities() {
-        var authorities = getPermissions()
-                .stream()
-                .map(permission -> new SimpleGrantedAuthority(permission.getPermission()))
-                .collect(Collectors.toList());
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + this.name()));
-        return authorities;
+    Role(Set<Permission> permissions) {
+        this.permissions = permissions;
+
+        long mask = 0;
+        List<SimpleGrantedAuthority> roleAuthorities = new ArrayList<>(permissions.size() + 1);
+        for (Permission permission : permissions) {
+            mask |= permission.getMask();
+            roleAuthorities.add(new SimpleGrantedAuthority(permission.getPermission()));
+        }
+        roleAuthorities.add(new SimpleGrantedAuthority("ROLE_" + this.name()));
+
+        this.permissionMask = mask;
+        this.authorities = List.copyOf(roleAuthorities);
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return (permissionMask & permission.getMask()) != 0;
+    }
+
+    public boolean hasAllPermissions(long mask) {
+        return (permissionMask & mask) == mask;
     }
 }
@@ -1,5 +1,6 @@
 package com.example.hygimeter.model;
 
+import com.example.hygimeter.search.TopicSearchListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "Theme")
+@EntityListeners(TopicSearchListener.class)
 public class Theme {
 
     @Id
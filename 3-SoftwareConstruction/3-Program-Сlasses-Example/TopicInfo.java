@@ -1,5 +1,6 @@
 package com.example.hygimeter.model;
 
+import com.example.hygimeter.search.TopicSearchListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "TopicsInfo")
+@EntityListeners(TopicSearchListener.class)
 public class TopicInfo {
 
     @Id
@@ -25,6 +27,7 @@ public class TopicInfo {
     private String type;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "info", columnDefinition = "BYTEA")
     private byte[] info;
 
@@ -1,5 +1,6 @@
 package com.example.hygimeter.model;
 
+import com.example.hygimeter.config.AuthUserListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,6 +18,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "`User`")
+@EntityListeners(AuthUserListener.class)
 public class User implements UserDetails {
 
     @Id
@@ -0,0 +1,69 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Authentication read model of a User: only the columns needed to check
+ * credentials and authorities, without the microclimate plans.
+ * The username is name and surname, as of the User entity; users are
+ * loaded by email. The password hash is left out of toString, and equality
+ * is the identity of the user, so the hash is never compared or logged.
+ */
+public record AuthUser(Integer id, String name, String surname, String email, String passwordHash, Role role)
+        implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    @Override
+    public String getPassword() {
+        return passwordHash;
+    }
+
+    @Override
+    public String getUsername() {
+        return name + surname;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AuthUser user && Objects.equals(id, user.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthUser[id=" + id + ", email=" + email + ", role=" + role + "]";
+    }
+}
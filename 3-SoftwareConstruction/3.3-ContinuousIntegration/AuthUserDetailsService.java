@@ -0,0 +1,91 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.repository.UserAuthRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * UserDetailsService over the AuthUser read model.
+ * Users are loaded by email with one query and kept in a bounded cache.
+ * Unknown emails are cached too, for a short time, so repeated logins
+ * with them are rejected without a database query. Concurrent logins
+ * with the same email that miss the cache wait for one query.
+ * It is the primary UserDetailsService, so injection by type resolves to
+ * it; AuthUserListener evicts the entries of changed users.
+ */
+@Service
+@Primary
+public class AuthUserDetailsService implements UserDetailsService {
+
+    private final UserAuthRepository userAuthRepository;
+    private final LoadingCache<String, Optional<AuthUser>> users;
+
+    public AuthUserDetailsService(
+            UserAuthRepository userAuthRepository,
+            @Value("${hygimeter.cache.auth-users.max-size:10000}") long maxSize,
+            @Value("${hygimeter.cache.auth-users.ttl:PT5M}") Duration ttl,
+            @Value("${hygimeter.cache.auth-users.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.userAuthRepository = userAuthRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new FoundOrMissingExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build(this.userAuthRepository::findAuthUserByEmail);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) {
+        return users.get(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    /**
+     * Drops the cached entry of an email, e.g. the missing entry of a
+     * newly registered user.
+     */
+    public void evict(String email) {
+        users.invalidate(email);
+    }
+
+    /**
+     * Drops the cached entries of a user and of its current email. The
+     * user may have been cached under a previous email, so the entries are
+     * matched by id.
+     */
+    public void evictUser(Integer id, String email) {
+        users.asMap().values().removeIf(user -> user.isPresent() && user.get().id().equals(id));
+        if (email != null) {
+            users.invalidate(email);
+        }
+    }
+
+    private record FoundOrMissingExpiry(long ttl, long negativeTtl) implements Expiry<String, Optional<AuthUser>> {
+
+        @Override
+        public long expireAfterCreate(String email, Optional<AuthUser> user, long currentTime) {
+            return user.isPresent() ? ttl : negativeTtl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, Optional<AuthUser> user, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(email, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String email, Optional<AuthUser> user, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
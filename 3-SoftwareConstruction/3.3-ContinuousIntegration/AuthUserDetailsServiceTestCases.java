@@ -0,0 +1,60 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AuthUserDetailsServiceTest {
+
+    private final Map<String, AuthUser> rows = new HashMap<>();
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AuthUserDetailsService authUserDetailsService = new AuthUserDetailsService(email -> {
+        queries.incrementAndGet();
+        return Optional.ofNullable(rows.get(email));
+    }, 100, Duration.ofMinutes(5), Duration.ofMinutes(5));
+
+    @Test
+    public void loadUserByUsername_RepeatedLogin_QueryOnce() {
+        rows.put("anna@test.com", new AuthUser(1, "Anna", "Koval", "anna@test.com", "hash", Role.USER));
+
+        authUserDetailsService.loadUserByUsername("anna@test.com");
+        authUserDetailsService.loadUserByUsername("anna@test.com");
+        assertThrows(UsernameNotFoundException.class, () -> authUserDetailsService.loadUserByUsername("no@test.com"));
+        assertThrows(UsernameNotFoundException.class, () -> authUserDetailsService.loadUserByUsername("no@test.com"));
+
+        assertEquals(2, queries.get());
+        assertEquals("AnnaKoval", authUserDetailsService.loadUserByUsername("anna@test.com").getUsername());
+    }
+
+    @Test
+    public void evictUser_EmailChanged_DropEntryOfPreviousEmail() {
+        rows.put("anna@test.com", new AuthUser(1, "Anna", "Koval", "anna@test.com", "hash", Role.USER));
+        authUserDetailsService.loadUserByUsername("anna@test.com");
+        assertThrows(UsernameNotFoundException.class, () -> authUserDetailsService.loadUserByUsername("ann@test.com"));
+
+        rows.remove("anna@test.com");
+        rows.put("ann@test.com", new AuthUser(1, "Anna", "Koval", "ann@test.com", "new-hash", Role.ADMIN));
+        authUserDetailsService.evictUser(1, "ann@test.com");
+
+        assertThrows(UsernameNotFoundException.class, () -> authUserDetailsService.loadUserByUsername("anna@test.com"));
+        assertEquals("new-hash", authUserDetailsService.loadUserByUsername("ann@test.com").getPassword());
+    }
+
+    @Test
+    public void toString_AuthUser_LeaveOutPasswordHash() {
+        AuthUser user = new AuthUser(1, "Anna", "Koval", "anna@test.com", "secret-hash", Role.USER);
+
+        assertFalse(user.toString().contains("secret-hash"));
+        assertEquals(user, new AuthUser(1, "Anna", "Koval", "anna@test.com", "other-hash", Role.USER));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener of User that evicts the cached AuthUser of a
+ * registered, changed or removed user after the commit, so a new password,
+ * role or email takes effect on the next login, and revokes the cached
+ * tokens of the user. Changes written by native statements bypass it.
+ */
+@Component
+public class AuthUserListener {
+
+    private final ObjectProvider<AuthUserDetailsService> authUserDetailsService;
+    private final ObjectProvider<VerifiedTokenCache> verifiedTokenCache;
+
+    public AuthUserListener(ObjectProvider<AuthUserDetailsService> authUserDetailsService,
+                            ObjectProvider<VerifiedTokenCache> verifiedTokenCache) {
+        this.authUserDetailsService = authUserDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(User user) {
+        Integer id = user.getId();
+        String email = user.getEmail();
+        afterCommit(() -> {
+            authUserDetailsService.getObject().evictUser(id, email);
+            verifiedTokenCache.getObject().revokeUser(id);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.hygimeter.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache configuration of the hygimeter application.
+ * Caches are bounded by size and time to live and record hit, miss and
+ * eviction statistics, which actuator publishes as cache.gets and
+ * cache.evictions metrics. A cache of any name is created on first use
+ * with the default bounds; the PlanPattern cache has bounds of its own.
+ * Values are stored and returned as copies, since the cached DTOs are
+ * mutable. Puts and evictions made inside a transaction are applied after
+ * it commits, so a concurrent read cannot cache the state the transaction
+ * is replacing.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache of PlanPatternDTOs by PlanPattern id.
+     */
+    public static final String PLAN_PATTERNS_CACHE = "planPatterns";
+
+    @Bean
+    public CacheManager cacheManager(
+            ObjectMapper objectMapper,
+            @Value("${hygimeter.cache.default.max-size:1000}") long defaultMaxSize,
+            @Value("${hygimeter.cache.default.ttl:PT10M}") Duration defaultTtl,
+            @Value("${hygimeter.cache.plan-patterns.max-size:10000}") long maxSize,
+            @Value("${hygimeter.cache.plan-patterns.ttl:PT10M}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new CopyingCache(super.adaptCaffeineCache(name, cache), objectMapper);
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(defaultMaxSize)
+                .expireAfterWrite(defaultTtl)
+                .recordStats());
+        cacheManager.registerCustomCache(PLAN_PATTERNS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Binds the statistics of the Caffeine cache behind a CopyingCache.
+     */
+    @Bean
+    public CacheMeterBinderProvider<CopyingCache> copyingCacheMeterBinderProvider() {
+        CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+        return (cache, tags) -> caffeine.getMeterBinder((CaffeineCache) cache.getTargetCache(), tags);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.hygimeter.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * JWT authentication filter that reads the principal of a bearer token
+ * from VerifiedTokenCache. The signature is checked and the user loaded
+ * only on the first request with a token; later requests do no crypto and
+ * no database query. It takes the place of the uncached JWT filter in the
+ * security filter chain:
+ * <pre>
+ * .addFilterBefore(cachedJwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class CachedJwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AuthUser user = verifiedTokenCache.getOrVerify(header.substring(BEARER_PREFIX.length()), this::verify);
+        if (user != null) {
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        try {
+            UserDetails details = userDetailsService.loadUserByUsername(jwtService.extractUsername(token));
+            return jwtService.isTokenValid(token, details)
+                    ? VerifiedTokenCache.VerifiedToken.of(details,
+                            jwtService.extractClaim(token, Claims::getExpiration).toInstant())
+                    : null;
+        } catch (JwtException | UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
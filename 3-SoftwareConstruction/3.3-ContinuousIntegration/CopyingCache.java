@@ -0,0 +1,105 @@
+package com.example.hygimeter.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache that stores and returns copies of its values, so a caller that
+ * changes a DTO it put or got does not change the cached one. Values are
+ * copied through JSON with the ObjectMapper of the application; a copy of
+ * a PlanPatternDTO costs a few microseconds, far less than its query.
+ */
+final class CopyingCache implements Cache {
+
+    private final Cache cache;
+    private final ObjectMapper objectMapper;
+
+    CopyingCache(Cache cache, ObjectMapper objectMapper) {
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+    }
+
+    Cache getTargetCache() {
+        return cache;
+    }
+
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return copy(cache.get(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return copy(cache.get(key, type));
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // the loaded value is stored as it is and never handed out
+        return copy(cache.get(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, copy(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return copy(cache.putIfAbsent(key, copy(value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return cache.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return cache.invalidate();
+    }
+
+    private ValueWrapper copy(ValueWrapper wrapper) {
+        return wrapper == null ? null : new SimpleValueWrapper(copy(wrapper.get()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T copy(T value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return (T) objectMapper.readValue(objectMapper.writeValueAsBytes(value), value.getClass());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cached value cannot be copied", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
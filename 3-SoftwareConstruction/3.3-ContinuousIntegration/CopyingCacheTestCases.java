@@ -0,0 +1,70 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.dto.PlanParametersDTO;
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CopyingCacheTest {
+
+    private final Cache cache = new CopyingCache(new ConcurrentMapCache(CacheConfig.PLAN_PATTERNS_CACHE),
+            new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    public void put_ValueChangedAfterPut_KeepCachedValue() {
+        PlanPatternDTO planPatternDTO = planPattern(7, 3);
+        cache.put(7, planPatternDTO);
+
+        planPatternDTO.setVersion(4);
+        planPatternDTO.getPlanParametersDTO().setTemperatureSked("00:00=30");
+
+        PlanPatternDTO cached = cache.get(7, PlanPatternDTO.class);
+        assertNotSame(planPatternDTO, cached);
+        assertEquals(3, cached.getVersion());
+        assertEquals("07:00=21; 22:00=18", cached.getPlanParametersDTO().getTemperatureSked());
+        assertEquals(LocalTime.of(23, 0), cached.getPlanParametersDTO().getLightsOffTime());
+    }
+
+    @Test
+    public void get_ValueChangedAfterGet_KeepCachedValue() {
+        cache.put(7, planPattern(7, 3));
+
+        ((PlanPatternDTO) cache.get(7).get()).setVersion(4);
+        cache.get(7, PlanPatternDTO.class).setDevice("DeviceTypeB");
+        PlanPatternDTO loaded = cache.get(8, () -> planPattern(8, 1));
+        loaded.setVersion(2);
+
+        assertEquals(3, cache.get(7, PlanPatternDTO.class).getVersion());
+        assertEquals("DeviceTypeA", cache.get(7, PlanPatternDTO.class).getDevice());
+        assertEquals(1, cache.get(8, PlanPatternDTO.class).getVersion());
+    }
+
+    @Test
+    public void get_NullValue_ReturnNull() {
+        cache.put(9, null);
+
+        assertNull(cache.get(9).get());
+        assertNull(cache.get(10));
+    }
+
+    private static PlanPatternDTO planPattern(Integer id, Integer version) {
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("07:00=21; 22:00=18");
+        planParameters.setLightsOffTime(LocalTime.of(23, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(id);
+        planPatternDTO.setDevice("DeviceTypeA");
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        planPatternDTO.setVersion(version);
+        return planPatternDTO;
+    }
+}
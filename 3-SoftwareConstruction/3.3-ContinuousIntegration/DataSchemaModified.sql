@@ -113,3 +113,53 @@ ALTER TABLE microclimateplan
 ADD CONSTRAINT fk_topic_id
 FOREIGN KEY (topic_id) REFERENCES topicsinfo (id)
 ON DELETE CASCADE ON UPDATE CASCADE;
+
+-- Keep topic content uncompressed, so substring reads only the requested
+-- chunk of the info column
+ALTER TABLE topicsinfo
+ALTER COLUMN info SET STORAGE EXTERNAL;
+
+-- SHA-256 of the topic content, the ETag of the content; a trigger keeps it
+-- up to date on every write of info, so it is never computed on read
+ALTER TABLE topicsinfo
+ADD COLUMN IF NOT EXISTS info_sha256 BYTEA;
+
+UPDATE topicsinfo
+SET info_sha256 = sha256(coalesce(info, ''::BYTEA));
+
+ALTER TABLE topicsinfo
+ALTER COLUMN info_sha256 SET NOT NULL;
+
+CREATE OR REPLACE FUNCTION topicsinfo_info_sha256() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.info_sha256 := sha256(coalesce(NEW.info, ''::BYTEA));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER topicsinfo_info_sha256
+BEFORE INSERT OR UPDATE OF info ON topicsinfo
+FOR EACH ROW EXECUTE FUNCTION topicsinfo_info_sha256();
+
+-- Pooled id sequences for batched inserts of plan patterns, the increment
+-- matches the allocation size of the entities. Hibernate takes a value of
+-- the sequence as the last id of a block of 50, so the sequences continue
+-- 50 after the ids already in use
+CREATE SEQUENCE planpattern_seq INCREMENT BY 50;
+CREATE SEQUENCE planparameters_seq INCREMENT BY 50;
+
+SELECT setval('planpattern_seq', coalesce(max(id), 0) + 50, false)
+FROM planpattern;
+
+SELECT setval('planparameters_seq', coalesce(max(id), 0) + 50, false)
+FROM planparameters;
+
+-- Role of a user; the login query by email uses the index of the unique
+-- email constraint
+ALTER TABLE "User"
+ADD COLUMN IF NOT EXISTS role VARCHAR(20);
+
+-- Version of a plan pattern for optimistic locking, the ETag of the
+-- pattern; updates check and increment it in one statement
+ALTER TABLE planpattern
+ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+package com.example.hygimeter.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Hibernate settings for bulk writes.
+ * Inserts and updates are grouped by entity and sent as JDBC batches whose
+ * size matches the allocation size of the id sequences.
+ */
+@Configuration
+public class JpaBatchConfig implements HibernatePropertiesCustomizer {
+
+    public static final int BATCH_SIZE = 50;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE);
+        hibernateProperties.put(AvailableSettings.ORDER_INSERTS, true);
+        hibernateProperties.put(AvailableSettings.ORDER_UPDATES, true);
+        hibernateProperties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.hygimeter.schedule;
+
+import com.example.hygimeter.model.MicroclimatePlan;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener of MicroclimatePlan that passes committed inserts,
+ * updates and deletes to PlanActionScheduler, so a new plan gets its
+ * actions without a restart and a deleted one loses them. Changes of a
+ * rolled back transaction are not scheduled.
+ */
+@Component
+public class MicroclimatePlanListener {
+
+    private final ObjectProvider<PlanActionScheduler> planActionScheduler;
+
+    public MicroclimatePlanListener(ObjectProvider<PlanActionScheduler> planActionScheduler) {
+        this.planActionScheduler = planActionScheduler;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void changed(MicroclimatePlan microclimatePlan) {
+        Integer id = microclimatePlan.getId();
+        // read again after the commit, when the plan parameters are visible
+        afterCommit(() -> planActionScheduler.getObject().planChanged(id));
+    }
+
+    @PostRemove
+    public void removed(MicroclimatePlan microclimatePlan) {
+        Integer id = microclimatePlan.getId();
+        afterCommit(() -> planActionScheduler.getObject().cancelPlan(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
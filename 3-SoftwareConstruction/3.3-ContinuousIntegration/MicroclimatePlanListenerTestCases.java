@@ -0,0 +1,126 @@
+package com.example.hygimeter.schedule;
+
+import com.example.hygimeter.model.MicroclimatePlan;
+import com.example.hygimeter.repository.MicroclimatePlanRepository;
+import com.example.hygimeter.repository.MicroclimatePlanRepository.PlanScheduleRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class MicroclimatePlanListenerTest {
+
+    private final MicroclimatePlanRepository microclimatePlanRepository = mock(MicroclimatePlanRepository.class);
+    private final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    private final PlanActionScheduler planActionScheduler = new PlanActionScheduler(microclimatePlanRepository,
+            new TemperatureScheduleCache(1000),
+            beanFactory.getBeanProvider(PlanActionScheduler.PlanActionHandler.class),
+            new SimpleMeterRegistry(), Duration.ofSeconds(1), 256, 1, 16);
+    private final MicroclimatePlanListener microclimatePlanListener;
+
+    {
+        beanFactory.addBean("planActionScheduler", planActionScheduler);
+        microclimatePlanListener = new MicroclimatePlanListener(
+                beanFactory.getBeanProvider(PlanActionScheduler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        planActionScheduler.stop();
+    }
+
+    @Test
+    public void changed_PlanInsertedAndDeleted_ScheduleAndCancelAfterCommit() {
+        given(microclimatePlanRepository.findScheduleRowByPlanId(7))
+                .willReturn(Optional.of(scheduleRow(7, LocalTime.of(22, 0))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        microclimatePlanListener.changed(plan(7));
+        assertEquals(0, planActionScheduler.pending());
+        commit();
+        // lights off only, the plan has no temperature schedule
+        assertEquals(1, planActionScheduler.pending());
+
+        TransactionSynchronizationManager.initSynchronization();
+        microclimatePlanListener.removed(plan(7));
+        assertEquals(1, planActionScheduler.pending());
+        commit();
+        assertEquals(0, planActionScheduler.pending());
+    }
+
+    @Test
+    public void changed_RolledBack_ScheduleNothing() {
+        given(microclimatePlanRepository.findScheduleRowByPlanId(8))
+                .willReturn(Optional.of(scheduleRow(8, LocalTime.of(21, 0))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        microclimatePlanListener.changed(plan(8));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(
+                        TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(0, planActionScheduler.pending());
+    }
+
+    @Test
+    public void changed_PlanWithoutPlanParameters_CancelPendingActions() {
+        given(microclimatePlanRepository.findScheduleRowByPlanId(9))
+                .willReturn(Optional.of(scheduleRow(9, LocalTime.of(20, 0))), Optional.empty());
+
+        microclimatePlanListener.changed(plan(9));
+        assertEquals(1, planActionScheduler.pending());
+
+        // the plan was moved to a pattern without plan parameters
+        microclimatePlanListener.changed(plan(9));
+        assertEquals(0, planActionScheduler.pending());
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static MicroclimatePlan plan(int id) {
+        MicroclimatePlan microclimatePlan = new MicroclimatePlan();
+        microclimatePlan.setId(id);
+        return microclimatePlan;
+    }
+
+    private static PlanScheduleRow scheduleRow(int planId, LocalTime lightsOffTime) {
+        return new PlanScheduleRow() {
+            @Override
+            public Integer getPlanId() {
+                return planId;
+            }
+
+            @Override
+            public Integer getPlanParametersId() {
+                return 100 + planId;
+            }
+
+            @Override
+            public String getTemperatureSked() {
+                return null;
+            }
+
+            @Override
+            public LocalTime getLightsOffTime() {
+                return lightsOffTime;
+            }
+        };
+    }
+}
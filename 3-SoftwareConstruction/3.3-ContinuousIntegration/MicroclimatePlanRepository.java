@@ -0,0 +1,47 @@
+package com.example.hygimeter.repository;
+
+import com.example.hygimeter.model.MicroclimatePlan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MicroclimatePlanRepository extends JpaRepository<MicroclimatePlan, Integer> {
+
+    /**
+     * Plan parameters of a plan needed to schedule its device actions.
+     */
+    interface PlanScheduleRow {
+        Integer getPlanId();
+        Integer getPlanParametersId();
+        String getTemperatureSked();
+        LocalTime getLightsOffTime();
+    }
+
+    @Query("select mp.id as planId, pp.id as planParametersId, pp.temperatureSked as temperatureSked, "
+            + "pp.lightsOffTime as lightsOffTime "
+            + "from MicroclimatePlan mp join mp.planPattern p join p.planParameters pp "
+            + "where mp.id > :after order by mp.id")
+    List<PlanScheduleRow> findScheduleRows(@Param("after") Integer after, Pageable pageable); //знаходження параметрів планів для планувальника
+
+    @Query("select mp.id as planId, pp.id as planParametersId, pp.temperatureSked as temperatureSked, "
+            + "pp.lightsOffTime as lightsOffTime "
+            + "from MicroclimatePlan mp join mp.planPattern p join p.planParameters pp "
+            + "where p.id = :planPatternId")
+    List<PlanScheduleRow> findScheduleRowsByPlanPatternId(@Param("planPatternId") Integer planPatternId); //знаходження параметрів планів шаблону
+
+    @Query("select mp.id as planId, pp.id as planParametersId, pp.temperatureSked as temperatureSked, "
+            + "pp.lightsOffTime as lightsOffTime "
+            + "from MicroclimatePlan mp join mp.planPattern p join p.planParameters pp "
+            + "where mp.id = :planId")
+    Optional<PlanScheduleRow> findScheduleRowByPlanId(@Param("planId") Integer planId); //знаходження параметрів плану
+
+    @Query("select mp.id from MicroclimatePlan mp where mp.planPattern.id = :planPatternId")
+    List<Integer> findIdsByPlanPatternId(@Param("planPatternId") Integer planPatternId); //знаходження планів шаблону
+}
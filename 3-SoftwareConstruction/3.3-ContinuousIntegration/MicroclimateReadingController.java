@@ -0,0 +1,40 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.dto.MicroclimateReadingDTO;
+import com.example.hygimeter.dto.RemoteResponse;
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.timeseries.MicroclimateReadingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller that receives the sensor readings of a plan in batches.
+ * Stored readings are queried through the rollup endpoints.
+ */
+@RestController
+@RequestMapping("/microclimate-readings")
+@RequiredArgsConstructor
+public class MicroclimateReadingController {
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private final MicroclimateReadingService microclimateReadingService;
+
+    @PostMapping("/{planId}")
+    public RemoteResponse ingestReadings(@PathVariable long planId,
+                                         @RequestBody List<MicroclimateReadingDTO> readings) {
+        if (readings.size() > MAX_BATCH_SIZE) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                    "At most " + MAX_BATCH_SIZE + " readings can be sent at once");
+        }
+        int stored = microclimateReadingService.ingest(planId, readings);
+        return RemoteResponse.create(true, StatusCodes.OK.name(), stored + " readings have been stored", List.of());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.hygimeter.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Microclimate Sensor Reading Data Transfer Object")
+public class MicroclimateReadingDTO {
+
+    @Schema(description = "Time of the reading")
+    private Instant timestamp;
+
+    @Schema(description = "Temperature in degrees Celsius")
+    private Float temperature;
+
+    @Schema(description = "Relative humidity in percent, derived from the absolute humidity if null")
+    private Float relativeHumidity;
+
+    @Schema(description = "Absolute humidity in g/m3, derived from the relative humidity if null")
+    private Float absoluteHumidity;
+
+    @Schema(description = "Light level")
+    private Float lightLevel;
+}
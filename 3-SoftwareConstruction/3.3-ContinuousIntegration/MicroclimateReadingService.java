@@ -0,0 +1,91 @@
+package com.example.hygimeter.timeseries;
+
+import com.example.hygimeter.dto.MicroclimateReadingDTO;
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.util.Psychrometrics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Microclimate readings of the plans. A batch of readings is completed,
+ * a missing humidity being derived from the other one and the
+ * temperature, appended to the store and added to the rollups. Readings
+ * older than the retention period are dropped on every expiry run, also
+ * from the series of plans that no longer report readings.
+ */
+@Service
+public class MicroclimateReadingService {
+
+    private final MicroclimateReadingStore microclimateReadingStore;
+    private final MicroclimateRollups microclimateRollups;
+
+    public MicroclimateReadingService(MicroclimateReadingStore microclimateReadingStore,
+                                      MicroclimateRollups microclimateRollups) {
+        this.microclimateReadingStore = microclimateReadingStore;
+        this.microclimateRollups = microclimateRollups;
+    }
+
+    /**
+     * Stores the readings of a plan. Readings of a batch may come in any
+     * order, but none may be older than the last stored reading of the plan.
+     * The batch is stored entirely or, if it is rejected, not at all, so a
+     * client may retry it.
+     *
+     * @return the number of stored readings
+     * @throws InvalidDataException If a reading has no timestamp or
+     * temperature or is older than the last stored one.
+     */
+    public int ingest(long planId, List<MicroclimateReadingDTO> readings) {
+        for (MicroclimateReadingDTO reading : readings) {
+            if (reading.getTimestamp() == null || reading.getTemperature() == null) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                        "Timestamp and temperature of a reading cannot be null");
+            }
+        }
+        List<MicroclimateReadingDTO> sorted = readings.stream()
+                .sorted(Comparator.comparing(MicroclimateReadingDTO::getTimestamp))
+                .toList();
+        int size = sorted.size();
+        long[] timestamps = new long[size];
+        float[] temperatures = new float[size];
+        float[] relativeHumidities = new float[size];
+        float[] absoluteHumidities = new float[size];
+        float[] lightLevels = new float[size];
+        for (int i = 0; i < size; i++) {
+            MicroclimateReadingDTO reading = sorted.get(i);
+            timestamps[i] = reading.getTimestamp().toEpochMilli();
+            temperatures[i] = reading.getTemperature();
+            relativeHumidities[i] = valueOrNaN(reading.getRelativeHumidity());
+            absoluteHumidities[i] = valueOrNaN(reading.getAbsoluteHumidity());
+            lightLevels[i] = valueOrNaN(reading.getLightLevel());
+        }
+        Psychrometrics.completeHumidity(temperatures, relativeHumidities, absoluteHumidities);
+
+        try {
+            microclimateReadingStore.appendAll(planId, size, timestamps, temperatures, relativeHumidities,
+                    absoluteHumidities, lightLevels);
+        } catch (IllegalArgumentException e) {
+            // the store checks the whole batch first, so nothing of it was stored
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                    "Readings must not be older than the last stored reading");
+        }
+        for (int i = 0; i < size; i++) {
+            microclimateRollups.add(planId, timestamps[i], temperatures[i], relativeHumidities[i],
+                    absoluteHumidities[i], lightLevels[i]);
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${hygimeter.timeseries.expiry:PT1M}")
+    public void expireReadings() {
+        microclimateReadingStore.expire(System.currentTimeMillis());
+    }
+
+    private static float valueOrNaN(Float value) {
+        return value != null ? value : Float.NaN;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.hygimeter.timeseries;
+
+import com.example.hygimeter.dto.MicroclimateReadingDTO;
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.timeseries.MicroclimateRollups.Metric;
+import com.example.hygimeter.timeseries.MicroclimateRollups.Resolution;
+import com.example.hygimeter.timeseries.MicroclimateRollups.RollupPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MicroclimateReadingServiceTest {
+
+    private static final Instant START = Instant.parse("2026-10-01T00:00:00Z");
+
+    private final MicroclimateReadingStore microclimateReadingStore =
+            MicroclimateReadingStore.inMemory(16, 16, Duration.ofDays(1));
+    private final MicroclimateRollups microclimateRollups = new MicroclimateRollups();
+    private final MicroclimateReadingService microclimateReadingService =
+            new MicroclimateReadingService(microclimateReadingStore, microclimateRollups);
+
+    @Test
+    public void ingest_UnorderedBatch_CompleteHumidityStoreAndRollUp() {
+        int stored = microclimateReadingService.ingest(5, List.of(
+                new MicroclimateReadingDTO(START.plusSeconds(60), 25f, null, 13.780667f, 0.5f),
+                new MicroclimateReadingDTO(START, 20f, 50f, null, null)));
+
+        assertEquals(2, stored);
+        List<float[]> readings = new ArrayList<>();
+        microclimateReadingStore.scan(5, START.toEpochMilli(), START.plusSeconds(120).toEpochMilli(),
+                (timestamp, temperature, relativeHumidity, absoluteHumidity, lightLevel) ->
+                        readings.add(new float[]{temperature, relativeHumidity, absoluteHumidity, lightLevel}));
+        assertEquals(2, readings.size());
+        assertEquals(20f, readings.get(0)[0]);
+        assertEquals(8.62f, readings.get(0)[2], 0.01f);
+        assertEquals(Float.NaN, readings.get(0)[3]);
+        assertEquals(60f, readings.get(1)[1], 0.01f);
+
+        RollupPoint summary = microclimateRollups.summary(5, Metric.RELATIVE_HUMIDITY, Resolution.MINUTE,
+                START.toEpochMilli(), START.plusSeconds(120).toEpochMilli(), 0.5);
+        assertEquals(2, summary.count());
+        assertEquals(55, summary.average(), 0.01);
+        assertEquals(1, microclimateRollups.query(5, Metric.LIGHT_LEVEL, Resolution.MINUTE,
+                START.toEpochMilli(), START.plusSeconds(120).toEpochMilli()).size());
+    }
+
+    @Test
+    public void ingest_InvalidReadings_ThrowInvalidData() {
+        microclimateReadingService.ingest(6, List.of(new MicroclimateReadingDTO(START, 20f, 50f, null, null)));
+
+        assertThrows(InvalidDataException.class, () -> microclimateReadingService.ingest(6, List.of(
+                new MicroclimateReadingDTO(START.minusSeconds(1), 20f, 50f, null, null))));
+        assertThrows(InvalidDataException.class, () -> microclimateReadingService.ingest(6, List.of(
+                new MicroclimateReadingDTO(START.plusSeconds(1), null, 50f, null, null))));
+        assertEquals(1, microclimateReadingStore.size(6));
+    }
+}
@@ -0,0 +1,487 @@
+package com.example.hygimeter.timeseries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only store of microclimate sensor readings.
+ * Readings are kept per series (a plan or a device id) as fixed-width
+ * records in off-heap segments: direct buffers, or memory-mapped files when
+ * the store has a directory. No object is created per reading, either on
+ * append or on scan.
+ * Readings of a series must be appended in non-decreasing time order, so a
+ * time range is found by binary search; a batch is checked as a whole and
+ * either appended entirely or not at all. Series are found by their
+ * primitive key in a copy-on-write hash table, so neither an append nor a
+ * scan boxes the key. Old segments are dropped when a
+ * series exceeds the segment limit or the retention period: on append when
+ * a series starts a new segment, and for series that get no readings by
+ * expire, which is run periodically.
+ */
+public final class MicroclimateReadingStore implements Closeable {
+
+    /**
+     * Record layout: timestamp (8), temperature, relative humidity,
+     * absolute humidity and light level (4 each).
+     */
+    public static final int RECORD_SIZE = 24;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x48594731;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Receives the readings of a scan as primitives.
+     */
+    @FunctionalInterface
+    public interface ReadingConsumer {
+        void accept(long timestamp, float temperature, float relativeHumidity,
+                    float absoluteHumidity, float lightLevel);
+    }
+
+    private static final class Segment {
+        private final long number;
+        private final ByteBuffer buffer;
+        private final Path file;
+        private int count;
+        private long firstTimestamp;
+        private long lastTimestamp;
+
+        private Segment(long number, ByteBuffer buffer, Path file) {
+            this.number = number;
+            this.buffer = buffer;
+            this.file = file;
+        }
+
+        private long timestamp(int index) {
+            return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE);
+        }
+    }
+
+    private static final class Series {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+        private long nextSegmentNumber;
+        private long size;
+    }
+
+    /**
+     * Open addressing table of the series by key. Series are added rarely,
+     * once per plan, so an addition copies the table and readers never lock.
+     */
+    private static final class SeriesTable {
+        private static final SeriesTable EMPTY = new SeriesTable(new long[8], new Series[8], 0);
+
+        private final long[] keys;
+        private final Series[] values;
+        private final int size;
+
+        private SeriesTable(long[] keys, Series[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+
+        private Series get(long key) {
+            int mask = keys.length - 1;
+            for (int i = index(key, mask); values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private SeriesTable with(long key, Series value) {
+            int capacity = size + 1 > keys.length / 2 ? keys.length * 2 : keys.length;
+            long[] newKeys = new long[capacity];
+            Series[] newValues = new Series[capacity];
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    put(newKeys, newValues, keys[i], values[i]);
+                }
+            }
+            put(newKeys, newValues, key, value);
+            return new SeriesTable(newKeys, newValues, size + 1);
+        }
+
+        private static void put(long[] keys, Series[] values, long key, Series value) {
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private static int index(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int maxSegmentsPerSeries;
+    private final long retentionMillis;
+    private volatile SeriesTable series = SeriesTable.EMPTY;
+
+    private MicroclimateReadingStore(Path directory, int recordsPerSegment,
+                                     int maxSegmentsPerSeries, Duration retention) {
+        if (recordsPerSegment <= 0 || maxSegmentsPerSeries <= 0) {
+            throw new IllegalArgumentException("Segment size and limit must be greater than 0");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.maxSegmentsPerSeries = maxSegmentsPerSeries;
+        this.retentionMillis = retention.toMillis();
+    }
+
+    /**
+     * Creates a store in direct buffers, its readings are lost on restart.
+     */
+    public static MicroclimateReadingStore inMemory(int recordsPerSegment, int maxSegmentsPerSeries,
+                                                    Duration retention) {
+        return new MicroclimateReadingStore(null, recordsPerSegment, maxSegmentsPerSeries, retention);
+    }
+
+    /**
+     * Opens a store in memory-mapped files of the directory and recovers
+     * the segments written before.
+     */
+    public static MicroclimateReadingStore mapped(Path directory, int recordsPerSegment,
+                                                  int maxSegmentsPerSeries, Duration retention)
+            throws IOException {
+        Files.createDirectories(directory);
+        MicroclimateReadingStore store =
+                new MicroclimateReadingStore(directory, recordsPerSegment, maxSegmentsPerSeries, retention);
+        store.recover();
+        return store;
+    }
+
+    public void append(long key, long timestamp, float temperature, float relativeHumidity,
+                       float absoluteHumidity, float lightLevel) {
+        Series s = seriesOf(key);
+        s.lock.writeLock().lock();
+        try {
+            if (timestamp < lastTimestamp(s)) {
+                throw new IllegalArgumentException("Readings must be appended in time order");
+            }
+            write(s, key, timestamp, temperature, relativeHumidity, absoluteHumidity, lightLevel);
+        } finally {
+            s.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the first length readings of the arrays to the series. The
+     * batch is checked against the last reading of the series under its
+     * lock, so either all readings are appended or, if one of them is out
+     * of time order, none is.
+     *
+     * @throws IllegalArgumentException If the readings are not in time order
+     * or the first is older than the last reading of the series.
+     */
+    public void appendAll(long key, int length, long[] timestamps, float[] temperatures,
+                          float[] relativeHumidities, float[] absoluteHumidities, float[] lightLevels) {
+        if (length == 0) {
+            return;
+        }
+        Series s = seriesOf(key);
+        s.lock.writeLock().lock();
+        try {
+            long previous = lastTimestamp(s);
+            for (int i = 0; i < length; i++) {
+                if (timestamps[i] < previous) {
+                    throw new IllegalArgumentException("Readings must be appended in time order");
+                }
+                previous = timestamps[i];
+            }
+            for (int i = 0; i < length; i++) {
+                write(s, key, timestamps[i], temperatures[i], relativeHumidities[i], absoluteHumidities[i],
+                        lightLevels[i]);
+            }
+        } finally {
+            s.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Passes the readings of the series with timestamps in [from, to) to the
+     * consumer in time order.
+     *
+     * @return the number of readings passed
+     */
+    public int scan(long key, long from, long to, ReadingConsumer consumer) {
+        Series s = series.get(key);
+        if (s == null) {
+            return 0;
+        }
+        int scanned = 0;
+        s.lock.readLock().lock();
+        try {
+            for (Segment segment : s.segments) {
+                if (segment.count == 0 || segment.lastTimestamp < from) {
+                    continue;
+                }
+                if (segment.firstTimestamp >= to) {
+                    break;
+                }
+                ByteBuffer buffer = segment.buffer;
+                for (int i = lowerBound(segment, from); i < segment.count; i++) {
+                    int offset = HEADER_SIZE + i * RECORD_SIZE;
+                    long timestamp = buffer.getLong(offset);
+                    if (timestamp >= to) {
+                        return scanned;
+                    }
+                    consumer.accept(timestamp, buffer.getFloat(offset + 8), buffer.getFloat(offset + 12),
+                            buffer.getFloat(offset + 16), buffer.getFloat(offset + 20));
+                    scanned++;
+                }
+            }
+            return scanned;
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the keys of the series of the store, also of the recovered ones
+     */
+    public long[] keys() {
+        SeriesTable table = series;
+        long[] keys = new long[table.size];
+        int count = 0;
+        for (int i = 0; i < table.keys.length; i++) {
+            if (table.values[i] != null) {
+                keys[count++] = table.keys[i];
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return the number of retained readings of the series
+     */
+    public long size(long key) {
+        Series s = series.get(key);
+        if (s == null) {
+            return 0;
+        }
+        s.lock.readLock().lock();
+        try {
+            return s.size;
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the segments of every series whose readings are all older than
+     * the retention period before now.
+     */
+    public void expire(long now) {
+        for (Series s : series.values) {
+            if (s == null) {
+                continue;
+            }
+            s.lock.writeLock().lock();
+            try {
+                dropExpired(s, now, false);
+            } finally {
+                s.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Series s : series.values) {
+            if (s == null) {
+                continue;
+            }
+            s.lock.writeLock().lock();
+            try {
+                for (Segment segment : s.segments) {
+                    if (segment.buffer instanceof MappedByteBuffer mapped) {
+                        mapped.force();
+                    }
+                }
+            } finally {
+                s.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private Series seriesOf(long key) {
+        Series s = series.get(key);
+        if (s != null) {
+            return s;
+        }
+        synchronized (this) {
+            s = series.get(key);
+            if (s == null) {
+                s = new Series();
+                series = series.with(key, s);
+            }
+            return s;
+        }
+    }
+
+    private static long lastTimestamp(Series s) {
+        Segment last = s.segments.peekLast();
+        return last != null && last.count > 0 ? last.lastTimestamp : Long.MIN_VALUE;
+    }
+
+    private void write(Series s, long key, long timestamp, float temperature, float relativeHumidity,
+                       float absoluteHumidity, float lightLevel) {
+        Segment last = s.segments.peekLast();
+        if (last == null || last.count == recordsPerSegment) {
+            dropExpired(s, timestamp, true);
+            last = newSegment(key, s.nextSegmentNumber++);
+            s.segments.addLast(last);
+        }
+        ByteBuffer buffer = last.buffer;
+        int offset = HEADER_SIZE + last.count * RECORD_SIZE;
+        buffer.putLong(offset, timestamp);
+        buffer.putFloat(offset + 8, temperature);
+        buffer.putFloat(offset + 12, relativeHumidity);
+        buffer.putFloat(offset + 16, absoluteHumidity);
+        buffer.putFloat(offset + 20, lightLevel);
+        if (last.count == 0) {
+            last.firstTimestamp = timestamp;
+        }
+        last.lastTimestamp = timestamp;
+        last.count++;
+        buffer.putInt(4, last.count);
+        s.size++;
+    }
+
+    private static int lowerBound(Segment segment, long timestamp) {
+        int low = 0;
+        int high = segment.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (segment.timestamp(middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // rolling: a segment is about to be added, so the segment limit applies too
+    private void dropExpired(Series s, long now, boolean rolling) {
+        Iterator<Segment> iterator = s.segments.iterator();
+        while (iterator.hasNext()) {
+            Segment oldest = iterator.next();
+            boolean full = rolling && s.segments.size() >= maxSegmentsPerSeries;
+            boolean expired = oldest.lastTimestamp < now - retentionMillis;
+            if (!full && !expired) {
+                return;
+            }
+            iterator.remove();
+            s.size -= oldest.count;
+            deleteFile(oldest);
+        }
+    }
+
+    private Segment newSegment(long key, long number) {
+        int capacity = HEADER_SIZE + recordsPerSegment * RECORD_SIZE;
+        if (directory == null) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+            buffer.putInt(0, MAGIC);
+            return new Segment(number, buffer, null);
+        }
+        Path file = directory.resolve(key + "-" + number + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.putInt(0, MAGIC);
+            return new Segment(number, buffer, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover() throws IOException {
+        Map<Long, TreeMap<Long, Path>> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                int dash = name.lastIndexOf('-');
+                if (dash <= 0) {
+                    continue;
+                }
+                try {
+                    long key = Long.parseLong(name.substring(0, dash));
+                    long number = Long.parseLong(name.substring(dash + 1, name.length() - SEGMENT_SUFFIX.length()));
+                    files.computeIfAbsent(key, k -> new TreeMap<>()).put(number, file);
+                } catch (NumberFormatException e) {
+                    // not a segment of this store
+                }
+            }
+        }
+        int capacity = HEADER_SIZE + recordsPerSegment * RECORD_SIZE;
+        for (Map.Entry<Long, TreeMap<Long, Path>> entry : files.entrySet()) {
+            Series s = new Series();
+            List<Segment> segments = new ArrayList<>();
+            for (Map.Entry<Long, Path> file : entry.getValue().entrySet()) {
+                try (FileChannel channel = FileChannel.open(file.getValue(),
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    if (channel.size() != capacity) {
+                        continue;
+                    }
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                    int count = buffer.getInt(4);
+                    if (buffer.getInt(0) != MAGIC || count < 0 || count > recordsPerSegment) {
+                        continue;
+                    }
+                    Segment segment = new Segment(file.getKey(), buffer, file.getValue());
+                    segment.count = count;
+                    if (count > 0) {
+                        segment.firstTimestamp = segment.timestamp(0);
+                        segment.lastTimestamp = segment.timestamp(count - 1);
+                    }
+                    segments.add(segment);
+                }
+            }
+            for (Segment segment : segments) {
+                s.segments.addLast(segment);
+                s.size += segment.count;
+            }
+            // skipped files keep their numbers, so new segments are numbered after all of them
+            s.nextSegmentNumber = entry.getValue().lastKey() + 1;
+            series = series.with(entry.getKey(), s);
+        }
+    }
+
+    private static void deleteFile(Segment segment) {
+        if (segment.file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.hygimeter.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MicroclimateReadingStoreTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    public void scan_RangeAcrossSegments_ReturnReadingsInTimeOrder() {
+        MicroclimateReadingStore store = MicroclimateReadingStore.inMemory(4, 100, Duration.ofDays(1));
+        for (int minute = 0; minute < 10; minute++) {
+            store.append(1, minute * MINUTE, 20 + minute, 50f, 10f, 0.5f);
+        }
+
+        List<Long> timestamps = new ArrayList<>();
+        int scanned = store.scan(1, 3 * MINUTE, 9 * MINUTE, (timestamp, temperature, relativeHumidity,
+                absoluteHumidity, lightLevel) -> {
+            assertEquals(20 + timestamp / MINUTE, temperature, 1e-6f);
+            timestamps.add(timestamp);
+        });
+
+        assertEquals(6, scanned);
+        assertEquals(List.of(3 * MINUTE, 4 * MINUTE, 5 * MINUTE, 6 * MINUTE, 7 * MINUTE, 8 * MINUTE), timestamps);
+        assertEquals(0, store.scan(2, 0, 10 * MINUTE, (t, temperature, rh, ah, light) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> store.append(1, 0, 20f, 50f, 10f, 0.5f));
+    }
+
+    @Test
+    public void appendAll_BatchOlderThanSeries_AppendNothing() {
+        MicroclimateReadingStore store = MicroclimateReadingStore.inMemory(4, 100, Duration.ofDays(1));
+        store.append(1, 5 * MINUTE, 20f, 50f, 10f, 0.5f);
+        float[] values = {20f, 21f, 22f};
+
+        // only the last reading of the batch is older than the series
+        assertThrows(IllegalArgumentException.class, () -> store.appendAll(1, 3,
+                new long[]{6 * MINUTE, 7 * MINUTE, 4 * MINUTE}, values, values, values, values));
+        assertEquals(1, store.size(1));
+
+        store.appendAll(1, 2, new long[]{6 * MINUTE, 7 * MINUTE, 4 * MINUTE}, values, values, values, values);
+        assertEquals(3, store.size(1));
+    }
+
+    @Test
+    public void keys_ManySeries_ReturnEveryKey() {
+        MicroclimateReadingStore store = MicroclimateReadingStore.inMemory(4, 100, Duration.ofDays(1));
+        for (long key = -50; key < 50; key++) {
+            store.append(key * 1_000_003L, 0, 20f, 50f, 10f, 0.5f);
+        }
+
+        long[] keys = store.keys();
+        assertEquals(100, keys.length);
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals((i - 50) * 1_000_003L, keys[i]);
+            assertEquals(1, store.size(keys[i]));
+        }
+    }
+
+    @Test
+    public void expire_IdleSeries_DropSegmentsOlderThanRetention() {
+        MicroclimateReadingStore store = MicroclimateReadingStore.inMemory(4, 100, Duration.ofMinutes(30));
+        for (int minute = 0; minute < 10; minute++) {
+            store.append(1, minute * MINUTE, 20f, 50f, 10f, 0.5f);
+            store.append(2, (30 + minute) * MINUTE, 20f, 50f, 10f, 0.5f);
+        }
+
+        // readings 0-3 and 4-7 of the first series are older than 30 minutes
+        store.expire(38 * MINUTE + 1);
+        assertEquals(2, store.size(1));
+        assertEquals(10, store.size(2));
+
+        store.expire(60 * MINUTE);
+        assertEquals(0, store.size(1));
+        assertEquals(10, store.size(2));
+
+        store.append(1, 60 * MINUTE, 20f, 50f, 10f, 0.5f);
+        assertEquals(1, store.size(1));
+    }
+
+    @Test
+    public void recover_SkippedSegmentFile_NumberNewSegmentsAfterIt() throws IOException {
+        Path directory = Files.createTempDirectory("readings");
+        try {
+            try (MicroclimateReadingStore store = MicroclimateReadingStore.mapped(directory, 4, 100,
+                    Duration.ofDays(1))) {
+                for (int minute = 0; minute < 10; minute++) {
+                    store.append(1, minute * MINUTE, 20f, 50f, 10f, 0.5f);
+                }
+            }
+            // the last segment is cut short, so recovery skips it
+            try (FileChannel channel = FileChannel.open(directory.resolve("1-2.seg"), StandardOpenOption.WRITE)) {
+                channel.truncate(10);
+            }
+
+            try (MicroclimateReadingStore store = MicroclimateReadingStore.mapped(directory, 4, 100,
+                    Duration.ofDays(1))) {
+                assertEquals(8, store.size(1));
+                for (int minute = 10; minute < 15; minute++) {
+                    store.append(1, minute * MINUTE, 20f, 50f, 10f, 0.5f);
+                }
+                assertEquals(13, store.size(1));
+            }
+            assertTrue(Files.exists(directory.resolve("1-4.seg")));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.dto.RemoteResponse;
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.timeseries.MicroclimateRollups;
+import com.example.hygimeter.timeseries.MicroclimateRollups.Metric;
+import com.example.hygimeter.timeseries.MicroclimateRollups.Resolution;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST controller of the microclimate rollups of a plan.
+ * Charts read the buckets of one resolution in a time range, e.g. 720
+ * hourly points for 30 days; the summary merges the buckets of the range
+ * into one aggregate.
+ */
+@RestController
+@RequestMapping("/microclimate-rollups")
+@RequiredArgsConstructor
+public class MicroclimateRollupController {
+
+    private static final int MAX_QUANTILES = 10;
+
+    private final MicroclimateRollups microclimateRollups;
+
+    @GetMapping("/{planId}")
+    public RemoteResponse getRollups(
+            @PathVariable long planId,
+            @RequestParam Metric metric,
+            @RequestParam Resolution resolution,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(name = "quantile", defaultValue = "0.5") double[] quantiles) {
+        validate(from, to, quantiles);
+        return RemoteResponse.create(true, StatusCodes.OK.name(), "Rollups have been found",
+                microclimateRollups.query(planId, metric, resolution, from.toEpochMilli(), to.toEpochMilli(),
+                        quantiles));
+    }
+
+    @GetMapping("/{planId}/summary")
+    public RemoteResponse getSummary(
+            @PathVariable long planId,
+            @RequestParam Metric metric,
+            @RequestParam Resolution resolution,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(name = "quantile", defaultValue = "0.5") double[] quantiles) {
+        validate(from, to, quantiles);
+        MicroclimateRollups.RollupPoint summary = microclimateRollups.summary(planId, metric, resolution,
+                from.toEpochMilli(), to.toEpochMilli(), quantiles);
+        return RemoteResponse.create(true, StatusCodes.OK.name(), "Summary has been found",
+                summary == null ? List.of() : List.of(summary));
+    }
+
+    private static void validate(Instant from, Instant to, double[] quantiles) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(), "From must be before to");
+        }
+        if (quantiles.length > MAX_QUANTILES) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                    "At most " + MAX_QUANTILES + " quantiles can be requested");
+        }
+        for (double quantile : quantiles) {
+            if (!(quantile >= 0 && quantile <= 1)) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                        "Quantiles must be between 0 and 1");
+            }
+        }
+    }
+}
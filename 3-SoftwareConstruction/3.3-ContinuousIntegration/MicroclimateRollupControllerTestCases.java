@@ -0,0 +1,98 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.config.JwtService;
+import com.example.hygimeter.config.TimeSeriesConfig;
+import com.example.hygimeter.timeseries.MicroclimateRollups;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Instant;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(value = MicroclimateRollupController.class, excludeAutoConfiguration = SecurityAutoConfiguration.class)
+@AutoConfigureDataJpa
+@AutoConfigureMockMvc
+@Import(TimeSeriesConfig.class)
+public class MicroclimateRollupControllerTest {
+
+    private static final Instant START = Instant.parse("2026-10-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MicroclimateRollups microclimateRollups;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    public void getRollups_HourlyRange_ReturnOnePointPerHour() throws Exception {
+        for (int minute = 0; minute < 3 * 60; minute++) {
+            microclimateRollups.add(11, START.toEpochMilli() + minute * 60_000L, 20f + minute / 60, 50f, 10f, 0.5f);
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/microclimate-rollups/11")
+                        .param("metric", "TEMPERATURE")
+                        .param("resolution", "HOUR")
+                        .param("from", START.toString())
+                        .param("to", START.plusSeconds(3 * 3_600).toString())
+                        .param("quantile", "0.5", "0.95"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].start").value(START.toEpochMilli() + 3_600_000L))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].count").value(60))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].min").value(21.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].quantiles.length()").value(2));
+    }
+
+    @Test
+    public void getSummary_Range_ReturnOneAggregate() throws Exception {
+        for (int minute = 0; minute < 60; minute++) {
+            microclimateRollups.add(12, START.toEpochMilli() + minute * 60_000L, 22f, 40f + minute % 2, 10f, 0.5f);
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/microclimate-rollups/12/summary")
+                        .param("metric", "RELATIVE_HUMIDITY")
+                        .param("resolution", "MINUTE")
+                        .param("from", START.toString())
+                        .param("to", START.plusSeconds(3_600).toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].count").value(60))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].average").value(40.5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].max").value(41.0));
+    }
+
+    @Test
+    public void getRollups_InvalidRange_ReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/microclimate-rollups/11")
+                        .param("metric", "TEMPERATURE")
+                        .param("resolution", "HOUR")
+                        .param("from", START.toString())
+                        .param("to", START.toString()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/microclimate-rollups/11/summary")
+                        .param("metric", "TEMPERATURE")
+                        .param("resolution", "HOUR")
+                        .param("from", START.toString())
+                        .param("to", START.plusSeconds(60).toString())
+                        .param("quantile", "1.5"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.hygimeter.timeseries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Incremental per-minute, per-hour and per-day aggregates of microclimate
+ * readings of every plan.
+ * Each reading updates count, min, max, sum and a quantile sketch of its
+ * bucket at every resolution in constant time. Buckets live in ring arrays
+ * sized by the retention of the resolution, so old buckets are overwritten
+ * instead of removed. A sketch is created with the first reading of its
+ * slot and holds only the bins its readings fall into. Sketches of several
+ * buckets merge exactly, which gives percentiles of any range with a
+ * relative error of at most QuantileSketch.RELATIVE_ACCURACY.
+ */
+public final class MicroclimateRollups {
+
+    /**
+     * Aggregated values.
+     */
+    public enum Metric {
+        TEMPERATURE,
+        RELATIVE_HUMIDITY,
+        ABSOLUTE_HUMIDITY,
+        LIGHT_LEVEL
+    }
+
+    public enum Resolution {
+        MINUTE(60_000L, 24 * 60),
+        HOUR(3_600_000L, 45 * 24),
+        DAY(86_400_000L, 400);
+
+        private final long width;
+        private final int capacity;
+
+        Resolution(long width, int capacity) {
+            this.width = width;
+            this.capacity = capacity;
+        }
+
+        public long getWidth() {
+            return width;
+        }
+    }
+
+    /**
+     * Aggregate of one bucket or range; quantiles follow the requested order.
+     */
+    public record RollupPoint(long start, long count, float min, float max, double average, float[] quantiles) {
+    }
+
+    private static final int METRICS = Metric.values().length;
+    private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+    private static final class Ring {
+        private final Resolution resolution;
+        private final long[] starts;
+        private final long[] counts;
+        private final float[] mins;
+        private final float[] maxs;
+        private final double[] sums;
+        private final QuantileSketch[] sketches;
+
+        private Ring(Resolution resolution) {
+            this.resolution = resolution;
+            int capacity = resolution.capacity;
+            starts = new long[capacity];
+            Arrays.fill(starts, Long.MIN_VALUE);
+            counts = new long[capacity];
+            mins = new float[capacity];
+            maxs = new float[capacity];
+            sums = new double[capacity];
+            sketches = new QuantileSketch[capacity];
+        }
+
+        private void add(long timestamp, float value) {
+            long bucket = Math.floorDiv(timestamp, resolution.width);
+            int slot = slot(bucket);
+            if (starts[slot] > bucket) {
+                // the reading is older than the retention of the resolution
+                return;
+            }
+            if (starts[slot] < bucket) {
+                starts[slot] = bucket;
+                counts[slot] = 0;
+                mins[slot] = Float.POSITIVE_INFINITY;
+                maxs[slot] = Float.NEGATIVE_INFINITY;
+                sums[slot] = 0;
+                if (sketches[slot] == null) {
+                    sketches[slot] = new QuantileSketch();
+                } else {
+                    sketches[slot].clear();
+                }
+            }
+            counts[slot]++;
+            mins[slot] = Math.min(mins[slot], value);
+            maxs[slot] = Math.max(maxs[slot], value);
+            sums[slot] += value;
+            sketches[slot].add(value);
+        }
+
+        private boolean holds(long bucket) {
+            int slot = slot(bucket);
+            return starts[slot] == bucket && counts[slot] > 0;
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) resolution.capacity);
+        }
+    }
+
+    private static final class PlanRollups {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Ring[] rings = new Ring[METRICS * RESOLUTIONS.length];
+    }
+
+    private final Map<Long, PlanRollups> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Adds one reading of the plan to all resolutions. NaN values are
+     * skipped.
+     */
+    public void add(long planId, long timestamp, float temperature, float relativeHumidity,
+                    float absoluteHumidity, float lightLevel) {
+        PlanRollups rollups = plans.computeIfAbsent(planId, id -> new PlanRollups());
+        rollups.lock.lock();
+        try {
+            add(rollups, Metric.TEMPERATURE, timestamp, temperature);
+            add(rollups, Metric.RELATIVE_HUMIDITY, timestamp, relativeHumidity);
+            add(rollups, Metric.ABSOLUTE_HUMIDITY, timestamp, absoluteHumidity);
+            add(rollups, Metric.LIGHT_LEVEL, timestamp, lightLevel);
+        } finally {
+            rollups.lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the aggregates of a plan from the raw readings of the store
+     * with timestamps in [from, to).
+     */
+    public void load(MicroclimateReadingStore store, long planId, long from, long to) {
+        store.scan(planId, from, to, (timestamp, temperature, relativeHumidity, absoluteHumidity, lightLevel) ->
+                add(planId, timestamp, temperature, relativeHumidity, absoluteHumidity, lightLevel));
+    }
+
+    /**
+     * Rebuilds the aggregates of every series of the store, e.g. of the
+     * series a mapped store recovered after a restart.
+     */
+    public void loadAll(MicroclimateReadingStore store, long from, long to) {
+        for (long planId : store.keys()) {
+            load(store, planId, from, to);
+        }
+    }
+
+    /**
+     * Returns the non-empty buckets of the resolution that start in
+     * [from, to), in time order.
+     */
+    public List<RollupPoint> query(long planId, Metric metric, Resolution resolution,
+                                   long from, long to, double... quantiles) {
+        List<RollupPoint> points = new ArrayList<>();
+        PlanRollups rollups = plans.get(planId);
+        if (rollups == null) {
+            return points;
+        }
+        rollups.lock.lock();
+        try {
+            Ring ring = rollups.rings[index(metric, resolution)];
+            if (ring == null) {
+                return points;
+            }
+            for (long bucket = firstBucket(resolution, from, to); bucket <= lastBucket(resolution, to); bucket++) {
+                if (ring.holds(bucket)) {
+                    int slot = ring.slot(bucket);
+                    points.add(new RollupPoint(bucket * resolution.width, ring.counts[slot], ring.mins[slot],
+                            ring.maxs[slot], ring.sums[slot] / ring.counts[slot],
+                            quantiles(ring.sketches[slot], ring.mins[slot], ring.maxs[slot], quantiles)));
+                }
+            }
+            return points;
+        } finally {
+            rollups.lock.unlock();
+        }
+    }
+
+    /**
+     * Merges the buckets of the resolution that start in [from, to) into
+     * one aggregate, null if there are no readings.
+     */
+    public RollupPoint summary(long planId, Metric metric, Resolution resolution,
+                               long from, long to, double... quantiles) {
+        PlanRollups rollups = plans.get(planId);
+        if (rollups == null) {
+            return null;
+        }
+        long count = 0;
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        double sum = 0;
+        QuantileSketch merged = new QuantileSketch();
+        rollups.lock.lock();
+        try {
+            Ring ring = rollups.rings[index(metric, resolution)];
+            if (ring == null) {
+                return null;
+            }
+            for (long bucket = firstBucket(resolution, from, to); bucket <= lastBucket(resolution, to); bucket++) {
+                if (ring.holds(bucket)) {
+                    int slot = ring.slot(bucket);
+                    count += ring.counts[slot];
+                    min = Math.min(min, ring.mins[slot]);
+                    max = Math.max(max, ring.maxs[slot]);
+                    sum += ring.sums[slot];
+                    merged.merge(ring.sketches[slot]);
+                }
+            }
+        } finally {
+            rollups.lock.unlock();
+        }
+        if (count == 0) {
+            return null;
+        }
+        return new RollupPoint(from, count, min, max, sum / count, quantiles(merged, min, max, quantiles));
+    }
+
+    private static void add(PlanRollups rollups, Metric metric, long timestamp, float value) {
+        if (Float.isNaN(value)) {
+            return;
+        }
+        for (Resolution resolution : RESOLUTIONS) {
+            int index = index(metric, resolution);
+            Ring ring = rollups.rings[index];
+            if (ring == null) {
+                ring = new Ring(resolution);
+                rollups.rings[index] = ring;
+            }
+            ring.add(timestamp, value);
+        }
+    }
+
+    private static int index(Metric metric, Resolution resolution) {
+        return resolution.ordinal() * METRICS + metric.ordinal();
+    }
+
+    // the first bucket that starts in [from, to) and is still retained
+    private static long firstBucket(Resolution resolution, long from, long to) {
+        return Math.max(Math.floorDiv(from + resolution.width - 1, resolution.width),
+                lastBucket(resolution, to) - resolution.capacity + 1);
+    }
+
+    private static long lastBucket(Resolution resolution, long to) {
+        return Math.floorDiv(to - 1, resolution.width);
+    }
+
+    // the sketch bins are wider than the extremes, so quantiles are clamped to the exact min and max
+    private static float[] quantiles(QuantileSketch sketch, float min, float max, double[] quantiles) {
+        float[] values = new float[quantiles.length];
+        for (int q = 0; q < quantiles.length; q++) {
+            values[q] = Math.max(min, Math.min(max, sketch.quantile(quantiles[q])));
+        }
+        return values;
+    }
+}
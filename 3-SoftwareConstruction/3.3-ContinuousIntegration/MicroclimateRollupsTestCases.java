@@ -0,0 +1,200 @@
+package com.example.hygimeter.timeseries;
+
+import com.example.hygimeter.timeseries.MicroclimateRollups.Metric;
+import com.example.hygimeter.timeseries.MicroclimateRollups.Resolution;
+import com.example.hygimeter.timeseries.MicroclimateRollups.RollupPoint;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MicroclimateRollupsTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final double[] QUANTILES = {0, 0.1, 0.5, 0.9, 0.99, 1};
+
+    @Test
+    public void quantile_RandomValues_WithinRelativeAccuracy() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            QuantileSketch sketch = new QuantileSketch();
+            float[] values = new float[1 + random.nextInt(5_000)];
+            for (int i = 0; i < values.length; i++) {
+                // both signs, zeros and four orders of magnitude
+                values[i] = random.nextInt(50) == 0 ? 0f
+                        : (float) ((random.nextBoolean() ? 1 : -1) * Math.pow(10, random.nextDouble() * 4 - 2));
+                sketch.add(values[i]);
+            }
+            Arrays.sort(values);
+
+            for (double q : QUANTILES) {
+                float expected = values[(int) (q * (values.length - 1))];
+                float actual = sketch.quantile(q);
+                assertTrue(Math.abs(actual - expected) <= QuantileSketch.RELATIVE_ACCURACY * Math.abs(expected) + 1e-6,
+                        "q " + q + ": expected " + expected + ", was " + actual);
+            }
+        }
+    }
+
+    @Test
+    public void merge_TwoSketches_EqualSketchOfAllValues() {
+        Random random = new Random(5);
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        QuantileSketch all = new QuantileSketch();
+        for (int i = 0; i < 10_000; i++) {
+            float value = (float) (random.nextGaussian() * 10 + (i % 2 == 0 ? 20 : -5));
+            (i % 3 == 0 ? first : second).add(value);
+            all.add(value);
+        }
+
+        first.merge(second);
+
+        assertEquals(all.count(), first.count());
+        for (double q : QUANTILES) {
+            assertEquals(all.quantile(q), first.quantile(q), "q " + q);
+        }
+    }
+
+    @Test
+    public void quantile_KeysBeyondMaxBins_CollapseLowestKeys() {
+        QuantileSketch sketch = new QuantileSketch();
+        // 1e-5 to 1e5 spans about 1150 keys
+        for (int exponent = -5; exponent <= 5; exponent++) {
+            sketch.add((float) Math.pow(10, exponent));
+        }
+
+        assertEquals(11, sketch.count());
+        assertEquals(1e5f, sketch.quantile(1), 1e5f * QuantileSketch.RELATIVE_ACCURACY);
+        assertEquals(1f, sketch.quantile(0.5), QuantileSketch.RELATIVE_ACCURACY);
+        assertTrue(Float.isNaN(new QuantileSketch().quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+
+    @Test
+    public void query_MinuteBuckets_ReturnAggregatesInTimeOrder() {
+        MicroclimateRollups rollups = new MicroclimateRollups();
+        long start = 1_700_000_000_000L / MINUTE * MINUTE;
+        for (int second = 0; second < 180; second++) {
+            int minute = second / 60;
+            rollups.add(7, start + second * 1_000L, 20 + minute + (second % 60) / 60f, 50f, 10f, Float.NaN);
+        }
+
+        List<RollupPoint> points = rollups.query(7, Metric.TEMPERATURE, Resolution.MINUTE,
+                start, start + 3 * MINUTE, 0.5);
+
+        assertEquals(3, points.size());
+        for (int minute = 0; minute < 3; minute++) {
+            RollupPoint point = points.get(minute);
+            assertEquals(start + minute * MINUTE, point.start());
+            assertEquals(60, point.count());
+            assertEquals(20 + minute, point.min(), 1e-4f);
+            assertEquals(20 + minute + 59 / 60f, point.max(), 1e-4f);
+            assertEquals(20 + minute + 59 / 120.0, point.average(), 1e-4);
+            assertEquals(20 + minute + 0.5f, point.quantiles()[0], (20 + minute) * 0.011f);
+        }
+        assertEquals(List.of(), rollups.query(7, Metric.LIGHT_LEVEL, Resolution.MINUTE,
+                start, start + 3 * MINUTE, 0.5));
+        assertEquals(List.of(), rollups.query(8, Metric.TEMPERATURE, Resolution.MINUTE,
+                start, start + 3 * MINUTE, 0.5));
+    }
+
+    @Test
+    public void summary_SeveralBuckets_MatchAllReadings() {
+        MicroclimateRollups rollups = new MicroclimateRollups();
+        Random random = new Random(9);
+        long start = 1_700_000_000_000L / 3_600_000L * 3_600_000L;
+        QuantileSketch expected = new QuantileSketch();
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (int i = 0; i < 6 * 3_600; i++) {
+            float humidity = 40 + random.nextFloat() * 30;
+            rollups.add(1, start + i * 1_000L, 21f, humidity, 9f, 0.5f);
+            expected.add(humidity);
+            min = Math.min(min, humidity);
+            max = Math.max(max, humidity);
+            sum += humidity;
+        }
+
+        RollupPoint summary = rollups.summary(1, Metric.RELATIVE_HUMIDITY, Resolution.HOUR,
+                start, start + 6 * 3_600_000L, 0.5, 0.95);
+
+        assertEquals(6 * 3_600, summary.count());
+        assertEquals(min, summary.min());
+        assertEquals(max, summary.max());
+        assertEquals(sum / summary.count(), summary.average(), 1e-3);
+        assertArrayEquals(new float[]{expected.quantile(0.5), expected.quantile(0.95)}, summary.quantiles());
+        assertNull(rollups.summary(1, Metric.RELATIVE_HUMIDITY, Resolution.HOUR,
+                start - 3_600_000L, start, 0.5));
+        assertNull(rollups.summary(2, Metric.RELATIVE_HUMIDITY, Resolution.HOUR, start, start + 1, 0.5));
+    }
+
+    @Test
+    public void query_RangeLongerThanRetention_ReturnOnlyRetainedBuckets() {
+        MicroclimateRollups rollups = new MicroclimateRollups();
+        long start = 0;
+        rollups.add(3, start, 10f, 50f, 10f, 1f);
+        // one day of minutes later the slot of the first reading is reused
+        rollups.add(3, start + 24 * 60 * MINUTE, 30f, 50f, 10f, 1f);
+        // and a minute more than a day before the end of the range is not retained
+        rollups.add(3, start + MINUTE, 40f, 50f, 10f, 1f);
+
+        List<RollupPoint> points = rollups.query(3, Metric.TEMPERATURE, Resolution.MINUTE,
+                start, start + 25 * 60 * MINUTE);
+
+        assertEquals(1, points.size());
+        assertEquals(30f, points.get(0).min());
+        assertEquals(2, rollups.query(3, Metric.TEMPERATURE, Resolution.HOUR,
+                start, start + 25 * 60 * MINUTE).size());
+    }
+
+    @Test
+    public void loadAll_RestartedStore_RebuildRollupsOfRecoveredSeries() throws IOException {
+        Path directory = Files.createTempDirectory("readings");
+        long start = 1_700_000_000_000L / 3_600_000L * 3_600_000L;
+        try {
+            try (MicroclimateReadingStore store = MicroclimateReadingStore.mapped(directory, 16, 100,
+                    Duration.ofDays(30))) {
+                for (int minute = 0; minute < 120; minute++) {
+                    store.append(4, start + minute * MINUTE, 20f + minute / 60, 50f, 10f, 0.5f);
+                    store.append(5, start + minute * MINUTE, 30f, 50f, 10f, 0.5f);
+                }
+            }
+
+            MicroclimateRollups rollups = new MicroclimateRollups();
+            try (MicroclimateReadingStore store = MicroclimateReadingStore.mapped(directory, 16, 100,
+                    Duration.ofDays(30))) {
+                // readings before the retention window are not loaded
+                rollups.loadAll(store, start + MINUTE, Long.MAX_VALUE);
+            }
+
+            List<RollupPoint> hours = rollups.query(4, Metric.TEMPERATURE, Resolution.HOUR,
+                    start, start + 2 * 60 * MINUTE);
+            assertEquals(2, hours.size());
+            assertEquals(59, hours.get(0).count());
+            assertEquals(20f, hours.get(0).max());
+            assertEquals(60, hours.get(1).count());
+            assertEquals(21f, hours.get(1).min());
+            assertEquals(119, rollups.summary(5, Metric.TEMPERATURE, Resolution.MINUTE,
+                    start, start + 2 * 60 * MINUTE).count());
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+}
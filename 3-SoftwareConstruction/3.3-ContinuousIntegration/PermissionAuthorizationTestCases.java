@@ -0,0 +1,64 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.model.Permission;
+import com.example.hygimeter.model.Role;
+import com.example.hygimeter.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PermissionAuthorizationTest {
+
+    private final PermissionAuthorization permissionAuthorization = new PermissionAuthorization();
+
+    @Test
+    public void hasPermission_RoleHasAllPermissions_Grant() {
+        AuthorizationManager<Object> manager =
+                permissionAuthorization.hasPermission(Permission.USER_READ, Permission.USER_UPDATE);
+
+        assertTrue(manager.check(() -> authenticated(Role.USER), null).isGranted());
+        assertTrue(manager.check(() -> authenticated(Role.ADMIN), null).isGranted());
+    }
+
+    @Test
+    public void hasPermission_RoleLacksOnePermission_Deny() {
+        AuthorizationManager<Object> manager =
+                permissionAuthorization.hasPermission(Permission.USER_READ, Permission.ADMIN_READ);
+
+        assertFalse(manager.check(() -> authenticated(Role.USER), null).isGranted());
+        assertTrue(manager.check(() -> authenticated(Role.ADMIN), null).isGranted());
+    }
+
+    @Test
+    public void check_PrincipalOfUserEntity_UseItsRole() {
+        User user = User.builder().name("Anna").surname("Koval").email("anna@test.com").role(Role.USER).build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null,
+                Role.USER.getAuthorities());
+
+        assertTrue(permissionAuthorization.check(authentication, "USER_DELETE"));
+        assertFalse(permissionAuthorization.check(authentication, "ADMIN_DELETE"));
+    }
+
+    @Test
+    public void check_NotAuthenticatedOrWithoutRole_Deny() {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(
+                new AuthUser(1, "Anna", "Koval", "anna@test.com", "hash", Role.ADMIN), null);
+        authentication.setAuthenticated(false);
+
+        assertFalse(permissionAuthorization.check(authentication, Permission.ADMIN_READ.getMask()));
+        assertFalse(permissionAuthorization.check(null, Permission.ADMIN_READ.getMask()));
+        // a principal that is neither an AuthUser nor a User has no role
+        assertFalse(permissionAuthorization.check(new TestingAuthenticationToken("anna", null, "user:read"),
+                Permission.USER_READ.getMask()));
+    }
+
+    private static Authentication authenticated(Role role) {
+        AuthUser user = new AuthUser(1, "Anna", "Koval", "anna@test.com", "hash", role);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.hygimeter.schedule;
+
+import com.example.hygimeter.repository.MicroclimatePlanRepository;
+import com.example.hygimeter.repository.MicroclimatePlanRepository.PlanScheduleRow;
+import com.example.hygimeter.service.PlanPatternChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fires the device actions of all active microclimate plans: lights off at
+ * PlanParameters.lightsOffTime and every change of the temperature schedule.
+ * Pending actions are kept in one TimingWheel driven by a single thread;
+ * expired actions are handed in batches to a bounded executor, and every
+ * fired action schedules the next occurrence of its kind. After a restart
+ * the wheel is rebuilt from the plans in the database. The plans of a
+ * PlanPattern are rescheduled when a change of the pattern commits, and a
+ * plan itself when its insert, update or delete commits, which
+ * MicroclimatePlanListener passes on.
+ */
+@Slf4j
+@Component
+public class PlanActionScheduler {
+
+    public enum ActionType {
+        LIGHTS_OFF,
+        TEMPERATURE_SETPOINT
+    }
+
+    /**
+     * Device action of a plan; the setpoint is NaN for lights off.
+     */
+    public record PlanAction(int planId, ActionType type, long dueMillis, float setpoint) {
+    }
+
+    /**
+     * Performs the actions on the devices. Without a handler bean fired
+     * actions are only logged.
+     */
+    @FunctionalInterface
+    public interface PlanActionHandler {
+        void handle(List<PlanAction> actions);
+    }
+
+    private record PlanTimers(TemperatureSchedule schedule, LocalTime lightsOffTime,
+                              TimingWheel.Timeout<PlanAction> lightsOff,
+                              TimingWheel.Timeout<PlanAction> setpoint) {
+    }
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final MicroclimatePlanRepository microclimatePlanRepository;
+    private final TemperatureScheduleCache temperatureScheduleCache;
+    private final PlanActionHandler planActionHandler;
+    private final Clock clock;
+    private final ZoneId zone;
+    private final long tickMillis;
+    private final int batchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, PlanTimers> plans = new ConcurrentHashMap<>();
+    private final TimingWheel<PlanAction> wheel;
+    private final ScheduledExecutorService driver;
+    private final ThreadPoolExecutor executor;
+    private final Timer fireLag;
+
+    public PlanActionScheduler(MicroclimatePlanRepository microclimatePlanRepository,
+                               TemperatureScheduleCache temperatureScheduleCache,
+                               ObjectProvider<PlanActionHandler> planActionHandler,
+                               MeterRegistry meterRegistry,
+                               @Value("${hygimeter.plan-actions.tick:PT1S}") Duration tick,
+                               @Value("${hygimeter.plan-actions.batch-size:256}") int batchSize,
+                               @Value("${hygimeter.plan-actions.workers:4}") int workers,
+                               @Value("${hygimeter.plan-actions.queue-capacity:1024}") int queueCapacity) {
+        this.microclimatePlanRepository = microclimatePlanRepository;
+        this.temperatureScheduleCache = temperatureScheduleCache;
+        this.planActionHandler = planActionHandler.getIfAvailable(
+                () -> actions -> log.debug("No handler for {} plan actions", actions.size()));
+        this.clock = Clock.systemDefaultZone();
+        this.zone = clock.getZone();
+        this.tickMillis = tick.toMillis();
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(clock.millis(), tickMillis);
+        this.driver = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "plan-action-wheel"));
+        // a full queue makes the wheel thread run the batch, which slows ticking instead of losing actions
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.fireLag = Timer.builder("plan.actions.fire.lag")
+                .description("Delay between the due time of a plan action and its firing")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("plan.actions.pending", this, PlanActionScheduler::pending)
+                .description("Plan actions waiting in the timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("plan.actions.executor.queue", executor, e -> e.getQueue().size())
+                .description("Batches of fired plan actions waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        driver.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        driver.shutdown();
+        executor.shutdown();
+    }
+
+    /**
+     * Loads the schedules of all plans from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int after = 0;
+        int loaded = 0;
+        List<PlanScheduleRow> rows;
+        do {
+            rows = microclimatePlanRepository.findScheduleRows(after, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (PlanScheduleRow row : rows) {
+                schedulePlan(row);
+                after = row.getPlanId();
+            }
+            loaded += rows.size();
+        } while (rows.size() == REBUILD_PAGE_SIZE);
+        log.info("Plan action scheduler loaded {} plans", loaded);
+    }
+
+    /**
+     * Reschedules the plans of a changed PlanPattern, or cancels them when
+     * it is deleted, once the change commits. The plans of a deleted
+     * pattern are read now, since the delete cascades to them.
+     */
+    @EventListener
+    public void planPatternChanged(PlanPatternChangedEvent event) {
+        if (event.deleted()) {
+            List<Integer> planIds = microclimatePlanRepository.findIdsByPlanPatternId(event.planPatternId());
+            afterCommit(() -> planIds.forEach(this::cancelPlan));
+        } else {
+            afterCommit(() -> microclimatePlanRepository.findScheduleRowsByPlanPatternId(event.planPatternId())
+                    .forEach(this::schedulePlan));
+        }
+    }
+
+    /**
+     * Schedules a saved plan with the plan parameters of its PlanPattern, or
+     * cancels its actions if it has no PlanPattern or plan parameters.
+     */
+    public void planChanged(int planId) {
+        microclimatePlanRepository.findScheduleRowByPlanId(planId)
+                .ifPresentOrElse(this::schedulePlan, () -> cancelPlan(planId));
+    }
+
+    /**
+     * Replaces the pending actions of the plan with the next lights off and
+     * the next schedule change. A schedule that does not compile is skipped.
+     */
+    public void schedulePlan(int planId, Integer planParametersId, String temperatureSked,
+                             LocalTime lightsOffTime) {
+        TemperatureSchedule schedule = null;
+        if (temperatureSked != null) {
+            try {
+                schedule = temperatureScheduleCache.get(planParametersId, temperatureSked);
+            } catch (TemperatureSchedule.ScheduleFormatException e) {
+                log.debug("Plan {} has an invalid temperature schedule: {}", planId, e.getMessage());
+            }
+        }
+        long now = clock.millis();
+        lock.lock();
+        try {
+            cancelTimers(plans.remove(planId));
+            plans.put(planId, new PlanTimers(schedule, lightsOffTime,
+                    scheduleLightsOff(planId, lightsOffTime, now),
+                    scheduleSetpoint(planId, schedule, now)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancelPlan(int planId) {
+        lock.lock();
+        try {
+            cancelTimers(plans.remove(planId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long pending() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedulePlan(PlanScheduleRow row) {
+        schedulePlan(row.getPlanId(), row.getPlanParametersId(), row.getTemperatureSked(), row.getLightsOffTime());
+    }
+
+    private void tick() {
+        long now = clock.millis();
+        List<List<PlanAction>> batches = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advance(now, timeout -> {
+                PlanAction action = timeout.task();
+                fireLag.record(Math.max(0, now - action.dueMillis()), TimeUnit.MILLISECONDS);
+                reschedule(action, now);
+                if (batches.isEmpty() || batches.get(batches.size() - 1).size() == batchSize) {
+                    batches.add(new ArrayList<>(batchSize));
+                }
+                batches.get(batches.size() - 1).add(action);
+            });
+        } catch (RuntimeException e) {
+            log.error("Plan action wheel tick failed", e);
+        } finally {
+            lock.unlock();
+        }
+        // submitted without the lock: a full queue runs the batch on this thread
+        for (List<PlanAction> batch : batches) {
+            submit(batch);
+        }
+    }
+
+    private void submit(List<PlanAction> actions) {
+        executor.execute(() -> {
+            try {
+                planActionHandler.handle(actions);
+            } catch (RuntimeException e) {
+                log.error("Plan actions failed", e);
+            }
+        });
+    }
+
+    private void reschedule(PlanAction action, long now) {
+        PlanTimers timers = plans.get(action.planId());
+        if (timers == null) {
+            return;
+        }
+        if (action.type() == ActionType.LIGHTS_OFF) {
+            plans.put(action.planId(), new PlanTimers(timers.schedule(), timers.lightsOffTime(),
+                    scheduleLightsOff(action.planId(), timers.lightsOffTime(), now + 1), timers.setpoint()));
+        } else {
+            plans.put(action.planId(), new PlanTimers(timers.schedule(), timers.lightsOffTime(),
+                    timers.lightsOff(), scheduleSetpoint(action.planId(), timers.schedule(), now + 1)));
+        }
+    }
+
+    private TimingWheel.Timeout<PlanAction> scheduleLightsOff(int planId, LocalTime lightsOffTime, long now) {
+        if (lightsOffTime == null) {
+            return null;
+        }
+        ZonedDateTime current = ZonedDateTime.ofInstant(Instant.ofEpochMilli(now), zone);
+        ZonedDateTime due = ZonedDateTime.of(current.toLocalDate(), lightsOffTime, zone);
+        if (!due.isAfter(current)) {
+            due = ZonedDateTime.of(current.toLocalDate().plusDays(1), lightsOffTime, zone);
+        }
+        long dueMillis = due.toInstant().toEpochMilli();
+        return wheel.schedule(new PlanAction(planId, ActionType.LIGHTS_OFF, dueMillis, Float.NaN), dueMillis);
+    }
+
+    private TimingWheel.Timeout<PlanAction> scheduleSetpoint(int planId, TemperatureSchedule schedule, long now) {
+        // a schedule without setpoints has nothing to send to the device
+        if (schedule == null || !schedule.hasSetpoints()) {
+            return null;
+        }
+        ZonedDateTime current = ZonedDateTime.ofInstant(Instant.ofEpochMilli(now), zone);
+        int minuteOfDay = current.getHour() * 60 + current.getMinute();
+        LocalDate date = current.toLocalDate();
+        ZonedDateTime due = ZonedDateTime.of(date, LocalTime.MIDNIGHT, zone)
+                .plusMinutes(minuteOfDay + schedule.minutesToNextChange(minuteOfDay));
+        long dueMillis = due.toInstant().toEpochMilli();
+        float setpoint = schedule.setpointAt(due.getHour() * 60 + due.getMinute());
+        return wheel.schedule(new PlanAction(planId, ActionType.TEMPERATURE_SETPOINT, dueMillis, setpoint),
+                dueMillis);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void cancelTimers(PlanTimers timers) {
+        if (timers == null) {
+            return;
+        }
+        if (timers.lightsOff() != null) {
+            wheel.cancel(timers.lightsOff());
+        }
+        if (timers.setpoint() != null) {
+            wheel.cancel(timers.setpoint());
+        }
+    }
+}
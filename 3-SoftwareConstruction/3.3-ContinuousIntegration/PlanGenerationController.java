@@ -0,0 +1,49 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.dto.RemoteResponse;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.generation.PlanGenerationService;
+import com.example.hygimeter.model.Humidity;
+import com.example.hygimeter.model.Microclimate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * REST controller of the server-side plan generation (FR2.5).
+ * The plan patterns are ranked against the current microclimate given in
+ * the query; the ranking tells whether the deadline cut the search short.
+ */
+@RestController
+@RequestMapping("/plan-generation")
+@RequiredArgsConstructor
+public class PlanGenerationController {
+
+    private final PlanGenerationService planGenerationService;
+
+    @GetMapping("/ranking")
+    public RemoteResponse rankPlanPatterns(
+            @RequestParam String temperature,
+            @RequestParam(required = false) Float relativeHumidity,
+            @RequestParam(required = false) Float lightLevel,
+            @RequestParam(name = "device", required = false) Set<String> devices,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime lightsOffTime,
+            @RequestParam(defaultValue = "10") int limit) {
+        Microclimate current = new Microclimate();
+        current.setTemperature(temperature);
+        current.setLightLevel(lightLevel);
+        if (relativeHumidity != null) {
+            Humidity humidity = new Humidity();
+            humidity.setRelativeHumidity(relativeHumidity);
+            current.setHumidity(humidity);
+        }
+        return RemoteResponse.create(true, StatusCodes.OK.name(), "Plan patterns have been ranked",
+                planGenerationService.rankPlanPatterns(current, devices, lightsOffTime, limit));
+    }
+}
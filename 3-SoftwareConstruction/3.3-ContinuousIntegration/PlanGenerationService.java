@@ -0,0 +1,121 @@
+package com.example.hygimeter.generation;
+
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.model.Microclimate;
+import com.example.hygimeter.repository.PlanPatternRepository;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import com.example.hygimeter.service.PlanPatternChangedEvent;
+import com.example.hygimeter.util.Psychrometrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Ranks plan patterns for ready microclimate plans (FR2.5) on the server.
+ * The catalog of plan patterns is kept as PlanGenerator.Candidates and
+ * reloaded from scalar projections periodically and on the first ranking
+ * after a plan pattern change commits, so a ranking request does not touch
+ * the database otherwise.
+ */
+@Service
+public class PlanGenerationService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private final PlanPatternRepository planPatternRepository;
+    private final TemperatureScheduleCache temperatureScheduleCache;
+    private final ForkJoinPool pool;
+    private final PlanGenerator planGenerator;
+    private final Duration deadline;
+    private volatile PlanGenerator.Candidates candidates;
+    private volatile boolean stale;
+
+    public PlanGenerationService(PlanPatternRepository planPatternRepository,
+                                 TemperatureScheduleCache temperatureScheduleCache,
+                                 @Value("${hygimeter.plan-generation.deadline:PT0.5S}") Duration deadline) {
+        this.planPatternRepository = planPatternRepository;
+        this.temperatureScheduleCache = temperatureScheduleCache;
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        this.planGenerator = new PlanGenerator(pool);
+        this.deadline = deadline;
+    }
+
+    /**
+     * Reloads the plan pattern catalog.
+     */
+    @Scheduled(fixedDelayString = "${hygimeter.plan-generation.refresh:PT1M}")
+    @Transactional(readOnly = true)
+    public void refreshCandidates() {
+        // a change committed while the catalog loads marks it stale again
+        stale = false;
+        candidates = PlanGenerator.Candidates.of(planPatternRepository.findGenerationCandidates(),
+                temperatureScheduleCache);
+    }
+
+    /**
+     * Marks the catalog stale once a plan pattern change commits. It is
+     * reloaded by the next ranking, so a bulk update reloads it once.
+     */
+    @EventListener
+    public void planPatternChanged(PlanPatternChangedEvent event) {
+        afterCommit(() -> stale = true);
+    }
+
+    /**
+     * Ranks the plan patterns against the current microclimate.
+     *
+     * @param devices devices the user has, null for any device
+     * @param lightsOffTime preferred lights-off time, null for any time
+     * @param limit number of ranked patterns to return, at most MAX_LIMIT
+     * @throws InvalidDataException if the limit is out of range
+     */
+    public PlanGenerator.Result rankPlanPatterns(Microclimate current, Set<String> devices,
+                                                 LocalTime lightsOffTime, int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                    "Limit must be from 1 to " + MAX_LIMIT);
+        }
+        PlanGenerator.Candidates snapshot = candidates;
+        if (snapshot == null || stale) {
+            refreshCandidates();
+            snapshot = candidates;
+        }
+        float relativeHumidity = current.getHumidity() == null || current.getHumidity().getRelativeHumidity() == null
+                ? Float.NaN : current.getHumidity().getRelativeHumidity();
+        float lightLevel = current.getLightLevel() == null ? Float.NaN : current.getLightLevel();
+        LocalTime now = LocalTime.now();
+
+        return planGenerator.rank(snapshot, new PlanGenerator.Request(
+                Psychrometrics.parseTemperature(current.getTemperature()), relativeHumidity, lightLevel,
+                now.getHour() * 60 + now.getMinute(), lightsOffTime, devices, limit, deadline));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.hygimeter.generation;
+
+import com.example.hygimeter.model.Microclimate;
+import com.example.hygimeter.repository.PlanPatternRepository;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import com.example.hygimeter.service.PlanPatternChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class PlanGenerationServiceTest {
+
+    private final PlanPatternRepository planPatternRepository = mock(PlanPatternRepository.class);
+    private final PlanGenerationService planGenerationService = new PlanGenerationService(planPatternRepository,
+            new TemperatureScheduleCache(1000), Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        planGenerationService.shutdown();
+    }
+
+    @Test
+    public void rankPlanPatterns_PlanPatternChanged_ReloadCatalogOnceAfterCommit() {
+        given(planPatternRepository.findGenerationCandidates()).willReturn(List.of());
+
+        rank();
+        rank();
+        verify(planPatternRepository, times(1)).findGenerationCandidates();
+
+        TransactionSynchronizationManager.initSynchronization();
+        planGenerationService.planPatternChanged(new PlanPatternChangedEvent(1, false));
+        planGenerationService.planPatternChanged(new PlanPatternChangedEvent(2, false));
+        rank();
+        verify(planPatternRepository, times(1)).findGenerationCandidates();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        rank();
+        rank();
+        verify(planPatternRepository, times(2)).findGenerationCandidates();
+    }
+
+    private void rank() {
+        Microclimate current = new Microclimate();
+        current.setTemperature("22");
+        planGenerationService.rankPlanPatterns(current, null, null, 10);
+    }
+}
@@ -0,0 +1,398 @@
+package com.example.hygimeter.generation;
+
+import com.example.hygimeter.repository.PlanPatternRepository.GenerationCandidate;
+import com.example.hygimeter.schedule.TemperatureSchedule;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import com.example.hygimeter.util.Psychrometrics;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ranks plan patterns against the current microclimate of a user.
+ * The cost of a pattern is the weighted distance between the current
+ * microclimate and the optimal microclimate of the pattern, plus the
+ * distance of the current temperature from the setpoint its temperature
+ * schedule has at the time of the request, plus the distance of its
+ * lights-off time from the preferred one. A schedule without setpoints
+ * adds nothing. Patterns are
+ * scored in parallel on a fork/join pool; a pattern is dropped as soon as
+ * its partial cost reaches the cost of the k-th best pattern found so far,
+ * and scoring stops at the deadline with the best patterns seen until then.
+ */
+public final class PlanGenerator {
+
+    private static final float TEMPERATURE_WEIGHT = 1f;
+    private static final float SETPOINT_WEIGHT = 0.5f;
+    private static final float HUMIDITY_WEIGHT = 0.1f;
+    private static final float LIGHT_WEIGHT = 10f;
+    private static final float LIGHTS_OFF_WEIGHT_PER_HOUR = 0.5f;
+    private static final float MISSING_VALUE_COST = 5f;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int SPLIT_THRESHOLD = 4096;
+    private static final int DEADLINE_CHECK_MASK = 1023;
+
+    /**
+     * Plan patterns as primitive columns, built once per catalog change.
+     */
+    public static final class Candidates {
+        private final int[] ids;
+        private final int[] devices;
+        private final Map<String, Integer> deviceIndexes;
+        private final float[] temperatures;
+        private final float[] relativeHumidities;
+        private final float[] lightLevels;
+        private final TemperatureSchedule[] schedules;
+        private final int[] lightsOffMinutes;
+
+        private Candidates(int size) {
+            ids = new int[size];
+            devices = new int[size];
+            deviceIndexes = new HashMap<>();
+            temperatures = new float[size];
+            relativeHumidities = new float[size];
+            lightLevels = new float[size];
+            schedules = new TemperatureSchedule[size];
+            lightsOffMinutes = new int[size];
+        }
+
+        /**
+         * @param rows the scalar columns of the plan patterns
+         * @param temperatureScheduleCache compiles the temperature schedules;
+         *                                 a schedule that does not compile is
+         *                                 treated as one without setpoints
+         */
+        public static Candidates of(List<? extends GenerationCandidate> rows,
+                                    TemperatureScheduleCache temperatureScheduleCache) {
+            Candidates candidates = new Candidates(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                GenerationCandidate row = rows.get(i);
+                LocalTime lightsOffTime = row.getLightsOffTime();
+
+                candidates.ids[i] = row.getId();
+                candidates.devices[i] = candidates.deviceIndexes.computeIfAbsent(
+                        String.valueOf(row.getDevice()), d -> candidates.deviceIndexes.size());
+                candidates.temperatures[i] = Psychrometrics.parseTemperature(row.getTemperature());
+                candidates.relativeHumidities[i] = row.getRelativeHumidity() == null
+                        ? Float.NaN : row.getRelativeHumidity();
+                candidates.lightLevels[i] = row.getLightLevel() == null ? Float.NaN : row.getLightLevel();
+                candidates.schedules[i] = schedule(row, temperatureScheduleCache);
+                candidates.lightsOffMinutes[i] = lightsOffTime == null
+                        ? -1 : lightsOffTime.getHour() * 60 + lightsOffTime.getMinute();
+            }
+            return candidates;
+        }
+
+        private static TemperatureSchedule schedule(GenerationCandidate row,
+                                                    TemperatureScheduleCache temperatureScheduleCache) {
+            if (row.getTemperatureSked() == null) {
+                return null;
+            }
+            try {
+                TemperatureSchedule schedule = temperatureScheduleCache.get(row.getPlanParametersId(),
+                        row.getTemperatureSked());
+                return schedule.hasSetpoints() ? schedule : null;
+            } catch (TemperatureSchedule.ScheduleFormatException e) {
+                return null;
+            }
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        private boolean[] allowedDevices(Set<String> devices) {
+            boolean[] allowed = new boolean[deviceIndexes.size()];
+            if (devices == null) {
+                Arrays.fill(allowed, true);
+            } else {
+                for (String device : devices) {
+                    Integer index = deviceIndexes.get(device);
+                    if (index != null) {
+                        allowed[index] = true;
+                    }
+                }
+            }
+            return allowed;
+        }
+    }
+
+    /**
+     * Current microclimate of the user and the wanted plan.
+     *
+     * @param minuteOfDay the time of the request, at which the schedule
+     *                    setpoints are compared
+     * @param devices devices the user has, null for any device
+     * @param lightsOffTime preferred lights-off time, null for any time
+     * @param limit number of ranked patterns to return
+     */
+    public record Request(float temperature, float relativeHumidity, float lightLevel, int minuteOfDay,
+                          LocalTime lightsOffTime, Set<String> devices, int limit, Duration deadline) {
+    }
+
+    public record RankedPattern(int planPatternId, float cost) {
+    }
+
+    /**
+     * @param complete false if the deadline stopped scoring before all
+     *                 patterns were scored
+     */
+    public record Result(List<RankedPattern> ranked, int scored, boolean complete) {
+    }
+
+    private final ForkJoinPool pool;
+
+    public PlanGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Result rank(Candidates candidates, Request request) {
+        if (request.limit() <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        long deadline = System.nanoTime() + request.deadline().toNanos();
+        Search search = new Search(candidates, request, candidates.allowedDevices(request.devices()), deadline);
+        TopK top = pool.invoke(new ScoreTask(search, 0, candidates.size()));
+
+        List<RankedPattern> ranked = new ArrayList<>(top.size);
+        int[] order = top.sortedIndexes();
+        for (int index : order) {
+            ranked.add(new RankedPattern(candidates.ids[top.indexes[index]], top.costs[index]));
+        }
+        return new Result(ranked, search.scored.get(), !search.timedOut.get());
+    }
+
+    private static final class Search {
+        private final Candidates candidates;
+        private final Request request;
+        private final boolean[] allowedDevices;
+        private final int lightsOffMinute;
+        private final long deadline;
+        private final AtomicInteger bound = new AtomicInteger(Float.floatToIntBits(Float.POSITIVE_INFINITY));
+        private final AtomicInteger scored = new AtomicInteger();
+        private final AtomicBoolean timedOut = new AtomicBoolean();
+
+        private Search(Candidates candidates, Request request, boolean[] allowedDevices, long deadline) {
+            this.candidates = candidates;
+            this.request = request;
+            this.allowedDevices = allowedDevices;
+            this.lightsOffMinute = request.lightsOffTime() == null
+                    ? -1 : request.lightsOffTime().getHour() * 60 + request.lightsOffTime().getMinute();
+            this.deadline = deadline;
+        }
+
+        private float bound() {
+            return Float.intBitsToFloat(bound.get());
+        }
+
+        /**
+         * Lowers the shared bound. Costs are not negative, so their bits
+         * compare as the values do.
+         */
+        private void publish(float cost) {
+            int bits = Float.floatToIntBits(cost);
+            int current = bound.get();
+            while (bits < current && !bound.compareAndSet(current, bits)) {
+                current = bound.get();
+            }
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveTask<TopK> {
+        private final Search search;
+        private final int from;
+        private final int to;
+
+        private ScoreTask(Search search, int from, int to) {
+            this.search = search;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ScoreTask left = new ScoreTask(search, from, middle);
+                left.fork();
+                TopK right = new ScoreTask(search, middle, to).compute();
+                return left.join().merge(right);
+            }
+            return scoreRange();
+        }
+
+        private TopK scoreRange() {
+            Candidates c = search.candidates;
+            Request r = search.request;
+            TopK top = new TopK(r.limit());
+            int scored = 0;
+            for (int i = from; i < to; i++) {
+                if ((i & DEADLINE_CHECK_MASK) == 0
+                        && (search.timedOut.get() || System.nanoTime() > search.deadline)) {
+                    search.timedOut.set(true);
+                    break;
+                }
+                if (!search.allowedDevices[c.devices[i]]) {
+                    continue;
+                }
+                scored++;
+                float bound = top.isFull() ? Math.min(top.worst(), search.bound()) : search.bound();
+
+                float cost = term(c.temperatures[i], r.temperature(), TEMPERATURE_WEIGHT);
+                if (cost >= bound) {
+                    continue;
+                }
+                cost += setpointTerm(c.schedules[i], r.minuteOfDay(), r.temperature());
+                if (cost >= bound) {
+                    continue;
+                }
+                cost += term(c.relativeHumidities[i], r.relativeHumidity(), HUMIDITY_WEIGHT);
+                if (cost >= bound) {
+                    continue;
+                }
+                cost += term(c.lightLevels[i], r.lightLevel(), LIGHT_WEIGHT);
+                if (cost >= bound) {
+                    continue;
+                }
+                cost += lightsOffTerm(c.lightsOffMinutes[i], search.lightsOffMinute);
+                if (cost >= bound) {
+                    continue;
+                }
+                top.offer(i, cost);
+                if (top.isFull()) {
+                    search.publish(top.worst());
+                }
+            }
+            search.scored.addAndGet(scored);
+            return top;
+        }
+
+        private static float term(float patternValue, float currentValue, float weight) {
+            if (Float.isNaN(patternValue) || Float.isNaN(currentValue)) {
+                return MISSING_VALUE_COST;
+            }
+            return Math.abs(patternValue - currentValue) * weight;
+        }
+
+        private static float setpointTerm(TemperatureSchedule schedule, int minuteOfDay, float currentValue) {
+            if (schedule == null) {
+                return 0f;
+            }
+            return term(schedule.setpointAt(minuteOfDay), currentValue, SETPOINT_WEIGHT);
+        }
+
+        private static float lightsOffTerm(int patternMinute, int preferredMinute) {
+            if (preferredMinute < 0) {
+                return 0f;
+            }
+            if (patternMinute < 0) {
+                return MISSING_VALUE_COST;
+            }
+            int difference = Math.abs(patternMinute - preferredMinute);
+            difference = Math.min(difference, MINUTES_PER_DAY - difference);
+            return difference / 60f * LIGHTS_OFF_WEIGHT_PER_HOUR;
+        }
+    }
+
+    /**
+     * Bounded max-heap of the lowest costs on primitive arrays.
+     */
+    private static final class TopK {
+        private final int[] indexes;
+        private final float[] costs;
+        private int size;
+
+        private TopK(int capacity) {
+            indexes = new int[capacity];
+            costs = new float[capacity];
+        }
+
+        private boolean isFull() {
+            return size == costs.length;
+        }
+
+        private float worst() {
+            return costs[0];
+        }
+
+        private void offer(int index, float cost) {
+            if (!isFull()) {
+                indexes[size] = index;
+                costs[size] = cost;
+                siftUp(size++);
+            } else if (cost < costs[0]) {
+                indexes[0] = index;
+                costs[0] = cost;
+                siftDown(0);
+            }
+        }
+
+        private TopK merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.indexes[i], other.costs[i]);
+            }
+            return this;
+        }
+
+        private int[] sortedIndexes() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Float.compare(costs[a], costs[b]));
+            int[] sorted = new int[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = order[i];
+            }
+            return sorted;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (costs[parent] >= costs[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int largest = i;
+                if (left < size && costs[left] > costs[largest]) {
+                    largest = left;
+                }
+                if (left + 1 < size && costs[left + 1] > costs[largest]) {
+                    largest = left + 1;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int index = indexes[a];
+            indexes[a] = indexes[b];
+            indexes[b] = index;
+            float cost = costs[a];
+            costs[a] = costs[b];
+            costs[b] = cost;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.hygimeter.generation;
+
+import com.example.hygimeter.repository.PlanPatternRepository.GenerationCandidate;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlanGeneratorTest {
+
+    private static final Duration NO_DEADLINE = Duration.ofMinutes(1);
+
+    private final PlanGenerator planGenerator = new PlanGenerator(ForkJoinPool.commonPool());
+
+    private record Row(Integer id, String device, String temperature, Float relativeHumidity, Float lightLevel,
+                       String temperatureSked, LocalTime lightsOffTime) implements GenerationCandidate {
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public String getDevice() {
+            return device;
+        }
+
+        @Override
+        public String getTemperature() {
+            return temperature;
+        }
+
+        @Override
+        public Float getRelativeHumidity() {
+            return relativeHumidity;
+        }
+
+        @Override
+        public Float getLightLevel() {
+            return lightLevel;
+        }
+
+        @Override
+        public Integer getPlanParametersId() {
+            return id;
+        }
+
+        @Override
+        public String getTemperatureSked() {
+            return temperatureSked;
+        }
+
+        @Override
+        public LocalTime getLightsOffTime() {
+            return lightsOffTime;
+        }
+    }
+
+    @Test
+    public void rank_ClosestMicroclimate_RankFirst() {
+        PlanGenerator.Candidates candidates = candidates(List.of(
+                new Row(1, "A", "26°C", 60f, 2f, null, LocalTime.of(22, 0)),
+                new Row(2, "A", "21°C", 55f, 2f, null, LocalTime.of(22, 0)),
+                new Row(3, "A", "22°C", 50f, 2f, null, LocalTime.of(22, 0))));
+
+        PlanGenerator.Result result = planGenerator.rank(candidates,
+                request(21.5f, 50f, 2f, 12 * 60, null, null, 3, NO_DEADLINE));
+
+        assertEquals(List.of(3, 2, 1), ids(result));
+        assertEquals(3, result.scored());
+        assertTrue(result.complete());
+    }
+
+    @Test
+    public void rank_ScheduleSetpointFarFromCurrent_RankLower() {
+        // same microclimate; only the setpoint at noon differs
+        PlanGenerator.Candidates candidates = candidates(List.of(
+                new Row(1, "A", "22", 50f, 2f, "06:00=28; 18:00=22", null),
+                new Row(2, "A", "22", 50f, 2f, "06:00=22; 18:00=28", null),
+                new Row(3, "A", "22", 50f, 2f, "Every 6 hours", null)));
+
+        PlanGenerator.Result noon = planGenerator.rank(candidates,
+                request(22f, 50f, 2f, 12 * 60, null, null, 3, NO_DEADLINE));
+        PlanGenerator.Result evening = planGenerator.rank(candidates,
+                request(22f, 50f, 2f, 20 * 60, null, null, 3, NO_DEADLINE));
+
+        assertEquals(1, (int) ids(noon).get(2));
+        assertEquals(2, (int) ids(evening).get(2));
+        assertEquals(3f, noon.ranked().get(2).cost(), 1e-4f);
+    }
+
+    @Test
+    public void rank_DevicesAndLightsOff_FilterAndWrapAroundMidnight() {
+        PlanGenerator.Candidates candidates = candidates(List.of(
+                new Row(1, "A", "22", 50f, 2f, null, LocalTime.of(23, 30)),
+                new Row(2, "B", "22", 50f, 2f, null, LocalTime.of(0, 30)),
+                new Row(3, "C", "22", 50f, 2f, null, LocalTime.of(20, 0))));
+
+        PlanGenerator.Result result = planGenerator.rank(candidates,
+                request(22f, 50f, 2f, 0, LocalTime.of(0, 15), Set.of("A", "C", "unknown"), 3, NO_DEADLINE));
+
+        assertEquals(List.of(1, 3), ids(result));
+        assertEquals(0.375f, result.ranked().get(0).cost(), 1e-4f);
+    }
+
+    @Test
+    public void rank_PrunedSearch_MatchExhaustiveRanking() {
+        Random random = new Random(3);
+        List<Row> rows = new ArrayList<>();
+        String[] skeds = {null, "Every 6 hours", "Every 4 hours = 21", "06:00=20; 22:00=17", "invalid"};
+        for (int i = 1; i <= 50_000; i++) {
+            rows.add(new Row(i, "D" + random.nextInt(5),
+                    random.nextInt(20) == 0 ? null : String.format("%.1f°C", 15 + random.nextFloat() * 15),
+                    random.nextInt(20) == 0 ? null : 30 + random.nextFloat() * 50,
+                    random.nextInt(20) == 0 ? null : random.nextFloat() * 5,
+                    skeds[random.nextInt(skeds.length)],
+                    random.nextInt(5) == 0 ? null : LocalTime.of(random.nextInt(24), random.nextInt(60))));
+        }
+        PlanGenerator.Candidates candidates = candidates(rows);
+
+        for (int query = 0; query < 20; query++) {
+            float temperature = 15 + random.nextFloat() * 15;
+            float relativeHumidity = 30 + random.nextFloat() * 50;
+            float lightLevel = random.nextFloat() * 5;
+            int minuteOfDay = random.nextInt(24 * 60);
+            LocalTime lightsOffTime = random.nextBoolean() ? null : LocalTime.of(random.nextInt(24), 0);
+            Set<String> devices = random.nextBoolean() ? null : Set.of("D1", "D3");
+            int limit = 1 + random.nextInt(20);
+
+            // with a limit of all patterns the heap is full only after the last one, so nothing is pruned
+            PlanGenerator.Result exhaustive = planGenerator.rank(candidates, request(temperature, relativeHumidity,
+                    lightLevel, minuteOfDay, lightsOffTime, devices, candidates.size(), NO_DEADLINE));
+            PlanGenerator.Result pruned = planGenerator.rank(candidates, request(temperature, relativeHumidity,
+                    lightLevel, minuteOfDay, lightsOffTime, devices, limit, NO_DEADLINE));
+
+            assertTrue(pruned.complete());
+            assertEquals(exhaustive.scored(), pruned.scored());
+            assertEquals(costs(exhaustive).subList(0, limit), costs(pruned), "query " + query);
+        }
+    }
+
+    @Test
+    public void rank_DeadlinePassed_ReturnIncomplete() {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            rows.add(new Row(i, "A", "22", 50f, 2f, null, null));
+        }
+
+        PlanGenerator.Result result = planGenerator.rank(candidates(rows),
+                request(22f, 50f, 2f, 0, null, null, 5, Duration.ZERO));
+
+        assertFalse(result.complete());
+        assertTrue(result.scored() < rows.size());
+    }
+
+    @Test
+    public void rank_LimitNotPositive_ThrowIllegalArgument() {
+        PlanGenerator.Candidates candidates = candidates(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> planGenerator.rank(candidates,
+                request(22f, 50f, 2f, 0, null, null, 0, NO_DEADLINE)));
+    }
+
+    private static PlanGenerator.Candidates candidates(List<Row> rows) {
+        return PlanGenerator.Candidates.of(rows, new TemperatureScheduleCache(1000));
+    }
+
+    private static PlanGenerator.Request request(float temperature, float relativeHumidity, float lightLevel,
+                                                 int minuteOfDay, LocalTime lightsOffTime, Set<String> devices,
+                                                 int limit, Duration deadline) {
+        return new PlanGenerator.Request(temperature, relativeHumidity, lightLevel, minuteOfDay, lightsOffTime,
+                devices, limit, deadline);
+    }
+
+    private static List<Integer> ids(PlanGenerator.Result result) {
+        return result.ranked().stream().map(PlanGenerator.RankedPattern::planPatternId).toList();
+    }
+
+    private static List<Float> costs(PlanGenerator.Result result) {
+        return result.ranked().stream().map(PlanGenerator.RankedPattern::cost).toList();
+    }
+}
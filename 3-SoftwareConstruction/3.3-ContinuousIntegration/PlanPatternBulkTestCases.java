@@ -0,0 +1,198 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.dto.BulkItemResultDTO;
+import com.example.hygimeter.dto.HumidityDTO;
+import com.example.hygimeter.dto.MicroclimateDTO;
+import com.example.hygimeter.dto.PlanParametersDTO;
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.exception.PreconditionFailedException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.repository.PlanPatternPatchRepository;
+import com.example.hygimeter.repository.PlanPatternRepository;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk writes against PostgreSQL. Every chunk commits in its own
+ * transaction, so the test itself runs without one and removes its rows.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(PlanPatternServiceImplBulkTest.ServiceConfig.class)
+public class PlanPatternServiceImplBulkTest {
+
+    @TestConfiguration
+    @ComponentScan(basePackages = "com.example.hygimeter.mapper")
+    @Import({PlanPatternServiceImpl.class, PlanPatternValidator.class, TemperatureScheduleCache.class,
+            PlanPatternPatchRepository.class})
+    static class ServiceConfig {
+    }
+
+    @Autowired
+    private PlanPatternService planPatternService;
+
+    @Autowired
+    private PlanPatternRepository planPatternRepository;
+
+    private final List<Integer> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        planPatternRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    public void createPlanPatterns_SeveralChunks_ReportEveryItem() {
+        List<PlanPatternDTO> planPatternDTOS = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            PlanPatternDTO planPatternDTO = newPlanPattern("Every 6 hours");
+            if (i % 10 == 3) {
+                planPatternDTO.setDevice("DeviceTypeA");
+            }
+            planPatternDTOS.add(planPatternDTO);
+        }
+
+        List<BulkItemResultDTO> results = create(planPatternDTOS);
+
+        assertEquals(120, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BulkItemResultDTO result = results.get(i);
+            assertEquals(i, result.getIndex());
+            if (i % 10 == 3) {
+                assertEquals(StatusCodes.INVALID_DATA.name(), result.getStatusCode());
+                assertNull(result.getId());
+            } else {
+                assertEquals(StatusCodes.OK.name(), result.getStatusCode());
+                assertTrue(planPatternRepository.existsById(result.getId()));
+            }
+        }
+    }
+
+    @Test
+    public void createPlanPatterns_ItemFailsInDatabase_FailOnlyThatItem() {
+        List<PlanPatternDTO> planPatternDTOS = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            // the create rules do not limit the schedule, the column does
+            planPatternDTOS.add(newPlanPattern(i == 7 ? "Every 6 hours ".repeat(30) : "Every 6 hours"));
+        }
+
+        List<BulkItemResultDTO> results = create(planPatternDTOS);
+
+        assertEquals(StatusCodes.INVALID_DATA.name(), results.get(7).getStatusCode());
+        assertEquals("Plan pattern has not been created", results.get(7).getStatusMessage());
+        assertNull(results.get(7).getId());
+        for (int i = 0; i < results.size(); i++) {
+            if (i != 7) {
+                assertEquals(StatusCodes.OK.name(), results.get(i).getStatusCode(), "item " + i);
+                assertTrue(planPatternRepository.existsById(results.get(i).getId()), "item " + i);
+            }
+        }
+    }
+
+    @Test
+    public void updatePlanPatterns_MixedItems_ReportEveryItem() {
+        List<BulkItemResultDTO> created = create(List.of(newPlanPattern("Every 6 hours"),
+                newPlanPattern("Every 6 hours")));
+        Integer firstId = created.get(0).getId();
+        Integer secondId = created.get(1).getId();
+
+        PlanPatternDTO invalid = updatedPlanPattern(secondId, "DeviceTypeC");
+        invalid.setMicroclimateDTO(null);
+        List<BulkItemResultDTO> results = planPatternService.updatePlanPatterns(List.of(
+                updatedPlanPattern(firstId, "DeviceTypeA"),
+                updatedPlanPattern(Integer.MAX_VALUE, "DeviceTypeB"),
+                invalid));
+
+        assertEquals(StatusCodes.OK.name(), results.get(0).getStatusCode());
+        assertEquals(firstId, results.get(0).getId());
+        assertEquals(StatusCodes.ENTITY_NOT_FOUND.name(), results.get(1).getStatusCode());
+        assertEquals(StatusCodes.INVALID_DATA.name(), results.get(2).getStatusCode());
+
+        assertEquals("DeviceTypeA", planPatternService.getPlanPatternById(firstId).getDevice());
+        assertEquals("07:00=21; 22:00=18",
+                planPatternService.getPlanPatternById(firstId).getPlanParametersDTO().getTemperatureSked());
+        assertFalse("DeviceTypeC".equals(planPatternService.getPlanPatternById(secondId).getDevice()));
+    }
+
+    @Test
+    public void updatePlanPatterns_Versions_FailStaleItemAndKeepPlanParametersRow() {
+        List<BulkItemResultDTO> created = create(List.of(newPlanPattern("Every 6 hours"),
+                newPlanPattern("Every 6 hours")));
+        Integer firstId = created.get(0).getId();
+        Integer secondId = created.get(1).getId();
+        Integer planParametersId = planPatternRepository.findById(firstId).orElseThrow()
+                .getPlanParameters().getId();
+
+        PlanPatternDTO current = updatedPlanPattern(firstId, "DeviceTypeA");
+        current.setVersion(0);
+        PlanPatternDTO stale = updatedPlanPattern(secondId, "DeviceTypeB");
+        stale.setVersion(5);
+        List<BulkItemResultDTO> results = planPatternService.updatePlanPatterns(List.of(current, stale));
+
+        assertEquals(StatusCodes.OK.name(), results.get(0).getStatusCode());
+        assertEquals(PreconditionFailedException.STATUS_CODE, results.get(1).getStatusCode());
+        assertEquals(planParametersId, planPatternRepository.findById(firstId).orElseThrow()
+                .getPlanParameters().getId());
+        assertEquals(1, planPatternService.getPlanPatternById(firstId).getVersion());
+        assertEquals(0, planPatternService.getPlanPatternById(secondId).getVersion());
+    }
+
+    private List<BulkItemResultDTO> create(List<PlanPatternDTO> planPatternDTOS) {
+        List<BulkItemResultDTO> results = planPatternService.createPlanPatterns(planPatternDTOS);
+        results.stream().map(BulkItemResultDTO::getId).filter(Objects::nonNull).forEach(createdIds::add);
+        return results;
+    }
+
+    private static PlanPatternDTO newPlanPattern(String temperatureSked) {
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked(temperatureSked);
+        planParameters.setLightsOffTime(LocalTime.of(22, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        return planPatternDTO;
+    }
+
+    private static PlanPatternDTO updatedPlanPattern(Integer id, String device) {
+        HumidityDTO humidity = new HumidityDTO();
+        humidity.setRelativeHumidity(55f);
+        humidity.setAbsoluteHumidity(11f);
+
+        MicroclimateDTO microclimate = new MicroclimateDTO();
+        microclimate.setTemperature("22°C");
+        microclimate.setVentilation("TypeB");
+        microclimate.setLightLevel(0.8f);
+        microclimate.setHumidity(humidity);
+
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("07:00=21; 22:00=18");
+        planParameters.setLightsOffTime(LocalTime.of(23, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(id);
+        planPatternDTO.setDevice(device);
+        planPatternDTO.setMicroclimateDTO(microclimate);
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        return planPatternDTO;
+    }
+}
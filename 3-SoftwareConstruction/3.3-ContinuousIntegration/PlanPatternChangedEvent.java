@@ -0,0 +1,14 @@
+package com.example.hygimeter.service;
+
+/**
+ * Published by PlanPatternServiceImpl inside the transaction that changes
+ * the device or the plan parameters of a PlanPattern, or deletes it.
+ * Listeners that act on the committed state defer their work until the
+ * transaction commits.
+ *
+ * @param planPatternId The ID of the changed PlanPattern.
+ * @param deleted Whether the PlanPattern is being deleted; the event is
+ *                published before the delete, while its plans still exist.
+ */
+public record PlanPatternChangedEvent(Integer planPatternId, boolean deleted) {
+}
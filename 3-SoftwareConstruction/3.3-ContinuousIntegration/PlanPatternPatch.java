@@ -0,0 +1,147 @@
+package com.example.hygimeter.dto;
+
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSON Merge Patch (RFC 7396) of a PlanPattern.
+ * Only the fields present in the patch are changed; a null value clears
+ * the field. The device and the plan parameters can be patched, "id" may
+ * repeat the id of the path and "version" is the version the client has
+ * read, used when the request has no If-Match. Any other field is rejected,
+ * since a patch that is silently ignored would look applied.
+ *
+ * @param version The expected version, null for any.
+ * @param changes The new values of the patched fields.
+ */
+public record PlanPatternPatch(Integer version, Map<Field, Object> changes) {
+
+    /**
+     * Patchable field and the column that stores it.
+     */
+    public enum Field {
+        DEVICE("planpattern", "device"),
+        TEMPERATURE_SKED("planparameters", "temperaturesked"),
+        LIGHTS_OFF_TIME("planparameters", "lightsofftime");
+
+        private final String table;
+        private final String column;
+
+        Field(String table, String column) {
+            this.table = table;
+            this.column = column;
+        }
+
+        public String table() {
+            return table;
+        }
+
+        public String column() {
+            return column;
+        }
+    }
+
+    public PlanPatternPatch {
+        Map<Field, Object> copy = new EnumMap<>(Field.class);
+        copy.putAll(changes);
+        changes = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Reads a merge patch document.
+     *
+     * @throws InvalidDataException if the document is not an object, has a
+     *                              field that cannot be patched or a value
+     *                              of a wrong type
+     */
+    public static PlanPatternPatch from(Integer id, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw invalid("Merge patch must be a JSON object");
+        }
+        Integer version = null;
+        Map<Field, Object> changes = new EnumMap<>(Field.class);
+        for (Iterator<Map.Entry<String, JsonNode>> it = patch.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "id" -> {
+                    if (!value.isNull() && (!value.canConvertToInt() || value.intValue() != id)) {
+                        throw invalid("Id cannot be changed");
+                    }
+                }
+                case "version" -> {
+                    if (!value.isNull() && !value.canConvertToInt()) {
+                        throw invalid("Version must be an integer");
+                    }
+                    version = value.isNull() ? null : value.intValue();
+                }
+                case "device" -> changes.put(Field.DEVICE, text(value, "device"));
+                case "planParametersDTO" -> {
+                    if (!value.isObject()) {
+                        throw invalid("Plan parameters cannot be null");
+                    }
+                    readPlanParameters(value, changes);
+                }
+                default -> throw invalid("Field " + field.getKey() + " cannot be patched");
+            }
+        }
+        return new PlanPatternPatch(version, changes);
+    }
+
+    public PlanPatternPatch withVersion(Integer version) {
+        return new PlanPatternPatch(version, changes);
+    }
+
+    public boolean contains(Field field) {
+        return changes.containsKey(field);
+    }
+
+    public Object get(Field field) {
+        return changes.get(field);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    private static void readPlanParameters(JsonNode planParameters, Map<Field, Object> changes) {
+        for (Iterator<Map.Entry<String, JsonNode>> it = planParameters.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "temperatureSked" -> changes.put(Field.TEMPERATURE_SKED, text(value, "temperatureSked"));
+                case "lightsOffTime" -> {
+                    String time = text(value, "lightsOffTime");
+                    try {
+                        changes.put(Field.LIGHTS_OFF_TIME, time == null ? null : LocalTime.parse(time));
+                    } catch (DateTimeParseException e) {
+                        throw invalid("Time when lights go off must be HH:MM or HH:MM:SS");
+                    }
+                }
+                default -> throw invalid("Field planParametersDTO." + field.getKey() + " cannot be patched");
+            }
+        }
+    }
+
+    private static String text(JsonNode value, String name) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw invalid("Field " + name + " must be a string");
+        }
+        return value.textValue();
+    }
+
+    private static InvalidDataException invalid(String message) {
+        return new InvalidDataException(StatusCodes.INVALID_DATA.name(), message);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.hygimeter.repository;
+
+import com.example.hygimeter.dto.PlanPatternPatch;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository applying merge patches to PlanPatterns.
+ * A patch is written by one statement that sets only the patched columns:
+ * the planpattern row is updated if its version matches, its version is
+ * incremented even when only plan parameters are patched, and the
+ * planparameters row is updated through the returned key only when one of
+ * its columns is patched. A pattern without plan parameters is not updated
+ * by a patch of their fields. The statement returns the resulting state of
+ * the pattern with its microclimate, so nothing is read before or after it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PlanPatternPatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Outcome of a patch; the state is null unless it is applied.
+     *
+     * @param withoutParameters Whether plan parameters are patched but the
+     * pattern has none.
+     */
+    public record PatchResult(boolean found, boolean applied, boolean withoutParameters,
+                              PlanPatternRepository.PlanPatternState state) {
+    }
+
+    /**
+     * State of a patched PlanPattern.
+     */
+    @Value
+    public static class PatchedState implements PlanPatternRepository.PlanPatternState {
+        Integer planParametersId;
+        Integer version;
+        String device;
+        String temperatureSked;
+        LocalTime lightsOffTime;
+        Integer microclimateId;
+        String temperature;
+        String ventilation;
+        Float lightLevel;
+        Integer humidityId;
+        Float relativeHumidity;
+        Float absoluteHumidity;
+    }
+
+    public PatchResult patch(Integer id, PlanPatternPatch patch) {
+        List<Object> arguments = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("WITH updated AS (UPDATE planpattern SET version = version + 1");
+        appendAssignments(sql, arguments, patch, "planpattern");
+        sql.append(" WHERE id = ?");
+        arguments.add(id);
+        if (patch.version() != null) {
+            sql.append(" AND version = ?");
+            arguments.add(patch.version());
+        }
+        boolean parametersPatched = patch.contains(PlanPatternPatch.Field.TEMPERATURE_SKED)
+                || patch.contains(PlanPatternPatch.Field.LIGHTS_OFF_TIME);
+        if (parametersPatched) {
+            // otherwise the version is bumped but the patched parameters are lost
+            sql.append(" AND planparameters_id IS NOT NULL");
+        }
+        sql.append(" RETURNING planparameters_id, optimalmicroclimate_id, version, device)");
+
+        if (parametersPatched) {
+            sql.append(", parameters AS (UPDATE planparameters SET ");
+            int assignments = sql.length();
+            appendAssignments(sql, arguments, patch, "planparameters");
+            // drop the separator before the first assignment
+            sql.delete(assignments, assignments + 2);
+            sql.append(" FROM updated WHERE planparameters.id = updated.planparameters_id"
+                    + " RETURNING planparameters.temperaturesked, planparameters.lightsofftime)");
+        }
+
+        // null when the pattern is not found
+        sql.append(" SELECT (SELECT planparameters_id IS NULL FROM planpattern WHERE id = ?) AS without_parameters,"
+                + " u.planparameters_id, u.version, u.device, p.temperaturesked, p.lightsofftime,"
+                + " m.id AS microclimate_id, m.temperature, m.ventilation, m.lightlevel,"
+                + " h.id AS humidity_id, h.relativehumidity, h.absolutehumidity"
+                + " FROM (SELECT 1) AS one LEFT JOIN updated u ON TRUE");
+        arguments.add(id);
+        sql.append(parametersPatched
+                ? " LEFT JOIN parameters p ON TRUE"
+                : " LEFT JOIN planparameters p ON p.id = u.planparameters_id");
+        sql.append(" LEFT JOIN microclimate m ON m.id = u.optimalmicroclimate_id"
+                + " LEFT JOIN humidity h ON h.id = m.humidity_id");
+
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> {
+            Boolean withoutParameters = rs.getObject("without_parameters", Boolean.class);
+            Integer version = rs.getObject("version", Integer.class);
+            PatchedState state = version == null ? null : new PatchedState(
+                    rs.getObject("planparameters_id", Integer.class),
+                    version,
+                    rs.getString("device"),
+                    rs.getString("temperaturesked"),
+                    rs.getObject("lightsofftime", LocalTime.class),
+                    rs.getObject("microclimate_id", Integer.class),
+                    rs.getString("temperature"),
+                    rs.getString("ventilation"),
+                    rs.getObject("lightlevel", Float.class),
+                    rs.getObject("humidity_id", Integer.class),
+                    rs.getObject("relativehumidity", Float.class),
+                    rs.getObject("absolutehumidity", Float.class));
+            return new PatchResult(withoutParameters != null, state != null,
+                    parametersPatched && Boolean.TRUE.equals(withoutParameters), state);
+        }, arguments.toArray());
+    }
+
+    // column names come from PlanPatternPatch.Field, never from the request
+    private static void appendAssignments(StringBuilder sql, List<Object> arguments, PlanPatternPatch patch,
+                                          String table) {
+        for (Map.Entry<PlanPatternPatch.Field, Object> change : patch.changes().entrySet()) {
+            if (change.getKey().table().equals(table)) {
+                sql.append(", ").append(change.getKey().column()).append(" = ?");
+                arguments.add(change.getValue());
+            }
+        }
+    }
+}
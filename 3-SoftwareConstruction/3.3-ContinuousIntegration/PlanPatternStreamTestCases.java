@@ -0,0 +1,131 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.model.*;
+import com.example.hygimeter.repository.PlanPatternPatchRepository;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streams more PlanPatterns than one fetch batch of the cursor (500 rows)
+ * from PostgreSQL and checks that the persistence context stays small.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PlanPatternServiceImplStreamTest.ServiceConfig.class)
+public class PlanPatternServiceImplStreamTest {
+
+    private static final int PATTERNS = 1_200;
+
+    @TestConfiguration
+    @ComponentScan(basePackages = "com.example.hygimeter.mapper")
+    @Import({PlanPatternServiceImpl.class, PlanPatternValidator.class, TemperatureScheduleCache.class,
+            PlanPatternPatchRepository.class})
+    static class ServiceConfig {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlanPatternService planPatternService;
+
+    private Integer userId;
+    private final List<Integer> userPatternIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .name("Anna")
+                .surname("Stream")
+                .email("anna@stream.test")
+                .password("password")
+                .role(Role.USER)
+                .build();
+        entityManager.persist(user);
+        userId = user.getId();
+
+        for (int i = 0; i < PATTERNS; i++) {
+            Humidity humidity = new Humidity();
+            humidity.setRelativeHumidity(50f);
+            humidity.setAbsoluteHumidity(10f);
+
+            Microclimate microclimate = new Microclimate();
+            microclimate.setTemperature("22");
+            microclimate.setVentilation("TypeA");
+            microclimate.setLightLevel(0.5f);
+            microclimate.setHumidity(humidity);
+            entityManager.persist(microclimate);
+
+            PlanParameters planParameters = new PlanParameters();
+            planParameters.setTemperatureSked("Every 6 hours");
+            planParameters.setLightsOffTime(LocalTime.of(22, 0));
+
+            PlanPattern planPattern = new PlanPattern();
+            planPattern.setDevice("Device" + i);
+            planPattern.setMicroclimate(microclimate);
+            planPattern.setPlanParameters(planParameters);
+            entityManager.persist(planPattern);
+
+            if (i % 2 == 0) {
+                MicroclimatePlan microclimatePlan = new MicroclimatePlan();
+                microclimatePlan.setPlanPattern(planPattern);
+                microclimatePlan.setUser(user);
+                entityManager.persist(microclimatePlan);
+                userPatternIds.add(planPattern.getId());
+            }
+            if (i % 100 == 99) {
+                entityManager.flush();
+                entityManager.clear();
+                user = entityManager.find(User.class, userId);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void streamPlanPatterns_MoreThanOneFetchBatch_KeepPersistenceContextSmall() {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        List<Integer> ids = new ArrayList<>();
+        int[] maxManaged = {0};
+
+        planPatternService.streamPlanPatterns(null, planPatternDTO -> {
+            ids.add(planPatternDTO.getId());
+            assertEquals("Every 6 hours", planPatternDTO.getPlanParametersDTO().getTemperatureSked());
+            maxManaged[0] = Math.max(maxManaged[0], session.getStatistics().getEntityCount());
+        });
+
+        assertTrue(ids.size() >= PATTERNS);
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i), "PlanPatterns must be streamed in the order of IDs");
+        }
+        // one row's PlanPattern with its microclimate, humidity and plan parameters
+        assertTrue(maxManaged[0] <= 8, "Managed entities grew to " + maxManaged[0]);
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    public void streamPlanPatterns_ByUser_ReturnOnlyPatternsOfUserPlans() {
+        List<Integer> ids = new ArrayList<>();
+
+        planPatternService.streamPlanPatterns(userId, planPatternDTO -> ids.add(planPatternDTO.getId()));
+
+        assertEquals(userPatternIds, ids);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.hygimeter.exception;
+
+import java.util.List;
+
+/**
+ * InvalidDataException with all violations of a PlanPatternDTO.
+ * Validation failures are expected input errors, so the stack trace is not
+ * filled in.
+ */
+public class PlanPatternValidationException extends InvalidDataException {
+
+    private final List<String> violations;
+
+    public PlanPatternValidationException(List<String> violations) {
+        super(StatusCodes.INVALID_DATA.name(), String.join("; ", violations));
+        this.violations = violations;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
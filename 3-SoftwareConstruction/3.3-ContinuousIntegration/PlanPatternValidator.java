@@ -0,0 +1,191 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.dto.HumidityDTO;
+import com.example.hygimeter.dto.MicroclimateDTO;
+import com.example.hygimeter.dto.PlanParametersDTO;
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.dto.PlanPatternPatch;
+import com.example.hygimeter.dto.group.OnCreate;
+import com.example.hygimeter.dto.group.OnUpdate;
+import com.example.hygimeter.exception.PlanPatternValidationException;
+import com.example.hygimeter.schedule.TemperatureSchedule;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validator of PlanPatternDTOs.
+ * The rules of every validation group are declared once as a flat array.
+ * Validation reads the nested DTOs once, runs every rule of the group and
+ * collects all violations; nothing is allocated for a valid DTO.
+ */
+@Component
+public class PlanPatternValidator {
+
+    private static final int MAX_TEMPERATURE_LENGTH = 20;
+    private static final int MAX_VENTILATION_LENGTH = 100;
+    private static final int MAX_TEMPERATURE_SKED_LENGTH = 100;
+
+    @FunctionalInterface
+    private interface Check {
+        boolean violated(PlanPatternDTO planPattern, MicroclimateDTO microclimate,
+                         HumidityDTO humidity, PlanParametersDTO planParameters);
+    }
+
+    private record Rule(Check check, String message) {
+    }
+
+    private static final Rule[] NO_RULES = {};
+
+    private static final Rule[] CREATE_RULES = {
+            new Rule((p, m, h, pp) -> p.getDevice() != null,
+                    "Device must be null at fulling the form"),
+            new Rule((p, m, h, pp) -> m != null,
+                    "Microclimate should be null while 1st time creating"),
+            new Rule((p, m, h, pp) -> pp == null,
+                    "Plan parameters cannot be null"),
+            new Rule((p, m, h, pp) -> h != null && h.getRelativeHumidity() != null,
+                    "Relative humidity must be null on creating plan parameters"),
+            new Rule((p, m, h, pp) -> h != null && h.getAbsoluteHumidity() != null,
+                    "Absolute humidity must be null on creating plan parameters")
+    };
+
+    private static final Rule TEMPERATURE_SKED_EMPTY = new Rule((p, m, h, pp) -> pp != null
+            && (pp.getTemperatureSked() == null || pp.getTemperatureSked().isEmpty()),
+            "Temperature schedule must be not null and not empty on updating parameters");
+
+    private static final Rule TEMPERATURE_SKED_TOO_LONG = new Rule((p, m, h, pp) -> pp != null
+            && pp.getTemperatureSked() != null
+            && pp.getTemperatureSked().length() > MAX_TEMPERATURE_SKED_LENGTH,
+            "Max size of temperature schedule is 100 characters");
+
+    private static final Rule TEMPERATURE_SKED_MALFORMED = new Rule((p, m, h, pp) -> pp != null
+            && pp.getTemperatureSked() != null
+            && !pp.getTemperatureSked().isEmpty()
+            && pp.getTemperatureSked().length() <= MAX_TEMPERATURE_SKED_LENGTH
+            && !TemperatureSchedule.isValid(pp.getTemperatureSked()),
+            "Temperature schedule must be 'HH:MM=temperature; ...' or 'Every N hours'");
+
+    private static final Rule LIGHTS_OFF_TIME_NULL = new Rule((p, m, h, pp) -> pp != null
+            && pp.getLightsOffTime() == null,
+            "Time when lights go off must be not null on updating parameters");
+
+    // the update rules of the fields a merge patch can change
+    private static final Rule[] TEMPERATURE_SKED_RULES = {
+            TEMPERATURE_SKED_EMPTY, TEMPERATURE_SKED_TOO_LONG, TEMPERATURE_SKED_MALFORMED
+    };
+
+    private static final Rule[] LIGHTS_OFF_TIME_RULES = {LIGHTS_OFF_TIME_NULL};
+
+    private static final Rule[] UPDATE_RULES = {
+            new Rule((p, m, h, pp) -> m == null,
+                    "Microclimate cannot be null"),
+            new Rule((p, m, h, pp) -> m != null && m.getTemperature() != null
+                    && m.getTemperature().length() > MAX_TEMPERATURE_LENGTH,
+                    "Max size of temperature is 20 characters"),
+            new Rule((p, m, h, pp) -> m != null && m.getVentilation() != null
+                    && m.getVentilation().length() > MAX_VENTILATION_LENGTH,
+                    "Max size of ventilation is 100 characters"),
+            new Rule((p, m, h, pp) -> m != null
+                    && (m.getLightLevel() == null || m.getLightLevel() <= 0),
+                    "Light level must be greater than 0"),
+            new Rule((p, m, h, pp) -> m != null
+                    && (h == null || h.getRelativeHumidity() == null || h.getRelativeHumidity() <= 0),
+                    "Relative humidity must be not null and greater than 0 on updating parameters"),
+            new Rule((p, m, h, pp) -> m != null
+                    && (h == null || h.getAbsoluteHumidity() == null || h.getAbsoluteHumidity() <= 0),
+                    "Absolute humidity must be not null and greater than 0 on updating parameters"),
+            new Rule((p, m, h, pp) -> pp == null,
+                    "Plan parameters cannot be null"),
+            TEMPERATURE_SKED_EMPTY,
+            TEMPERATURE_SKED_TOO_LONG,
+            TEMPERATURE_SKED_MALFORMED,
+            LIGHTS_OFF_TIME_NULL
+    };
+
+    /**
+     * Validates the DTO against the rules of the group. As before, the create
+     * rules apply only to DTOs without an id and the update rules only to
+     * DTOs with an id.
+     *
+     * @return messages of all violated rules, an empty list if the DTO is valid
+     */
+    public List<String> validate(PlanPatternDTO planPatternDTO, Class<?> validationGroup) {
+        Rule[] rules = rulesOf(planPatternDTO, validationGroup);
+        MicroclimateDTO microclimate = planPatternDTO.getMicroclimateDTO();
+        HumidityDTO humidity = microclimate == null ? null : microclimate.getHumidity();
+        PlanParametersDTO planParameters = planPatternDTO.getPlanParametersDTO();
+
+        List<String> violations = violations(rules, planPatternDTO, microclimate, humidity, planParameters, null);
+        return violations == null ? List.of() : violations;
+    }
+
+    /**
+     * Validates the DTO and throws one exception with all violations.
+     *
+     * @throws PlanPatternValidationException if any rule is violated
+     */
+    public void validateOrThrow(PlanPatternDTO planPatternDTO, Class<?> validationGroup) {
+        List<String> violations = validate(planPatternDTO, validationGroup);
+        if (!violations.isEmpty()) {
+            throw new PlanPatternValidationException(violations);
+        }
+    }
+
+    /**
+     * Validates the fields present in a merge patch with the update rules
+     * of those fields; absent fields are not checked. The patched values
+     * are read into plan parameters, so the same rule entries apply.
+     *
+     * @throws PlanPatternValidationException if any rule is violated
+     */
+    public void validatePatchOrThrow(PlanPatternPatch patch) {
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked((String) patch.get(PlanPatternPatch.Field.TEMPERATURE_SKED));
+        planParameters.setLightsOffTime((LocalTime) patch.get(PlanPatternPatch.Field.LIGHTS_OFF_TIME));
+
+        List<String> violations = null;
+        if (patch.contains(PlanPatternPatch.Field.TEMPERATURE_SKED)) {
+            violations = violations(TEMPERATURE_SKED_RULES, null, null, null, planParameters, violations);
+        }
+        if (patch.contains(PlanPatternPatch.Field.LIGHTS_OFF_TIME)) {
+            violations = violations(LIGHTS_OFF_TIME_RULES, null, null, null, planParameters, violations);
+        }
+        if (violations != null) {
+            throw new PlanPatternValidationException(violations);
+        }
+    }
+
+    /**
+     * Adds the messages of the violated rules to the violations, which are
+     * created on the first violation.
+     *
+     * @return the violations, null if none were found
+     */
+    private static List<String> violations(Rule[] rules, PlanPatternDTO planPattern, MicroclimateDTO microclimate,
+                                           HumidityDTO humidity, PlanParametersDTO planParameters,
+                                           List<String> violations) {
+        for (Rule rule : rules) {
+            if (rule.check().violated(planPattern, microclimate, humidity, planParameters)) {
+                if (violations == null) {
+                    violations = new ArrayList<>(rules.length);
+                }
+                violations.add(rule.message());
+            }
+        }
+        return violations;
+    }
+
+    private static Rule[] rulesOf(PlanPatternDTO planPatternDTO, Class<?> validationGroup) {
+        boolean isCreateOperation = planPatternDTO.getId() == null;
+        if (isCreateOperation && validationGroup == OnCreate.class) {
+            return CREATE_RULES;
+        }
+        if (!isCreateOperation && validationGroup == OnUpdate.class) {
+            return UPDATE_RULES;
+        }
+        return NO_RULES;
+    }
+}
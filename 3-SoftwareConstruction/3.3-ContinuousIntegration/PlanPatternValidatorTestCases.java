@@ -0,0 +1,206 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.dto.HumidityDTO;
+import com.example.hygimeter.dto.MicroclimateDTO;
+import com.example.hygimeter.dto.PlanParametersDTO;
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.dto.PlanPatternPatch;
+import com.example.hygimeter.dto.group.OnCreate;
+import com.example.hygimeter.dto.group.OnUpdate;
+import com.example.hygimeter.exception.PlanPatternValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PlanPatternValidatorTest {
+
+    private final PlanPatternValidator planPatternValidator = new PlanPatternValidator();
+
+    @Test
+    public void validate_ValidCreate_ReturnNoViolations() {
+        assertEquals(List.of(), planPatternValidator.validate(newPlanPattern(), OnCreate.class));
+    }
+
+    @Test
+    public void validate_CreateWithFilledFields_ReturnEveryViolationInRuleOrder() {
+        PlanPatternDTO planPatternDTO = updatedPlanPattern(null);
+        planPatternDTO.setPlanParametersDTO(null);
+
+        assertEquals(List.of(
+                "Device must be null at fulling the form",
+                "Microclimate should be null while 1st time creating",
+                "Plan parameters cannot be null",
+                "Relative humidity must be null on creating plan parameters",
+                "Absolute humidity must be null on creating plan parameters"),
+                planPatternValidator.validate(planPatternDTO, OnCreate.class));
+    }
+
+    @Test
+    public void validate_GroupDoesNotMatchId_ReturnNoViolations() {
+        PlanPatternDTO withId = new PlanPatternDTO();
+        withId.setId(1);
+        PlanPatternDTO withoutId = new PlanPatternDTO();
+
+        assertEquals(List.of(), planPatternValidator.validate(withId, OnCreate.class));
+        assertEquals(List.of(), planPatternValidator.validate(withoutId, OnUpdate.class));
+        assertEquals(List.of(), planPatternValidator.validate(withId, Object.class));
+    }
+
+    @Test
+    public void validate_ValidUpdate_ReturnNoViolations() {
+        assertEquals(List.of(), planPatternValidator.validate(updatedPlanPattern(1), OnUpdate.class));
+    }
+
+    @Test
+    public void validate_UpdateWithoutNestedDTOs_ReturnOnlyNullViolations() {
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(1);
+
+        assertEquals(List.of("Microclimate cannot be null", "Plan parameters cannot be null"),
+                planPatternValidator.validate(planPatternDTO, OnUpdate.class));
+    }
+
+    @Test
+    public void validate_UpdateWithInvalidValues_ReturnEveryViolationInRuleOrder() {
+        PlanPatternDTO planPatternDTO = updatedPlanPattern(1);
+        planPatternDTO.getMicroclimateDTO().setTemperature("2".repeat(21));
+        planPatternDTO.getMicroclimateDTO().setVentilation("V".repeat(101));
+        planPatternDTO.getMicroclimateDTO().setLightLevel(0f);
+        planPatternDTO.getMicroclimateDTO().getHumidity().setRelativeHumidity(null);
+        planPatternDTO.getMicroclimateDTO().getHumidity().setAbsoluteHumidity(-1f);
+        planPatternDTO.getPlanParametersDTO().setTemperatureSked("");
+        planPatternDTO.getPlanParametersDTO().setLightsOffTime(null);
+
+        assertEquals(List.of(
+                "Max size of temperature is 20 characters",
+                "Max size of ventilation is 100 characters",
+                "Light level must be greater than 0",
+                "Relative humidity must be not null and greater than 0 on updating parameters",
+                "Absolute humidity must be not null and greater than 0 on updating parameters",
+                "Temperature schedule must be not null and not empty on updating parameters",
+                "Time when lights go off must be not null on updating parameters"),
+                planPatternValidator.validate(planPatternDTO, OnUpdate.class));
+    }
+
+    @Test
+    public void validate_UpdateWithoutHumidity_ReturnBothHumidityViolations() {
+        PlanPatternDTO planPatternDTO = updatedPlanPattern(1);
+        planPatternDTO.getMicroclimateDTO().setHumidity(null);
+
+        assertEquals(List.of(
+                "Relative humidity must be not null and greater than 0 on updating parameters",
+                "Absolute humidity must be not null and greater than 0 on updating parameters"),
+                planPatternValidator.validate(planPatternDTO, OnUpdate.class));
+    }
+
+    @Test
+    public void validate_UpdateWithBoundaryLengths_ReturnNoViolations() {
+        PlanPatternDTO planPatternDTO = updatedPlanPattern(1);
+        planPatternDTO.getMicroclimateDTO().setTemperature("2".repeat(20));
+        planPatternDTO.getMicroclimateDTO().setVentilation("V".repeat(100));
+
+        assertEquals(List.of(), planPatternValidator.validate(planPatternDTO, OnUpdate.class));
+    }
+
+    @Test
+    public void validate_UpdateWithLongOrMalformedSchedule_ReturnOneScheduleViolation() {
+        PlanPatternDTO tooLong = updatedPlanPattern(1);
+        tooLong.getPlanParametersDTO().setTemperatureSked("Every 6 hours" + " ".repeat(88));
+        PlanPatternDTO malformed = updatedPlanPattern(1);
+        malformed.getPlanParametersDTO().setTemperatureSked("25:00=21");
+
+        // a schedule over the max size is not parsed
+        assertEquals(List.of("Max size of temperature schedule is 100 characters"),
+                planPatternValidator.validate(tooLong, OnUpdate.class));
+        assertEquals(List.of("Temperature schedule must be 'HH:MM=temperature; ...' or 'Every N hours'"),
+                planPatternValidator.validate(malformed, OnUpdate.class));
+    }
+
+    @Test
+    public void validateOrThrow_InvalidUpdate_ThrowWithAllViolations() {
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(1);
+
+        PlanPatternValidationException exception = assertThrows(PlanPatternValidationException.class,
+                () -> planPatternValidator.validateOrThrow(planPatternDTO, OnUpdate.class));
+
+        assertEquals(List.of("Microclimate cannot be null", "Plan parameters cannot be null"),
+                exception.getViolations());
+        assertEquals("Microclimate cannot be null; Plan parameters cannot be null", exception.getMessage());
+        assertDoesNotThrow(() -> planPatternValidator.validateOrThrow(updatedPlanPattern(1), OnUpdate.class));
+    }
+
+    @Test
+    public void validatePatchOrThrow_InvalidPatchedFields_ThrowWithUpdateMessages() {
+        PlanPatternPatch patch = new PlanPatternPatch(null, Map.of(
+                PlanPatternPatch.Field.TEMPERATURE_SKED, "25:00=21"));
+        Map<PlanPatternPatch.Field, Object> changes = new HashMap<>();
+        changes.put(PlanPatternPatch.Field.TEMPERATURE_SKED, "");
+        changes.put(PlanPatternPatch.Field.LIGHTS_OFF_TIME, null);
+        PlanPatternPatch nullFields = new PlanPatternPatch(null, changes);
+
+        PlanPatternValidationException exception = assertThrows(PlanPatternValidationException.class,
+                () -> planPatternValidator.validatePatchOrThrow(patch));
+        PlanPatternValidationException nullException = assertThrows(PlanPatternValidationException.class,
+                () -> planPatternValidator.validatePatchOrThrow(nullFields));
+
+        assertEquals(List.of("Temperature schedule must be 'HH:MM=temperature; ...' or 'Every N hours'"),
+                exception.getViolations());
+        assertEquals(List.of(
+                "Temperature schedule must be not null and not empty on updating parameters",
+                "Time when lights go off must be not null on updating parameters"),
+                nullException.getViolations());
+    }
+
+    @Test
+    public void validatePatchOrThrow_AbsentFields_NotChecked() {
+        PlanPatternPatch patch = new PlanPatternPatch(3, Map.of(PlanPatternPatch.Field.DEVICE, "DeviceTypeA"));
+        PlanPatternPatch nullSked = new PlanPatternPatch(3,
+                Collections.singletonMap(PlanPatternPatch.Field.TEMPERATURE_SKED, null));
+
+        assertDoesNotThrow(() -> planPatternValidator.validatePatchOrThrow(patch));
+        assertThrows(PlanPatternValidationException.class,
+                () -> planPatternValidator.validatePatchOrThrow(nullSked));
+    }
+
+    private static PlanPatternDTO newPlanPattern() {
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("Every 6 hours");
+        planParameters.setLightsOffTime(LocalTime.of(22, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        return planPatternDTO;
+    }
+
+    private static PlanPatternDTO updatedPlanPattern(Integer id) {
+        HumidityDTO humidity = new HumidityDTO();
+        humidity.setRelativeHumidity(55f);
+        humidity.setAbsoluteHumidity(11f);
+
+        MicroclimateDTO microclimate = new MicroclimateDTO();
+        microclimate.setTemperature("22°C");
+        microclimate.setVentilation("TypeB");
+        microclimate.setLightLevel(0.8f);
+        microclimate.setHumidity(humidity);
+
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("07:00=21; 22:00=18");
+        planParameters.setLightsOffTime(LocalTime.of(23, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(id);
+        planPatternDTO.setDevice("DeviceTypeA");
+        planPatternDTO.setMicroclimateDTO(microclimate);
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        return planPatternDTO;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.hygimeter.exception;
+
+/**
+ * Thrown when the version a client has read, sent in If-Match or in the
+ * DTO, is no longer the current version of the entity.
+ * Conflicts are expected under concurrent updates, so the stack trace is
+ * not filled in.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public static final String STATUS_CODE = "PRECONDITION_FAILED";
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -12,9 +12,41 @@ package com.example.hygimeter.service;
  * Represents a plan pattern for managing microclimates.
  * It includes details such as associated microclimate, device information,
  * and plan parameters.
+ * The named entity graphs describe which associations are fetched together
+ * with the pattern, so one view is loaded by one SQL statement.
  */
 @Entity
 @Table(name = "PlanPattern")
+@NamedEntityGraph(
+    name = PlanPattern.SUMMARY_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode(value = "microclimate",
+                            subgraph = "microclimate"),
+        @NamedAttributeNode("planParameters")
+    },
+    subgraphs = @NamedSubgraph(name = "microclimate",
+                               attributeNodes = @NamedAttributeNode("humidity"))
+)
+@NamedEntityGraph(
+    name = PlanPattern.WITH_PLANS_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode(value = "microclimate",
+                            subgraph = "microclimate"),
+        @NamedAttributeNode("planParameters"),
+        @NamedAttributeNode(value = "microclimatePlans",
+                            subgraph = "microclimatePlans")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "microclimate",
+                       attributeNodes = @NamedAttributeNode("humidity")),
+        @NamedSubgraph(name = "microclimatePlans",
+                       attributeNodes = {
+                           @NamedAttributeNode("user"),
+                           @NamedAttributeNode("topic"),
+                           @NamedAttributeNode("initialMicroclimate")
+                       })
+    }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,10 +54,27 @@ package com.example.hygimeter.service;
 public class PlanPattern {
 
     /**
-     * Unique identifier for the PlanPattern.
+     * Entity graph of the single-item and list views: the pattern with its
+     * microclimate, humidity and plan parameters.
+     */
+    public static final String SUMMARY_GRAPH = "PlanPattern.summary";
+
+    /**
+     * Entity graph of the summary view with the microclimate plans and
+     * their users, topics and initial microclimates.
+     */
+    public static final String WITH_PLANS_GRAPH = "PlanPattern.withPlans";
+
+    /**
+     * Unique identifier for the PlanPattern. It is taken from a pooled
+     * sequence, so Hibernate can batch inserts of PlanPatterns.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE,
+                    generator = "planpattern_seq")
+    @SequenceGenerator(name = "planpattern_seq",
+                       sequenceName = "planpattern_seq",
+                       allocationSize = 50)
     private Integer id;
 
     /**
@@ -53,6 +102,13 @@ public class PlanPattern {
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "planParameters_id", referencedColumnName = "id")
     private PlanParameters planParameters;
+
+    /**
+     * Version for optimistic locking, incremented by every update of the
+     * pattern or its plan parameters. It is the ETag of the pattern.
+     */
+    @Version
+    private Integer version;
 }
 
 /**
@@ -98,6 +154,70 @@ public class PlanPatternDTO {
     @Valid
     @Schema(description = "Plan Parameters")
     private PlanParametersDTO planParametersDTO;
+
+    /**
+     * Version of the PlanPattern that was read. On update it must match the
+     * current version unless it is null.
+     */
+    @Schema(description = "PlanPattern version")
+    private Integer version;
+}
+
+/**
+ * Data Transfer Object for one keyset page of PlanPatterns.
+ * The page is bounded by the requested limit, so the size of a response
+ * does not depend on the size of the PlanPattern table.
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "Plan Pattern Page Data Transfer Object")
+public class PlanPatternPageDTO {
+
+    /**
+     * PlanPatterns of the page ordered by their identifiers.
+     */
+    @Schema(description = "Plan patterns of the page")
+    private List<PlanPatternDTO> planPatterns;
+
+    /**
+     * Identifier to pass as 'after' to get the next page. It is null when
+     * the page is the last one.
+     */
+    @Schema(description = "Cursor of the next page")
+    private Integer nextCursor;
+}
+
+/**
+ * Data Transfer Object for the result of one item of a bulk operation.
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "Bulk Item Result Data Transfer Object")
+public class BulkItemResultDTO {
+
+    /**
+     * Position of the item in the request list.
+     */
+    @Schema(description = "Item index")
+    private int index;
+
+    /**
+     * Identifier of the written PlanPattern, null if the item failed.
+     */
+    @Schema(description = "PlanPattern id")
+    private Integer id;
+
+    /**
+     * Status code of the item, one of StatusCodes names.
+     */
+    @Schema(description = "Item status code")
+    private String statusCode;
+
+    /**
+     * Status message of the item.
+     */
+    @Schema(description = "Item status message")
+    private String statusMessage;
 }
 
 /**
@@ -114,7 +234,259 @@ public interface PlanPatternRepository extends JpaRepository<PlanPattern,
      * @param id The identifier of the PlanPattern.
      * @return An Optional containing the PlanPattern if found.
      */
+    @EntityGraph(PlanPattern.SUMMARY_GRAPH)
     Optional<PlanPattern> findPlanPatternById(Integer id);
+
+    /**
+     * Find a PlanPattern with its microclimate plans by its identifier.
+     *
+     * @param id The identifier of the PlanPattern.
+     * @return An Optional containing the PlanPattern if found.
+     */
+    @EntityGraph(PlanPattern.WITH_PLANS_GRAPH)
+    Optional<PlanPattern> findWithPlansById(Integer id);
+
+    /**
+     * Find all PlanPatterns with their microclimates and plan parameters.
+     *
+     * @return A list of all PlanPatterns.
+     */
+    @EntityGraph(PlanPattern.SUMMARY_GRAPH)
+    @Query("select p from PlanPattern p")
+    List<PlanPattern> findAllSummaries();
+
+    /**
+     * Find PlanPatterns with their microclimates and plan parameters by
+     * their identifiers in one query.
+     *
+     * @param ids The identifiers of the PlanPatterns.
+     * @return The found PlanPatterns.
+     */
+    @EntityGraph(PlanPattern.SUMMARY_GRAPH)
+    List<PlanPattern> findAllByIdIn(List<Integer> ids);
+
+    /**
+     * Columns of a PlanPattern scored by the plan generator.
+     */
+    interface GenerationCandidate {
+
+        Integer getId();
+
+        String getDevice();
+
+        String getTemperature();
+
+        Float getRelativeHumidity();
+
+        Float getLightLevel();
+
+        Integer getPlanParametersId();
+
+        String getTemperatureSked();
+
+        LocalTime getLightsOffTime();
+    }
+
+    /**
+     * Find the scored columns of all PlanPatterns as scalars, so no entity
+     * is instantiated or kept in the persistence context.
+     *
+     * @return The GenerationCandidates of all PlanPatterns.
+     */
+    @Query("select p.id as id, p.device as device, "
+           + "m.temperature as temperature, "
+           + "h.relativeHumidity as relativeHumidity, "
+           + "m.lightLevel as lightLevel, pp.id as planParametersId, "
+           + "pp.temperatureSked as temperatureSked, "
+           + "pp.lightsOffTime as lightsOffTime "
+           + "from PlanPattern p left join p.microclimate m "
+           + "left join m.humidity h left join p.planParameters pp")
+    List<GenerationCandidate> findGenerationCandidates();
+
+    /**
+     * Find PlanPatterns whose identifiers follow the given one.
+     * The query seeks by the primary key index, so its cost does not grow
+     * with the number of already read pages.
+     *
+     * @param id The identifier after which the PlanPatterns are read.
+     * @param pageable The page request that limits the number of rows.
+     * @return PlanPatterns ordered by their identifiers.
+     */
+    @EntityGraph(PlanPattern.SUMMARY_GRAPH)
+    List<PlanPattern> findByIdGreaterThanOrderByIdAsc(Integer id,
+                                                      Pageable pageable);
+
+    /**
+     * State of a PlanPattern returned by the statement that changed it:
+     * the columns of its PlanPatternDTO, null for absent associations.
+     */
+    interface PlanPatternState {
+
+        /**
+         * @return The identifier of the plan parameters.
+         */
+        Integer getPlanParametersId();
+
+        /**
+         * @return The new version of the PlanPattern.
+         */
+        Integer getVersion();
+
+        /**
+         * @return The device of the PlanPattern.
+         */
+        String getDevice();
+
+        /**
+         * @return The temperature schedule of the plan parameters.
+         */
+        String getTemperatureSked();
+
+        /**
+         * @return The lights off time of the plan parameters.
+         */
+        LocalTime getLightsOffTime();
+
+        /**
+         * @return The identifier of the optimal microclimate.
+         */
+        Integer getMicroclimateId();
+
+        /**
+         * @return The temperature of the microclimate.
+         */
+        String getTemperature();
+
+        /**
+         * @return The ventilation of the microclimate.
+         */
+        String getVentilation();
+
+        /**
+         * @return The light level of the microclimate.
+         */
+        Float getLightLevel();
+
+        /**
+         * @return The identifier of the humidity of the microclimate.
+         */
+        Integer getHumidityId();
+
+        /**
+         * @return The relative humidity.
+         */
+        Float getRelativeHumidity();
+
+        /**
+         * @return The absolute humidity.
+         */
+        Float getAbsoluteHumidity();
+    }
+
+    /**
+     * Result of a conditional update of a PlanPattern; the state is null
+     * unless the row was updated.
+     */
+    interface VersionedUpdate extends PlanPatternState {
+
+        /**
+         * @return Whether the PlanPattern exists.
+         */
+        boolean getFound();
+
+        /**
+         * @return Whether the version matched and the row was updated.
+         */
+        boolean getUpdated();
+    }
+
+    /**
+     * Update the device and the plan parameters of a PlanPattern if its
+     * version matches, in one statement. The plan parameters row is
+     * updated in place; a null version matches any version. The statement
+     * returns the new state with the microclimate and humidity, so the
+     * PlanPattern is not read again.
+     *
+     * @param id The identifier of the PlanPattern.
+     * @param version The expected version, null for any.
+     * @param device The new device.
+     * @param temperatureSked The new temperature schedule.
+     * @param lightsOffTime The new lights off time.
+     * @return Whether the PlanPattern exists and was updated, and its state.
+     */
+    @Transactional
+    @Query(value = "with updated as ("
+           + "update planpattern set device = :device, "
+           + "version = version + 1 "
+           + "where id = :id and version = coalesce(:version, version) "
+           + "returning planparameters_id, optimalmicroclimate_id, version, "
+           + "device), "
+           + "parameters as ("
+           + "update planparameters pp "
+           + "set temperaturesked = :temperatureSked, "
+           + "lightsofftime = :lightsOffTime "
+           + "from updated where pp.id = updated.planparameters_id "
+           + "returning pp.temperaturesked, pp.lightsofftime) "
+           + "select exists(select 1 from planpattern where id = :id) "
+           + "as \"found\", "
+           + "u.version is not null as \"updated\", "
+           + "u.planparameters_id as \"planParametersId\", "
+           + "u.version as \"version\", u.device as \"device\", "
+           + "p.temperaturesked as \"temperatureSked\", "
+           + "p.lightsofftime as \"lightsOffTime\", "
+           + "m.id as \"microclimateId\", "
+           + "m.temperature as \"temperature\", "
+           + "m.ventilation as \"ventilation\", "
+           + "m.lightlevel as \"lightLevel\", "
+           + "h.id as \"humidityId\", "
+           + "h.relativehumidity as \"relativeHumidity\", "
+           + "h.absolutehumidity as \"absoluteHumidity\" "
+           + "from (select 1) as one "
+           + "left join updated u on true "
+           + "left join parameters p on true "
+           + "left join microclimate m on m.id = u.optimalmicroclimate_id "
+           + "left join humidity h on h.id = m.humidity_id",
+           nativeQuery = true)
+    VersionedUpdate updateIfVersion(@Param("id") Integer id,
+                                    @Param("version") Integer version,
+                                    @Param("device") String device,
+                                    @Param("temperatureSked")
+                                    String temperatureSked,
+                                    @Param("lightsOffTime")
+                                    LocalTime lightsOffTime);
+
+    /**
+     * Stream all PlanPatterns with their microclimates and plan parameters.
+     * Rows are read from a cursor in batches of the fetch size and the
+     * entities are not checked for changes; the stream must be consumed
+     * and closed inside a read-only transaction.
+     *
+     * @return PlanPatterns ordered by their identifiers.
+     */
+    @EntityGraph(PlanPattern.SUMMARY_GRAPH)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from PlanPattern p order by p.id")
+    Stream<PlanPattern> streamAllSummaries();
+
+    /**
+     * Stream the PlanPatterns used by the MicroclimatePlans of a User.
+     *
+     * @param userId The identifier of the User.
+     * @return PlanPatterns ordered by their identifiers.
+     */
+    @EntityGraph(PlanPattern.SUMMARY_GRAPH)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from PlanPattern p where p.id in "
+           + "(select mp.planPattern.id from MicroclimatePlan mp "
+           + "where mp.user.id = :userId) order by p.id")
+    Stream<PlanPattern> streamSummariesByUserId(
+        @Param("userId") Integer userId);
 }
 
 /**
@@ -140,9 +512,25 @@ public interface PlanPatternService {
      * @return The updated PlanPatternDTO.
      * @throws EntityNotFoundException If no PlanPattern
        is found with the provided ID.
+     * @throws PreconditionFailedException If the version of the DTO is
+       not the current version of the PlanPattern.
      */
     PlanPatternDTO updatePlanPattern(Integer id, PlanPatternDTO planPatternDTO);
 
+    /**
+     * Applies a JSON Merge Patch to a PlanPattern.
+     *
+     * @param id The ID of the PlanPattern to patch.
+     * @param patch The patched fields and the expected version.
+     * @return The PlanPatternDTO with its device, plan parameters and
+       new version.
+     * @throws EntityNotFoundException If no PlanPattern
+       is found with the provided ID.
+     * @throws PreconditionFailedException If the version of the patch is
+       not the current version of the PlanPattern.
+     */
+    PlanPatternDTO patchPlanPattern(Integer id, PlanPatternPatch patch);
+
     /**
      * Deletes a PlanPattern.
      *
@@ -168,6 +556,47 @@ public interface PlanPatternService {
      * @return A list of all PlanPatternDTOs.
      */
     List<PlanPatternDTO> getAllPlanPatterns();
+
+    /**
+     * Retrieves one keyset page of PlanPatterns.
+     *
+     * @param after The identifier after which the page starts, null for
+       the first page.
+     * @param limit The maximal number of PlanPatterns in the page.
+     * @return The page with the cursor of the next page.
+     * @throws InvalidDataException If the limit is not positive.
+     */
+    PlanPatternPageDTO getPlanPatternsPage(Integer after, int limit);
+
+    /**
+     * Creates many PlanPatterns at once.
+     *
+     * @param planPatternDTOS The PlanPattern data transfer objects.
+     * @return The result of every item in the order of the request.
+     */
+    List<BulkItemResultDTO> createPlanPatterns(
+        List<PlanPatternDTO> planPatternDTOS);
+
+    /**
+     * Updates many PlanPatterns at once. Every item must carry the ID of
+     * the PlanPattern to update.
+     *
+     * @param planPatternDTOS The PlanPattern data transfer objects.
+     * @return The result of every item in the order of the request.
+     */
+    List<BulkItemResultDTO> updatePlanPatterns(
+        List<PlanPatternDTO> planPatternDTOS);
+
+    /**
+     * Passes PlanPatterns one by one to the consumer, without building a
+     * list of all of them.
+     *
+     * @param userId The ID of the User whose MicroclimatePlans use the
+       PlanPatterns, null for all PlanPatterns.
+     * @param consumer Receives every PlanPatternDTO in the order of IDs.
+     */
+    void streamPlanPatterns(Integer userId,
+                            Consumer<PlanPatternDTO> consumer);
 }
 
 /**
@@ -195,6 +624,51 @@ public class PlanPatternServiceImpl implements PlanPatternService {
      */
     private final PlanPatternMapper planPatternMapper;
 
+    /**
+     * Validator of PlanPatternDTOs for the OnCreate and OnUpdate groups.
+     */
+    private final PlanPatternValidator planPatternValidator;
+
+    /**
+     * Compiled temperature schedules, invalidated when plan parameters
+     * are replaced or deleted.
+     */
+    private final TemperatureScheduleCache temperatureScheduleCache;
+
+    /**
+     * Entity manager used to flush and clear bulk writes chunk by chunk
+     * and streamed PlanPatterns row by row.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Repository writing the columns touched by merge patches.
+     */
+    private final PlanPatternPatchRepository planPatternPatchRepository;
+
+    /**
+     * Publisher of PlanPatternChangedEvents, which reschedule the device
+     * actions of the plans using a changed PlanPattern.
+     */
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Transaction of one chunk of a bulk operation, so a failing chunk
+     * does not roll back the chunks written before it.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Maximal number of PlanPatterns returned in one page.
+     */
+    private static final int MAX_PAGE_LIMIT = 500;
+
+    /**
+     * Number of PlanPatterns written between flushes of a bulk operation.
+     * It matches hibernate.jdbc.batch_size.
+     */
+    private static final int BULK_CHUNK_SIZE = 50;
+
     /**
      * Creates a new PlanPattern entity from a DTO and saves it to the
        repository.
@@ -205,6 +679,8 @@ public class PlanPatternServiceImpl implements PlanPatternService {
        and persisted data.
      */
     @Override
+    @CachePut(cacheNames = CacheConfig.PLAN_PATTERNS_CACHE,
+              key = "#result.id")
     public PlanPatternDTO createPlanPattern(
         final PlanPatternDTO planPatternDTO) {
         final PlanPattern planPattern =
@@ -215,30 +691,119 @@ public class PlanPatternServiceImpl implements PlanPatternService {
 
     /**
      * Updates an existing PlanPattern entity based on a provided DTO.
+     * The device and the plan parameters are written by one conditional
+     * UPDATE statement, which also returns the new state of the pattern, so
+     * the plans are never loaded and nothing is read afterwards. The cached
+     * PlanPatternDTO is evicted after the transaction commits.
      *
      * @param id The ID of the PlanPattern to be updated.
-     * @param planPatternDTO The PlanPatternDTO containing updated data.
+     * @param planPatternDTO The PlanPatternDTO containing updated data and
+       the version it was read with, null to update any version.
      * @return The updated PlanPatternDTO.
      * @throws EntityNotFoundException If no PlanPattern is found with the
        provided ID.
+     * @throws InvalidDataException If the id of the DTO is missing or
+       differs from the provided ID, or the DTO is invalid.
+     * @throws PreconditionFailedException If the version does not match.
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PLAN_PATTERNS_CACHE, key = "#id")
     public PlanPatternDTO updatePlanPattern(final Integer id,
                                             final PlanPatternDTO planPatternDTO) {
-        PlanPattern planPattern = planPatternRepository.findById(id)
-                .orElseThrow(() -> new
- EntityNotFoundException(StatusCodes.ENTITY_NOT_FOUND.name(),
-                         "Plan pattern not found"));
+        // the update rules apply only to a DTO with an id
+        if (!id.equals(planPatternDTO.getId())) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                           "Plan pattern id of the body must"
+                                           + " match the path");
+        }
+        planPatternValidator.validateOrThrow(planPatternDTO, OnUpdate.class);
+        PlanParametersDTO planParameters =
+            planPatternDTO.getPlanParametersDTO();
+        if (planParameters == null) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                           "Plan parameters cannot be null");
+        }
 
-        planPatternValidation(planPatternDTO, OnUpdate.class);
-        PlanPattern newPlanPattern =
- planPatternMapper.toPlanPattern(planPatternDTO);
-        planPattern.setMicroclimatePlans(newPlanPattern.getMicroclimatePlans());
-        planPattern.setDevice(newPlanPattern.getDevice());
-        planPattern.setPlanParameters(newPlanPattern.getPlanParameters());
+        PlanPatternRepository.VersionedUpdate result =
+            planPatternRepository.updateIfVersion(id,
+                planPatternDTO.getVersion(), planPatternDTO.getDevice(),
+                planParameters.getTemperatureSked(),
+                planParameters.getLightsOffTime());
+        if (!result.getFound()) {
+            throw new EntityNotFoundException(
+                StatusCodes.ENTITY_NOT_FOUND.name(),
+                "Plan pattern not found");
+        }
+        if (!result.getUpdated()) {
+            throw new PreconditionFailedException(
+                "Plan pattern has been changed, its current version"
+                + " differs from " + planPatternDTO.getVersion());
+        }
+        temperatureScheduleCache.invalidate(result.getPlanParametersId());
+        applicationEventPublisher.publishEvent(
+            new PlanPatternChangedEvent(id, false));
+        return toPlanPatternDTO(id, result);
+    }
 
-        return
- planPatternMapper.toPlanPatternDTO(planPatternRepository.save(planPattern));
+    /**
+     * Applies a JSON Merge Patch to a PlanPattern.
+     * Only the patched fields are validated, and one statement writes only
+     * their columns; an empty patch writes nothing and keeps the version.
+     *
+     * @param id The ID of the PlanPattern to patch.
+     * @param patch The patched fields and the expected version.
+     * @return The patched PlanPatternDTO, as returned by an update.
+     * @throws EntityNotFoundException If no PlanPattern is found with the
+       provided ID.
+     * @throws InvalidDataException If plan parameters are patched but the
+       PlanPattern has none.
+     * @throws PreconditionFailedException If the version does not match.
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PLAN_PATTERNS_CACHE, key = "#id")
+    public PlanPatternDTO patchPlanPattern(final Integer id,
+                                           final PlanPatternPatch patch) {
+        if (patch.isEmpty()) {
+            PlanPatternDTO current = getPlanPatternById(id);
+            if (patch.version() != null
+                && !patch.version().equals(current.getVersion())) {
+                throw new PreconditionFailedException(
+                    "Plan pattern has been changed, its current version"
+                    + " differs from " + patch.version());
+            }
+            return current;
+        }
+        planPatternValidator.validatePatchOrThrow(patch);
+
+        PlanPatternPatchRepository.PatchResult result =
+            planPatternPatchRepository.patch(id, patch);
+        if (!result.found()) {
+            throw new EntityNotFoundException(
+                StatusCodes.ENTITY_NOT_FOUND.name(),
+                "Plan pattern not found");
+        }
+        if (result.withoutParameters()) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                           "Plan pattern has no plan"
+                                           + " parameters to patch");
+        }
+        if (!result.applied()) {
+            throw new PreconditionFailedException(
+                "Plan pattern has been changed, its current version"
+                + " differs from " + patch.version());
+        }
+        if (patch.contains(PlanPatternPatch.Field.TEMPERATURE_SKED)) {
+            temperatureScheduleCache.invalidate(
+                result.state().getPlanParametersId());
+        }
+        if (patch.contains(PlanPatternPatch.Field.TEMPERATURE_SKED)
+            || patch.contains(PlanPatternPatch.Field.LIGHTS_OFF_TIME)) {
+            applicationEventPublisher.publishEvent(
+                new PlanPatternChangedEvent(id, false));
+        }
+        return toPlanPatternDTO(id, result.state());
     }
 
     /**
@@ -249,6 +814,8 @@ public class PlanPatternServiceImpl implements PlanPatternService {
        provided ID.
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PLAN_PATTERNS_CACHE, key = "#id")
     public void deletePlanPattern(final Integer id) {
         PlanPattern planPattern = planPatternRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(
@@ -256,11 +823,16 @@ public class PlanPatternServiceImpl implements PlanPatternService {
                     "Plan Pattern not found")
                             );
 
+        invalidateSchedule(planPattern);
+        applicationEventPublisher.publishEvent(
+            new PlanPatternChangedEvent(id, true));
         planPatternRepository.deleteById(planPattern.getId());
     }
 
     /**
      * Retrieves a PlanPatternDTO by its ID.
+     * The result is cached, so repeated lookups of the same ID do not reach
+     * the repository until the entry expires or the PlanPattern changes.
      *
      * @param id The ID of the PlanPattern to be retrieved.
      * @return The retrieved PlanPatternDTO.
@@ -268,8 +840,9 @@ public class PlanPatternServiceImpl implements PlanPatternService {
        provided ID.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.PLAN_PATTERNS_CACHE, key = "#id")
     public PlanPatternDTO getPlanPatternById(final Integer id) {
-        PlanPattern planPattern = planPatternRepository.findById(id)
+        PlanPattern planPattern = planPatternRepository.findPlanPatternById(id)
                 .orElseThrow(() -> new EntityNotFoundException(
                     StatusCodes.ENTITY_NOT_FOUND.name(),
                     "Plan Pattern not found")
@@ -285,141 +858,641 @@ public class PlanPatternServiceImpl implements PlanPatternService {
      */
     @Override
     public List<PlanPatternDTO> getAllPlanPatterns() {
-        List<PlanPattern> planPatterns = planPatternRepository.findAll();
+        List<PlanPattern> planPatterns =
+ planPatternRepository.findAllSummaries();
         return planPatternMapper.toPlanPatternDTOS(planPatterns);
     }
 
     /**
-     * Validates the given PlanPatternDTO object according to the specified
-       validation group.
-     * This method checks if the required fields in PlanPatternDTO and its
-       nested objects (MicroclimateDTO, HumidityDTO, and PlanParametersDTO)
-     * are valid based on whether it's a create or update operation.
-     *
-     * @param planPatternDTO The PlanPatternDTO object that contains the plan
-       pattern data.
-     * @param validationGroup The class of the validation group, typically
-       OnCreate.class or OnUpdate.class.
-     * @throws InvalidDataException If the validation fails, this exception is
-       thrown with appropriate status codes and messages.
-     *
-     * For a create operation (OnCreate.class):
-     * - Throws an exception if 'device' is not null.
-     * - Throws an exception if 'microclimate' is not null.
-     * - Throws an exception if 'planParameters' is null.
-     * - Throws an exception if 'relativeHumidity' or 'absoluteHumidity' in
-       humidity is not null.
-     * For an update operation (OnUpdate.class):
-     * - Throws an exception if the length of 'temperature' in microclimate
-       exceeds 20 characters.
-     * - Throws an exception if the length of 'ventilation' in microclimate
-       exceeds 100 characters.
-     * - Throws an exception if 'lightLevel' in microclimate is less than or
-       equal to 0.
-     * - Throws an exception if 'relativeHumidity' or 'absoluteHumidity' in
-       humidity is null or less than or equal to 0.
-     * - Throws an exception if 'temperatureSked' in planParameters is null,
-       empty, or its length exceeds 100 characters.
-     * - Throws an exception if 'lightsOffTime' in planParameters is null or
-       the hour is not within 0 to 23.
-     */
-    private void planPatternValidation(final PlanPatternDTO planPatternDTO,
-                                       final Class<?> validationGroup) {
-        MicroclimateDTO microclimate = planPatternDTO.getMicroclimateDTO();
-        HumidityDTO humidity = microclimate.getHumidity();
-        PlanParametersDTO planParameters = planPatternDTO.getPlanParametersDTO();
-
-        // Assuming that an ID of null means this is a create operation
-        boolean isCreateOperation = (planPatternDTO.getId() == null);
-
-        if (isCreateOperation && validationGroup.equals(OnCreate.class)) {
-            // Perform validations specific to OnCreate group
-            if (planPatternDTO.getDevice() != null) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Device must be null at fulling"
-                                               + "the form");
-            }
-            if (microclimate != null) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Microclimate should be null"
-                                               + "while 1st time creating");
-            }
-            if (planParameters == null) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Plan parameters cannot be"
-                                               + "null");
+     * Retrieves one keyset page of PlanPattern entities from the repository.
+     * One extra row is read to find out whether the next page exists.
+     *
+     * @param after The identifier after which the page starts, null for
+       the first page.
+     * @param limit The maximal number of PlanPatterns in the page, it is
+       reduced to MAX_PAGE_LIMIT.
+     * @return The page with the cursor of the next page.
+     * @throws InvalidDataException If the limit is not positive.
+     */
+    @Override
+    public PlanPatternPageDTO getPlanPatternsPage(final Integer after,
+                                                  final int limit) {
+        if (limit <= 0) {
+            throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                           "Page limit must be greater"
+                                           + " than 0");
+        }
+        final int pageLimit = Math.min(limit, MAX_PAGE_LIMIT);
+        final int cursor = after == null ? 0 : after;
+
+        List<PlanPattern> planPatterns = planPatternRepository
+                .findByIdGreaterThanOrderByIdAsc(cursor,
+                        PageRequest.of(0, pageLimit + 1));
+
+        Integer nextCursor = null;
+        if (planPatterns.size() > pageLimit) {
+            planPatterns = planPatterns.subList(0, pageLimit);
+            nextCursor = planPatterns.get(pageLimit - 1).getId();
+        }
+        return new PlanPatternPageDTO(
+                planPatternMapper.toPlanPatternDTOS(planPatterns), nextCursor);
+    }
+
+    /**
+     * Creates many PlanPattern entities.
+     * All items are validated first; valid items are written in chunks of
+     * BULK_CHUNK_SIZE, one transaction per chunk, so inserts go to the
+     * database as JDBC batches and the persistence context stays small.
+     * An item reported as created is committed.
+     *
+     * @param planPatternDTOS The PlanPatternDTOs to be saved.
+     * @return The result of every item in the order of the request.
+     */
+    @Override
+    public List<BulkItemResultDTO> createPlanPatterns(
+        final List<PlanPatternDTO> planPatternDTOS) {
+        BulkItemResultDTO[] results =
+            new BulkItemResultDTO[planPatternDTOS.size()];
+        List<Integer> validIndexes =
+            validateBulk(planPatternDTOS, OnCreate.class, results);
+
+        for (int from = 0; from < validIndexes.size();
+             from += BULK_CHUNK_SIZE) {
+            writeChunk(validIndexes.subList(from,
+                    Math.min(from + BULK_CHUNK_SIZE, validIndexes.size())),
+                results, "created", indexes -> {
+                    List<PlanPattern> chunk = new ArrayList<>(indexes.size());
+                    for (Integer index : indexes) {
+                        chunk.add(planPatternMapper.toPlanPattern(
+                            planPatternDTOS.get(index)));
+                    }
+                    return saveChunk(chunk, indexes, "created");
+                });
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Updates many PlanPattern entities, one transaction per chunk.
+     * Existing PlanPatterns of a chunk are read with their associations by
+     * one query and written back as JDBC batches. An item whose version
+     * differs from the current one fails with PRECONDITION_FAILED. An item
+     * reported as updated is committed. The PlanPattern cache is cleared
+     * afterwards.
+     *
+     * @param planPatternDTOS The PlanPatternDTOs containing updated data.
+     * @return The result of every item in the order of the request.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PLAN_PATTERNS_CACHE,
+                allEntries = true)
+    public List<BulkItemResultDTO> updatePlanPatterns(
+        final List<PlanPatternDTO> planPatternDTOS) {
+        BulkItemResultDTO[] results =
+            new BulkItemResultDTO[planPatternDTOS.size()];
+        List<Integer> validIndexes =
+            validateBulk(planPatternDTOS, OnUpdate.class, results);
+
+        for (int from = 0; from < validIndexes.size();
+             from += BULK_CHUNK_SIZE) {
+            writeChunk(validIndexes.subList(from,
+                    Math.min(from + BULK_CHUNK_SIZE, validIndexes.size())),
+                results, "updated",
+                indexes -> updateChunk(planPatternDTOS, indexes));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Streams PlanPattern entities from a database cursor to the consumer.
+     * Every entity is mapped and the persistence context is cleared before
+     * the next row is read; detaching the PlanPattern alone would keep its
+     * microclimate and plan parameters, which detach does not cascade to.
+     * So the persistence context and the heap do not grow with the result.
+     *
+     * @param userId The ID of the User whose MicroclimatePlans use the
+       PlanPatterns, null for all PlanPatterns.
+     * @param consumer Receives every PlanPatternDTO in the order of IDs.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamPlanPatterns(final Integer userId,
+                                   final Consumer<PlanPatternDTO> consumer) {
+        try (Stream<PlanPattern> planPatterns = userId == null
+                ? planPatternRepository.streamAllSummaries()
+                : planPatternRepository.streamSummariesByUserId(userId)) {
+            planPatterns.forEach(planPattern -> {
+                consumer.accept(
+                    planPatternMapper.toPlanPatternDTO(planPattern));
+                entityManager.clear();
+            });
+        }
+    }
+
+    /**
+     * Builds the PlanPatternDTO of a PlanPattern from the state returned by
+     * the statement that changed it.
+     *
+     * @param id The ID of the changed PlanPattern.
+     * @param state The columns returned by the statement.
+     * @return The PlanPatternDTO of the current state.
+     */
+    private static PlanPatternDTO toPlanPatternDTO(
+        final Integer id,
+        final PlanPatternRepository.PlanPatternState state) {
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(id);
+        planPatternDTO.setDevice(state.getDevice());
+        if (state.getMicroclimateId() != null) {
+            MicroclimateDTO microclimate = new MicroclimateDTO();
+            microclimate.setTemperature(state.getTemperature());
+            microclimate.setVentilation(state.getVentilation());
+            microclimate.setLightLevel(state.getLightLevel());
+            if (state.getHumidityId() != null) {
+                HumidityDTO humidity = new HumidityDTO();
+                humidity.setRelativeHumidity(state.getRelativeHumidity());
+                humidity.setAbsoluteHumidity(state.getAbsoluteHumidity());
+                microclimate.setHumidity(humidity);
             }
-            if (humidity.getRelativeHumidity() != null) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Relative humidity must be null"
-                                               + "on creating plan parameters");
+            planPatternDTO.setMicroclimateDTO(microclimate);
+        }
+        if (state.getPlanParametersId() != null) {
+            PlanParametersDTO planParameters = new PlanParametersDTO();
+            planParameters.setTemperatureSked(state.getTemperatureSked());
+            planParameters.setLightsOffTime(state.getLightsOffTime());
+            planPatternDTO.setPlanParametersDTO(planParameters);
+        }
+        planPatternDTO.setVersion(state.getVersion());
+        return planPatternDTO;
+    }
+
+    /**
+     * Removes the compiled temperature schedule of the PlanPattern's
+     * current plan parameters.
+     *
+     * @param planPattern The PlanPattern whose plan parameters change.
+     */
+    private void invalidateSchedule(final PlanPattern planPattern) {
+        if (planPattern.getPlanParameters() != null) {
+            temperatureScheduleCache.invalidate(
+                planPattern.getPlanParameters().getId());
+        }
+    }
+
+    /**
+     * Validates the items of a bulk operation and fills the results of the
+     * invalid ones.
+     *
+     * @param planPatternDTOS The PlanPatternDTOs of the request.
+     * @param group The validation group of the operation.
+     * @param results The results of the bulk operation to fill.
+     * @return The request indexes of the valid items.
+     */
+    private List<Integer> validateBulk(
+        final List<PlanPatternDTO> planPatternDTOS,
+        final Class<?> group,
+        final BulkItemResultDTO[] results) {
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < planPatternDTOS.size(); i++) {
+            List<String> violations = planPatternValidator.validate(
+                planPatternDTOS.get(i), group);
+            if (violations.isEmpty()) {
+                validIndexes.add(i);
+            } else {
+                results[i] = new BulkItemResultDTO(i, null,
+                    StatusCodes.INVALID_DATA.name(),
+                    String.join("; ", violations));
             }
-            if (humidity.getAbsoluteHumidity() != null) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Absolute humidity must be null"
-                                               + "on creating plan parameters");
+        }
+        return validIndexes;
+    }
+
+    /**
+     * Writes the items of one chunk in their own transaction and fills
+     * their results after the commit. If the chunk fails, it is rolled
+     * back and its items are written again one by one, so a single bad
+     * item only fails itself.
+     *
+     * @param indexes The request indexes of the items of the chunk.
+     * @param results The results of the bulk operation to fill.
+     * @param action The action name used in the status message.
+     * @param writer Writes the items and returns their results.
+     */
+    private void writeChunk(
+        final List<Integer> indexes,
+        final BulkItemResultDTO[] results,
+        final String action,
+        final Function<List<Integer>, List<BulkItemResultDTO>> writer) {
+        List<BulkItemResultDTO> written;
+        try {
+            written = transactionTemplate.execute(
+                status -> writer.apply(indexes));
+        } catch (DataAccessException | PersistenceException
+                 | TransactionException e) {
+            if (indexes.size() > 1) {
+                for (Integer index : indexes) {
+                    writeChunk(List.of(index), results, action, writer);
+                }
+            } else {
+                int index = indexes.get(0);
+                results[index] = new BulkItemResultDTO(index, null,
+                    StatusCodes.INVALID_DATA.name(),
+                    "Plan pattern has not been " + action);
             }
-        } else if (!isCreateOperation
-                   && validationGroup.equals(OnUpdate.class)) {
-            // Perform validations specific to OnUpdate group
-            int maxTempLength = 20;
-            if (microclimate.getTemperature().length() > maxTempLength) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Max size of temperature is 20"
-                                               + "characters");
+            return;
+        }
+        for (BulkItemResultDTO result : written) {
+            results[result.getIndex()] = result;
+        }
+    }
+
+    /**
+     * Applies the items of one chunk to the existing PlanPatterns, which
+     * are read by one query with the summary entity graph. An item with a
+     * version fails if the PlanPattern has another one. The plan parameters
+     * are updated in place, and the schedules and plans of a PlanPattern
+     * change only once it is saved.
+     *
+     * @param planPatternDTOS The PlanPatternDTOs of the request.
+     * @param indexes The request indexes of the items of the chunk.
+     * @return The results of the items of the chunk.
+     */
+    private List<BulkItemResultDTO> updateChunk(
+        final List<PlanPatternDTO> planPatternDTOS,
+        final List<Integer> indexes) {
+        Map<Integer, PlanPattern> existing = new HashMap<>();
+        planPatternRepository.findAllByIdIn(indexes.stream()
+                .map(i -> planPatternDTOS.get(i).getId())
+                .toList())
+            .forEach(p -> existing.put(p.getId(), p));
+
+        List<BulkItemResultDTO> failed = new ArrayList<>();
+        List<PlanPattern> chunk = new ArrayList<>(indexes.size());
+        List<Integer> chunkIndexes = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            PlanPatternDTO planPatternDTO = planPatternDTOS.get(index);
+            PlanPattern planPattern = existing.get(planPatternDTO.getId());
+            if (planPattern == null) {
+                failed.add(new BulkItemResultDTO(index,
+                    planPatternDTO.getId(),
+                    StatusCodes.ENTITY_NOT_FOUND.name(),
+                    "Plan pattern not found"));
+                continue;
             }
-            int maxVentLength = 100;
-            if (microclimate.getVentilation().length() > maxVentLength) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Max size of ventilation is 100"
-                                               + "characters");
+            if (planPatternDTO.getVersion() != null
+                && !planPatternDTO.getVersion()
+                    .equals(planPattern.getVersion())) {
+                failed.add(new BulkItemResultDTO(index,
+                    planPatternDTO.getId(),
+                    PreconditionFailedException.STATUS_CODE,
+                    "Plan pattern has been changed, its current version"
+                    + " differs from " + planPatternDTO.getVersion()));
+                continue;
             }
-            int negativeLightLevel = 0;
-            if (microclimate.getLightLevel() <= negativeLightLevel) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Light level must be greater"
-                                               + "than 0");
+            PlanParameters planParameters = planPattern.getPlanParameters();
+            PlanParametersDTO planParametersDTO =
+                planPatternDTO.getPlanParametersDTO();
+            if (planParametersDTO == null) {
+                failed.add(new BulkItemResultDTO(index,
+                    planPatternDTO.getId(),
+                    StatusCodes.INVALID_DATA.name(),
+                    "Plan parameters cannot be null"));
+                continue;
             }
-            if (humidity.getRelativeHumidity() == null
-                || humidity.getRelativeHumidity() <= 0) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Relative humidity must be not"
-                                               + "null and greater than 0 on"
-                                               + "updating parameters");
+            planPattern.setDevice(planPatternDTO.getDevice());
+            if (planParameters != null) {
+                // a new PlanParameters would leave the old row orphaned
+                planParameters.setTemperatureSked(
+                    planParametersDTO.getTemperatureSked());
+                planParameters.setLightsOffTime(
+                    planParametersDTO.getLightsOffTime());
+            } else {
+                planPattern.setPlanParameters(planPatternMapper
+                    .toPlanPattern(planPatternDTO).getPlanParameters());
             }
-            if (humidity.getAbsoluteHumidity() == null
-                || humidity.getAbsoluteHumidity() <= 0) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Absolute humidity must be not"
-                                               + "null and greater than 0 on"
-                                               + "updating parameters");
+            chunk.add(planPattern);
+            chunkIndexes.add(index);
+        }
+        List<BulkItemResultDTO> chunkResults =
+            saveChunk(chunk, chunkIndexes, "updated");
+        for (PlanPattern planPattern : chunk) {
+            invalidateSchedule(planPattern);
+            applicationEventPublisher.publishEvent(
+                new PlanPatternChangedEvent(planPattern.getId(), false));
+        }
+        chunkResults.addAll(failed);
+        return chunkResults;
+    }
+
+    /**
+     * Saves a chunk of PlanPatterns, flushes it as one JDBC batch and
+     * detaches it.
+     *
+     * @param chunk The PlanPatterns to be saved.
+     * @param chunkIndexes The request indexes of the PlanPatterns.
+     * @param action The action name used in the status message.
+     * @return The results of the saved PlanPatterns.
+     */
+    private List<BulkItemResultDTO> saveChunk(
+        final List<PlanPattern> chunk,
+        final List<Integer> chunkIndexes,
+        final String action) {
+        List<BulkItemResultDTO> chunkResults =
+            new ArrayList<>(chunk.size());
+        if (chunk.isEmpty()) {
+            return chunkResults;
+        }
+        List<PlanPattern> saved = planPatternRepository.saveAll(chunk);
+        entityManager.flush();
+        for (int i = 0; i < saved.size(); i++) {
+            chunkResults.add(new BulkItemResultDTO(chunkIndexes.get(i),
+                                                   saved.get(i).getId(),
+                                                   StatusCodes.OK.name(),
+                                                   "Plan pattern has been "
+                                                   + action));
+        }
+        entityManager.clear();
+        return chunkResults;
+    }
+}
+
+/**
+ * REST controller for PlanPatterns.
+ * Every response is wrapped into RemoteResponse.
+ */
+@RestController
+@RequestMapping("/plan-pattern")
+@RequiredArgsConstructor
+public class PlanPatternController {
+
+    /**
+     * Service for PlanPattern business logic.
+     */
+    private final PlanPatternService planPatternService;
+
+    /**
+     * Mapper that writes the lines of streamed responses.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Media type of newline-delimited JSON.
+     */
+    private static final MediaType NDJSON =
+        MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Number of streamed lines written between flushes.
+     */
+    private static final int STREAM_FLUSH_LINES = 100;
+
+    /**
+     * Retrieves a PlanPattern with its version as the ETag.
+     *
+     * @param id The ID of the PlanPattern.
+     * @param ifNoneMatch The ETag the client already has, if any.
+     * @return RemoteResponse with the PlanPatternDTO, or 304 Not Modified
+       if the ETag is still current.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<RemoteResponse> getPlanPatternById(
+        @PathVariable final Integer id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+        final String ifNoneMatch) {
+        PlanPatternDTO planPattern = planPatternService.getPlanPatternById(id);
+        Integer version = planPattern.getVersion();
+        if (version != null && ifNoneMatch != null
+            && noneMatchContains(ifNoneMatch, eTag(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag(version)).build();
+        }
+        return withETag(ResponseEntity.ok(), version)
+            .body(RemoteResponse.create(true, StatusCodes.OK.name(),
+                                        "Plan pattern has been found",
+                                        List.of(planPattern)));
+    }
+
+    /**
+     * Updates an existing PlanPattern.
+     * The version to update is taken from If-Match, or from the DTO if the
+     * header is absent; without either the update is unconditional.
+     *
+     * @param id The ID of the PlanPattern to update.
+     * @param ifMatch The ETag of the version that was read, "*" for any.
+     * @param planPatternDTO The PlanPatternDTO containing updated data.
+     * @return RemoteResponse with the updated PlanPatternDTO and its new
+       version as the ETag.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<RemoteResponse> updatePlanPattern(
+        @PathVariable final Integer id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+        final String ifMatch,
+        @RequestBody final PlanPatternDTO planPatternDTO) {
+        if (ifMatch != null) {
+            planPatternDTO.setVersion(version(ifMatch));
+        }
+        PlanPatternDTO updated =
+ planPatternService.updatePlanPattern(id, planPatternDTO);
+        return withETag(ResponseEntity.ok(), updated.getVersion())
+            .body(RemoteResponse.create(true, StatusCodes.OK.name(),
+                                        "Plan pattern has been updated"
+                                        + " successfully", List.of(updated)));
+    }
+
+    /**
+     * Applies a JSON Merge Patch to a PlanPattern, so a client changing one
+     * field sends only that field. The version is taken from If-Match, or
+     * from the "version" of the patch if the header is absent.
+     *
+     * @param id The ID of the PlanPattern to patch.
+     * @param ifMatch The ETag of the version that was read, "*" for any.
+     * @param patch The merge patch document.
+     * @return RemoteResponse with the patched PlanPatternDTO and its new
+       version as the ETag.
+     */
+    @PatchMapping(value = "/{id}",
+                  consumes = {"application/merge-patch+json",
+                              MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<RemoteResponse> patchPlanPattern(
+        @PathVariable final Integer id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+        final String ifMatch,
+        @RequestBody final JsonNode patch) {
+        PlanPatternPatch planPatternPatch = PlanPatternPatch.from(id, patch);
+        if (ifMatch != null) {
+            planPatternPatch = planPatternPatch.withVersion(version(ifMatch));
+        }
+        PlanPatternDTO patched =
+ planPatternService.patchPlanPattern(id, planPatternPatch);
+        return withETag(ResponseEntity.ok(), patched.getVersion())
+            .body(RemoteResponse.create(true, StatusCodes.OK.name(),
+                                        "Plan pattern has been patched"
+                                        + " successfully", List.of(patched)));
+    }
+
+    /**
+     * Creates many PlanPatterns at once.
+     *
+     * @param planPatternDTOS The PlanPatternDTOs to be saved.
+     * @return RemoteResponse with the BulkItemResultDTO of every item.
+     */
+    @PostMapping("/bulk")
+    public RemoteResponse createPlanPatterns(
+        @RequestBody final List<PlanPatternDTO> planPatternDTOS) {
+        return RemoteResponse.create(true, StatusCodes.OK.name(),
+                                     "Plan patterns have been processed",
+            planPatternService.createPlanPatterns(planPatternDTOS));
+    }
+
+    /**
+     * Updates many PlanPatterns at once.
+     *
+     * @param planPatternDTOS The PlanPatternDTOs containing updated data.
+     * @return RemoteResponse with the BulkItemResultDTO of every item.
+     */
+    @PutMapping("/bulk")
+    public RemoteResponse updatePlanPatterns(
+        @RequestBody final List<PlanPatternDTO> planPatternDTOS) {
+        return RemoteResponse.create(true, StatusCodes.OK.name(),
+                                     "Plan patterns have been processed",
+            planPatternService.updatePlanPatterns(planPatternDTOS));
+    }
+
+    /**
+     * Retrieves one keyset page of PlanPatterns.
+     *
+     * @param after The identifier after which the page starts.
+     * @param limit The maximal number of PlanPatterns in the page.
+     * @return RemoteResponse with the PlanPatternPageDTO.
+     */
+    @GetMapping
+    public RemoteResponse getPlanPatternsPage(
+        @RequestParam(required = false) final Integer after,
+        @RequestParam(defaultValue = "50") final int limit) {
+        PlanPatternPageDTO page =
+ planPatternService.getPlanPatternsPage(after, limit);
+        return RemoteResponse.create(true, StatusCodes.OK.name(),
+                                     "Plan patterns have been found",
+                                     List.of(page));
+    }
+
+    /**
+     * Streams PlanPatterns as NDJSON, one PlanPatternDTO per line.
+     * Lines are written while the rows are read from the database and
+     * flushed every STREAM_FLUSH_LINES lines; the response is not wrapped
+     * into RemoteResponse.
+     *
+     * @param userId The ID of the User whose MicroclimatePlans use the
+       PlanPatterns, all PlanPatterns if it is absent.
+     * @return The streamed body.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamPlanPatterns(
+        @RequestParam(required = false) final Integer userId) {
+        ObjectWriter writer = objectMapper.writerFor(PlanPatternDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator((String) null);
+        return ResponseEntity.ok().contentType(NDJSON).body(out -> {
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                int[] lines = {0};
+                planPatternService.streamPlanPatterns(userId, dto -> {
+                    try {
+                        writer.writeValue(generator, dto);
+                        generator.writeRaw('\n');
+                        if (++lines[0] % STREAM_FLUSH_LINES == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
-            if (planParameters.getTemperatureSked() == null
-                || planParameters.getTemperatureSked().isEmpty()) {
-                throw new InvalidDataException(
-                    StatusCodes.INVALID_DATA.name(),
-                    "Temperature schedule must be not"
-                    + "null and not empty on"
-                    + "updating parameters");
+        });
+    }
+
+    /**
+     * Answers 412 Precondition Failed to an outdated version.
+     *
+     * @param e The exception thrown for the version.
+     * @return RemoteResponse with the reason.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<RemoteResponse> handlePreconditionFailed(
+        final PreconditionFailedException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+            .body(RemoteResponse.create(false,
+                                        PreconditionFailedException.STATUS_CODE,
+                                        e.getMessage(), List.of()));
+    }
+
+    /**
+     * @param version The version of a PlanPattern.
+     * @return The strong ETag of the version.
+     */
+    private static String eTag(final Integer version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Adds the ETag of the version, if it is known, to a response.
+     *
+     * @param response The response to add the ETag to.
+     * @param version The version of a PlanPattern, null if unknown.
+     * @return The response.
+     */
+    private static ResponseEntity.BodyBuilder withETag(
+        final ResponseEntity.BodyBuilder response, final Integer version) {
+        return version == null ? response : response.eTag(eTag(version));
+    }
+
+    /**
+     * Checks If-None-Match with the weak comparison of RFC 9110, so
+     * W/"3" matches the ETag "3".
+     *
+     * @param ifNoneMatch The If-None-Match header.
+     * @param eTag The current ETag.
+     * @return Whether the header names the current ETag or is "*".
+     */
+    private static boolean noneMatchContains(final String ifNoneMatch,
+                                             final String eTag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
             }
-            int maxLength = 100;
-            if (planParameters.getTemperatureSked().length() > maxLength) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Max size of temperature"
-                                               + "schedule"
-                                               + "is 100 characters");
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
             }
-            int expendedHour = 23;
-            int notExistingHour = 0;
-            if (planParameters.getLightsOffTime() == null
-                || planParameters.getLightsOffTime().getHour() > expendedHour
-                || planParameters.getLightsOffTime()
-                .getHour() < notExistingHour) {
-                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
-                                               "Time when lights go off"
-                                               + "must be not"
-                                               + "null on updating parameters");
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version from an If-Match value. If-Match uses the strong
+     * comparison of RFC 9110, so a weak ETag never matches.
+     *
+     * @param ifMatch The If-Match header.
+     * @return The version, null for "*".
+     * @throws PreconditionFailedException If the value is no strong
+       version ETag.
+     */
+    private static Integer version(final String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.length() > 2 && value.startsWith("\"")
+            && value.endsWith("\"")) {
+            try {
+                return Integer.valueOf(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // not one of the ETags of PlanPatterns, so it cannot match
             }
         }
+        throw new PreconditionFailedException(
+            "If-Match does not match the plan pattern version");
     }
 }
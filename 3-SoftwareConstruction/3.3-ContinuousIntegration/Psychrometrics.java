@@ -0,0 +1,170 @@
+package com.example.hygimeter.util;
+
+import com.example.hygimeter.model.Humidity;
+import com.example.hygimeter.model.Microclimate;
+
+/**
+ * Psychrometric formulas for humidity of air.
+ * Temperatures are in degrees Celsius, relative humidity in percent,
+ * absolute humidity in g/m3 and vapour pressure in hPa. Saturation vapour
+ * pressure uses the Magnus formula (Sonntag coefficients), heat index uses
+ * the NOAA regression.
+ * The scalar methods work on primitives and allocate nothing; the bulk
+ * methods fill caller-supplied arrays, so recomputing many readings
+ * creates no objects.
+ */
+public final class Psychrometrics {
+
+    private static final double MAGNUS_A = 6.112;
+    private static final double MAGNUS_B = 17.62;
+    private static final double MAGNUS_C = 243.12;
+    private static final double ABSOLUTE_FACTOR = 216.7;
+    private static final double KELVIN = 273.15;
+
+    private Psychrometrics() {
+    }
+
+    public static float saturationVapourPressure(float temperature) {
+        return (float) (MAGNUS_A * Math.exp(MAGNUS_B * temperature / (MAGNUS_C + temperature)));
+    }
+
+    public static float absoluteHumidity(float temperature, float relativeHumidity) {
+        double vapourPressure = relativeHumidity / 100.0 * saturationVapourPressure(temperature);
+        return (float) (ABSOLUTE_FACTOR * vapourPressure / (KELVIN + temperature));
+    }
+
+    public static float relativeHumidity(float temperature, float absoluteHumidity) {
+        double vapourPressure = absoluteHumidity * (KELVIN + temperature) / ABSOLUTE_FACTOR;
+        return (float) (100.0 * vapourPressure / saturationVapourPressure(temperature));
+    }
+
+    /**
+     * Dew point by the inverted Magnus formula. Dry air (relative humidity
+     * of 0 or less) has no dew point; its value is the limit of the formula,
+     * -MAGNUS_C, so aggregates of readings stay finite.
+     */
+    public static float dewPoint(float temperature, float relativeHumidity) {
+        if (relativeHumidity <= 0) {
+            return (float) -MAGNUS_C;
+        }
+        double gamma = Math.log(relativeHumidity / 100.0) + MAGNUS_B * temperature / (MAGNUS_C + temperature);
+        return (float) (MAGNUS_C * gamma / (MAGNUS_B - gamma));
+    }
+
+    /**
+     * Apparent temperature for the given air temperature and relative
+     * humidity by the NOAA heat index algorithm.
+     */
+    public static float heatIndex(float temperature, float relativeHumidity) {
+        double t = temperature * 1.8 + 32.0;
+        double rh = relativeHumidity;
+        double index = 0.5 * (t + 61.0 + (t - 68.0) * 1.2 + rh * 0.094);
+        if ((index + t) / 2.0 >= 80.0) {
+            index = -42.379 + 2.04901523 * t + 10.14333127 * rh
+                    - 0.22475541 * t * rh - 0.00683783 * t * t
+                    - 0.05481717 * rh * rh + 0.00122874 * t * t * rh
+                    + 0.00085282 * t * rh * rh - 0.00000199 * t * t * rh * rh;
+            if (rh < 13.0 && t >= 80.0 && t <= 112.0) {
+                index -= (13.0 - rh) / 4.0 * Math.sqrt((17.0 - Math.abs(t - 95.0)) / 17.0);
+            } else if (rh > 85.0 && t >= 80.0 && t <= 87.0) {
+                index += (rh - 85.0) / 10.0 * (87.0 - t) / 5.0;
+            }
+        }
+        return (float) ((index - 32.0) / 1.8);
+    }
+
+    public static void absoluteHumidity(float[] temperatures, float[] relativeHumidities, float[] result) {
+        checkLengths(temperatures, relativeHumidities, result);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = absoluteHumidity(temperatures[i], relativeHumidities[i]);
+        }
+    }
+
+    public static void relativeHumidity(float[] temperatures, float[] absoluteHumidities, float[] result) {
+        checkLengths(temperatures, absoluteHumidities, result);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = relativeHumidity(temperatures[i], absoluteHumidities[i]);
+        }
+    }
+
+    public static void dewPoint(float[] temperatures, float[] relativeHumidities, float[] result) {
+        checkLengths(temperatures, relativeHumidities, result);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = dewPoint(temperatures[i], relativeHumidities[i]);
+        }
+    }
+
+    public static void heatIndex(float[] temperatures, float[] relativeHumidities, float[] result) {
+        checkLengths(temperatures, relativeHumidities, result);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = heatIndex(temperatures[i], relativeHumidities[i]);
+        }
+    }
+
+    /**
+     * Fills the missing (NaN) one of relative and absolute humidity of every
+     * reading from the other one and the temperature, in place.
+     */
+    public static void completeHumidity(float[] temperatures, float[] relativeHumidities,
+                                        float[] absoluteHumidities) {
+        checkLengths(temperatures, relativeHumidities, absoluteHumidities);
+        for (int i = 0; i < temperatures.length; i++) {
+            if (Float.isNaN(absoluteHumidities[i])) {
+                absoluteHumidities[i] = absoluteHumidity(temperatures[i], relativeHumidities[i]);
+            } else if (Float.isNaN(relativeHumidities[i])) {
+                relativeHumidities[i] = relativeHumidity(temperatures[i], absoluteHumidities[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads the temperature of a microclimate, stored as text such as "22",
+     * "22.5" or "22°C".
+     *
+     * @return the temperature in degrees Celsius, NaN if it cannot be read
+     */
+    public static float parseTemperature(String temperature) {
+        if (temperature == null) {
+            return Float.NaN;
+        }
+        int end = 0;
+        int length = temperature.length();
+        while (end < length) {
+            char c = temperature.charAt(end);
+            if (!(Character.isDigit(c) || c == '.' || c == ',' || (end == 0 && (c == '-' || c == '+')))) {
+                break;
+            }
+            end++;
+        }
+        try {
+            return Float.parseFloat(temperature.substring(0, end).replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return Float.NaN;
+        }
+    }
+
+    /**
+     * Fills the missing one of relative and absolute humidity of the
+     * microclimate from the other one and the microclimate temperature.
+     * Nothing is changed when both or none are set or the temperature
+     * cannot be read.
+     */
+    public static void completeHumidity(Microclimate microclimate) {
+        Humidity humidity = microclimate.getHumidity();
+        float temperature = parseTemperature(microclimate.getTemperature());
+        if (humidity == null || Float.isNaN(temperature)) {
+            return;
+        }
+        if (humidity.getAbsoluteHumidity() == null && humidity.getRelativeHumidity() != null) {
+            humidity.setAbsoluteHumidity(absoluteHumidity(temperature, humidity.getRelativeHumidity()));
+        } else if (humidity.getRelativeHumidity() == null && humidity.getAbsoluteHumidity() != null) {
+            humidity.setRelativeHumidity(relativeHumidity(temperature, humidity.getAbsoluteHumidity()));
+        }
+    }
+
+    private static void checkLengths(float[] first, float[] second, float[] result) {
+        if (first.length != result.length || second.length != result.length) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+    }
+}
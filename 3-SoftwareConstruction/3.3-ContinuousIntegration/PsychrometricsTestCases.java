@@ -0,0 +1,94 @@
+package com.example.hygimeter.util;
+
+import com.example.hygimeter.model.Humidity;
+import com.example.hygimeter.model.Microclimate;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Formulas against reference values: saturation vapour pressure over water
+ * from the WMO tables, absolute humidity and dew point derived from them
+ * and the NWS heat index table.
+ */
+public class PsychrometricsTest {
+
+    @Test
+    public void saturationVapourPressure_ReferenceTemperatures_WithinHalfPercent() {
+        assertEquals(6.112f, Psychrometrics.saturationVapourPressure(0), 1e-4f);
+        assertEquals(2.865f, Psychrometrics.saturationVapourPressure(-10), 2.865f * 0.005f);
+        assertEquals(23.39f, Psychrometrics.saturationVapourPressure(20), 23.39f * 0.005f);
+        assertEquals(42.47f, Psychrometrics.saturationVapourPressure(30), 42.47f * 0.005f);
+    }
+
+    @Test
+    public void absoluteHumidity_ReferenceAir_MatchTables() {
+        // saturated air holds 17.3 g/m3 at 20 °C and 23.0 g/m3 at 25 °C
+        assertEquals(8.65f, Psychrometrics.absoluteHumidity(20, 50), 0.05f);
+        assertEquals(13.8f, Psychrometrics.absoluteHumidity(25, 60), 0.05f);
+        assertEquals(0f, Psychrometrics.absoluteHumidity(20, 0));
+
+        for (float temperature = -20; temperature <= 40; temperature += 5) {
+            for (float relativeHumidity = 5; relativeHumidity <= 100; relativeHumidity += 5) {
+                float absoluteHumidity = Psychrometrics.absoluteHumidity(temperature, relativeHumidity);
+                assertEquals(relativeHumidity, Psychrometrics.relativeHumidity(temperature, absoluteHumidity),
+                        1e-3f, temperature + " °C, " + relativeHumidity + " %");
+            }
+        }
+    }
+
+    @Test
+    public void dewPoint_ReferenceAir_MatchMagnusInverse() {
+        assertEquals(9.3f, Psychrometrics.dewPoint(20, 50), 0.1f);
+        assertEquals(16.7f, Psychrometrics.dewPoint(25, 60), 0.1f);
+        assertEquals(20f, Psychrometrics.dewPoint(20, 100), 1e-4f);
+        assertEquals(-243.12f, Psychrometrics.dewPoint(20, 0));
+        assertEquals(-243.12f, Psychrometrics.dewPoint(20, -1));
+        assertTrue(Psychrometrics.dewPoint(20, 0.01f) > -243.12f);
+    }
+
+    @Test
+    public void heatIndex_ReferenceAir_MatchNwsTable() {
+        // 90 °F at 70 % feels like 106 °F
+        assertEquals(41.1f, Psychrometrics.heatIndex(32.22f, 70), 0.5f);
+        // below 80 °F the simple formula is close to the air temperature
+        assertEquals(19.4f, Psychrometrics.heatIndex(20, 50), 0.5f);
+    }
+
+    @Test
+    public void completeHumidity_Readings_FillMissingOnes() {
+        float[] temperatures = {20, 25, 20, 20};
+        float[] relativeHumidities = {50, Float.NaN, 40, Float.NaN};
+        float[] absoluteHumidities = {Float.NaN, 13.780667f, 7f, Float.NaN};
+
+        Psychrometrics.completeHumidity(temperatures, relativeHumidities, absoluteHumidities);
+
+        assertArrayEquals(new float[]{50, 60, 40, Float.NaN}, relativeHumidities, 1e-3f);
+        assertArrayEquals(new float[]{8.621415f, 13.780667f, 7f, Float.NaN}, absoluteHumidities, 1e-4f);
+        assertThrows(IllegalArgumentException.class,
+                () -> Psychrometrics.completeHumidity(new float[1], new float[2], new float[1]));
+    }
+
+    @Test
+    public void completeHumidity_Microclimate_DeriveAbsoluteFromRelative() {
+        Humidity humidity = new Humidity();
+        humidity.setRelativeHumidity(50f);
+        Microclimate microclimate = new Microclimate();
+        microclimate.setTemperature("20°C");
+        microclimate.setHumidity(humidity);
+
+        Psychrometrics.completeHumidity(microclimate);
+        assertEquals(8.62f, humidity.getAbsoluteHumidity(), 0.01f);
+
+        Humidity unknown = new Humidity();
+        unknown.setRelativeHumidity(50f);
+        microclimate.setTemperature("warm");
+        microclimate.setHumidity(unknown);
+        Psychrometrics.completeHumidity(microclimate);
+        assertNull(unknown.getAbsoluteHumidity());
+    }
+}
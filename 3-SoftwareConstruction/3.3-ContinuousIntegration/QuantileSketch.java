@@ -0,0 +1,183 @@
+package com.example.hygimeter.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch with relative accuracy (DDSketch).
+ * A value v is counted in the bin k with gamma^(k-1) < |v| <= gamma^k, so
+ * every quantile is returned with a relative error of at most
+ * RELATIVE_ACCURACY, whatever the range of the values. Two sketches merge
+ * by adding the counts of equal bins, which is exact: the merged sketch is
+ * the sketch of all values of both.
+ * Bins are kept in dense arrays that cover only the keys seen so far, so
+ * a sketch of readings around one value holds a few bins. If the keys of
+ * one sign span more than MAX_BINS, the lowest are collapsed into one.
+ */
+final class QuantileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    static final int MAX_BINS = 1024;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // values of a smaller magnitude are counted as zero
+    private static final double MIN_INDEXED_VALUE = 1e-6;
+    private static final int INITIAL_BINS = 8;
+
+    /**
+     * Counts of the bins of one sign, indexed by key - offset.
+     */
+    private static final class Store {
+        private long[] counts;
+        private int offset;
+        private int minKey;
+        private int maxKey;
+        private long total;
+
+        private void add(int key, long count) {
+            if (total == 0) {
+                if (counts == null) {
+                    counts = new long[INITIAL_BINS];
+                }
+                offset = key - counts.length / 2;
+                minKey = key;
+                maxKey = key;
+            } else if (key < minKey || key > maxKey) {
+                int newMinKey = Math.min(minKey, key);
+                int newMaxKey = Math.max(maxKey, key);
+                if ((long) newMaxKey - newMinKey >= MAX_BINS) {
+                    newMinKey = newMaxKey - MAX_BINS + 1;
+                    key = Math.max(key, newMinKey);
+                }
+                extend(newMinKey, newMaxKey);
+            }
+            counts[key - offset] += count;
+            total += count;
+        }
+
+        private void extend(int newMinKey, int newMaxKey) {
+            long collapsed = 0;
+            for (int key = minKey; key < newMinKey && key <= maxKey; key++) {
+                collapsed += counts[key - offset];
+                counts[key - offset] = 0;
+            }
+            int keptMinKey = Math.max(minKey, newMinKey);
+            if (newMinKey < offset || newMaxKey >= offset + counts.length) {
+                int needed = newMaxKey - newMinKey + 1;
+                int length = counts.length;
+                while (length < needed) {
+                    length *= 2;
+                }
+                long[] grown = new long[length];
+                int newOffset = newMinKey - (length - needed) / 2;
+                if (keptMinKey <= maxKey) {
+                    System.arraycopy(counts, keptMinKey - offset, grown, keptMinKey - newOffset,
+                            maxKey - keptMinKey + 1);
+                }
+                counts = grown;
+                offset = newOffset;
+            }
+            counts[newMinKey - offset] += collapsed;
+            minKey = newMinKey;
+            maxKey = newMaxKey;
+        }
+
+        private void merge(Store other) {
+            for (int key = other.minKey; other.total > 0 && key <= other.maxKey; key++) {
+                long count = other.counts[key - other.offset];
+                if (count > 0) {
+                    add(key, count);
+                }
+            }
+        }
+
+        private int keyAtRank(long rank, boolean ascending) {
+            long seen = 0;
+            for (int i = 0; i <= maxKey - minKey; i++) {
+                int key = ascending ? minKey + i : maxKey - i;
+                seen += counts[key - offset];
+                if (seen > rank) {
+                    return key;
+                }
+            }
+            return ascending ? maxKey : minKey;
+        }
+
+        private void clear() {
+            if (counts != null && total > 0) {
+                Arrays.fill(counts, 0);
+            }
+            total = 0;
+        }
+    }
+
+    private final Store positive = new Store();
+    private final Store negative = new Store();
+    private long zeroCount;
+
+    void add(float value) {
+        double magnitude = Math.abs(value);
+        if (magnitude < MIN_INDEXED_VALUE) {
+            zeroCount++;
+        } else if (value > 0) {
+            positive.add(key(magnitude), 1);
+        } else {
+            negative.add(key(magnitude), 1);
+        }
+    }
+
+    /**
+     * Adds the counts of the other sketch to this one.
+     */
+    void merge(QuantileSketch other) {
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    long count() {
+        return negative.total + zeroCount + positive.total;
+    }
+
+    /**
+     * Returns the value of the quantile q in [0, 1], NaN if the sketch is
+     * empty.
+     */
+    float quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        long count = count();
+        if (count == 0) {
+            return Float.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+        if (rank < negative.total) {
+            // the most negative values have the highest keys
+            return (float) -value(negative.keyAtRank(rank, false));
+        }
+        rank -= negative.total;
+        if (rank < zeroCount) {
+            return 0f;
+        }
+        return (float) value(positive.keyAtRank(rank - zeroCount, true));
+    }
+
+    /**
+     * Empties the sketch and keeps its arrays for reuse.
+     */
+    void clear() {
+        positive.clear();
+        negative.clear();
+        zeroCount = 0;
+    }
+
+    private static int key(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    // the middle of the bin in relative terms, so the error is at most RELATIVE_ACCURACY
+    private static double value(int key) {
+        return 2 * Math.pow(GAMMA, key) / (GAMMA + 1);
+    }
+}
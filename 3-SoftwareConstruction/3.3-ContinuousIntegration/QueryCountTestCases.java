@@ -0,0 +1,274 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.dto.HumidityDTO;
+import com.example.hygimeter.dto.MicroclimateDTO;
+import com.example.hygimeter.dto.PlanParametersDTO;
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.dto.PlanPatternPageDTO;
+import com.example.hygimeter.dto.PlanPatternPatch;
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.model.*;
+import com.example.hygimeter.repository.PlanPatternPatchRepository;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Statement counts of the PlanPattern service against PostgreSQL; the
+ * update runs a native statement that only PostgreSQL accepts. Writes are
+ * flushed before the count, since the test transaction is rolled back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PlanPatternServiceImplQueryCountTest.ServiceConfig.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.hygimeter.service.PlanPatternServiceImplQueryCountTest$SqlStatementCounter")
+public class PlanPatternServiceImplQueryCountTest {
+
+    private static final int PATTERNS = 5;
+
+    @TestConfiguration
+    @ComponentScan(basePackages = "com.example.hygimeter.mapper")
+    @Import({PlanPatternServiceImpl.class, PlanPatternValidator.class, TemperatureScheduleCache.class,
+            PlanPatternPatchRepository.class})
+    static class ServiceConfig {
+    }
+
+    /**
+     * Hibernate statement inspector that counts executed SQL statements,
+     * registered by the statement_inspector property above.
+     */
+    public static class SqlStatementCounter implements StatementInspector {
+
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.incrementAndGet();
+            return sql;
+        }
+
+        static void reset() {
+            COUNT.set(0);
+        }
+
+        static void assertStatementCount(int expected) {
+            assertEquals(expected, COUNT.get(), "Unexpected number of SQL statements");
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlanPatternService planPatternService;
+
+    private Integer firstId;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .name("Anna")
+                .surname("Test")
+                .email("anna@test.com")
+                .password("password")
+                .role(Role.USER)
+                .build();
+        entityManager.persist(user);
+
+        for (int i = 0; i < PATTERNS; i++) {
+            Humidity humidity = new Humidity();
+            humidity.setRelativeHumidity(50f);
+            humidity.setAbsoluteHumidity(10f);
+
+            Microclimate microclimate = new Microclimate();
+            microclimate.setTemperature("22");
+            microclimate.setVentilation("TypeA");
+            microclimate.setLightLevel(0.5f);
+            microclimate.setHumidity(humidity);
+            entityManager.persist(microclimate);
+
+            PlanParameters planParameters = new PlanParameters();
+            planParameters.setTemperatureSked("Every 6 hours");
+            planParameters.setLightsOffTime(LocalTime.of(22, 0));
+
+            PlanPattern planPattern = new PlanPattern();
+            planPattern.setDevice("Device" + i);
+            planPattern.setMicroclimate(microclimate);
+            planPattern.setPlanParameters(planParameters);
+            entityManager.persist(planPattern);
+
+            MicroclimatePlan microclimatePlan = new MicroclimatePlan();
+            microclimatePlan.setPlanPattern(planPattern);
+            microclimatePlan.setUser(user);
+            microclimatePlan.setInitialMicroclimate(microclimate);
+            entityManager.persist(microclimatePlan);
+
+            if (firstId == null) {
+                firstId = planPattern.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    public void getPlanPatternById_RunsOneStatement() {
+        PlanPatternDTO planPatternDTO = planPatternService.getPlanPatternById(firstId);
+
+        assertEquals(firstId, planPatternDTO.getId());
+        SqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    public void getAllPlanPatterns_RunsOneStatement() {
+        List<PlanPatternDTO> planPatternDTOS = planPatternService.getAllPlanPatterns();
+
+        assertEquals(PATTERNS, planPatternDTOS.size());
+        SqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    public void getPlanPatternsPage_RunsOneStatement() {
+        PlanPatternPageDTO page = planPatternService.getPlanPatternsPage(null, 2);
+
+        assertEquals(2, page.getPlanPatterns().size());
+        SqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    public void createPlanPattern_RunsTwoInserts() {
+        // ids come from the pooled sequences fetched by setUp
+        PlanPatternDTO planPatternDTO = planPatternService.createPlanPattern(newPlanPattern());
+        entityManager.flush();
+
+        assertNotNull(planPatternDTO.getId());
+        // plan parameters and plan pattern
+        SqlStatementCounter.assertStatementCount(2);
+    }
+
+    @Test
+    public void updatePlanPattern_RunsOneStatement() {
+        PlanPatternDTO planPatternDTO = planPatternService.updatePlanPattern(firstId, updatedPlanPattern(firstId));
+        entityManager.flush();
+
+        assertEquals("07:00=21; 22:00=18", planPatternDTO.getPlanParametersDTO().getTemperatureSked());
+        assertEquals(LocalTime.of(23, 0), planPatternDTO.getPlanParametersDTO().getLightsOffTime());
+        // the microclimate is not written by the update, its stored state is returned
+        assertEquals(50f, planPatternDTO.getMicroclimateDTO().getHumidity().getRelativeHumidity());
+        assertEquals(1, planPatternDTO.getVersion());
+        SqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    public void updatePlanPattern_BodyIdDoesNotMatchPath_RunsNoStatement() {
+        PlanPatternDTO withoutId = updatedPlanPattern(null);
+
+        assertThrows(InvalidDataException.class, () -> planPatternService.updatePlanPattern(firstId, withoutId));
+        assertThrows(InvalidDataException.class,
+                () -> planPatternService.updatePlanPattern(firstId, updatedPlanPattern(firstId + 1)));
+        SqlStatementCounter.assertStatementCount(0);
+    }
+
+    @Test
+    public void patchPlanPattern_ReturnMicroclimateOfPattern() {
+        PlanPatternDTO planPatternDTO = planPatternService.patchPlanPattern(firstId,
+                patch(0, PlanPatternPatch.Field.TEMPERATURE_SKED, "07:00=21; 22:00=18"));
+
+        assertEquals("07:00=21; 22:00=18", planPatternDTO.getPlanParametersDTO().getTemperatureSked());
+        assertEquals("TypeA", planPatternDTO.getMicroclimateDTO().getVentilation());
+        assertEquals(10f, planPatternDTO.getMicroclimateDTO().getHumidity().getAbsoluteHumidity());
+        assertEquals(1, planPatternDTO.getVersion());
+    }
+
+    @Test
+    public void patchPlanPattern_ParametersOfPatternWithoutParameters_ThrowInvalidData() {
+        PlanPattern planPattern = new PlanPattern();
+        planPattern.setDevice("Device");
+        entityManager.persist(planPattern);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThrows(InvalidDataException.class, () -> planPatternService.patchPlanPattern(planPattern.getId(),
+                patch(null, PlanPatternPatch.Field.LIGHTS_OFF_TIME, LocalTime.of(23, 0))));
+        assertEquals(0, entityManager.find(PlanPattern.class, planPattern.getId()).getVersion());
+    }
+
+    @Test
+    public void deletePlanPattern_RunsSelectAndTwoDeletes() {
+        // the patterns of setUp are used by plans
+        PlanParameters planParameters = new PlanParameters();
+        planParameters.setTemperatureSked("Every 6 hours");
+        planParameters.setLightsOffTime(LocalTime.of(22, 0));
+        PlanPattern planPattern = new PlanPattern();
+        planPattern.setPlanParameters(planParameters);
+        Integer id = entityManager.persistAndGetId(planPattern, Integer.class);
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        planPatternService.deletePlanPattern(id);
+        entityManager.flush();
+
+        // the pattern with its to-one associations, then the pattern and its plan parameters
+        SqlStatementCounter.assertStatementCount(3);
+        assertNull(entityManager.find(PlanPattern.class, id));
+    }
+
+    private static PlanPatternDTO newPlanPattern() {
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("Every 6 hours");
+        planParameters.setLightsOffTime(LocalTime.of(22, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        return planPatternDTO;
+    }
+
+    private static PlanPatternPatch patch(Integer version, PlanPatternPatch.Field field, Object value) {
+        return new PlanPatternPatch(version, Map.of(field, value));
+    }
+
+    private static PlanPatternDTO updatedPlanPattern(Integer id) {
+        HumidityDTO humidity = new HumidityDTO();
+        humidity.setRelativeHumidity(55f);
+        humidity.setAbsoluteHumidity(11f);
+
+        MicroclimateDTO microclimate = new MicroclimateDTO();
+        microclimate.setTemperature("22°C");
+        microclimate.setVentilation("TypeB");
+        microclimate.setLightLevel(0.8f);
+        microclimate.setHumidity(humidity);
+
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("07:00=21; 22:00=18");
+        planParameters.setLightsOffTime(LocalTime.of(23, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(id);
+        planPatternDTO.setDevice("Device0");
+        planPatternDTO.setMicroclimateDTO(microclimate);
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        return planPatternDTO;
+    }
+}
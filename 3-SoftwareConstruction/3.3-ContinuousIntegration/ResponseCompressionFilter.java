@@ -0,0 +1,298 @@
+package com.example.hygimeter.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses with zstd or gzip, as accepted by the client.
+ * The first minSize bytes of a response are buffered; a response that ends
+ * within them is sent as it is with its Content-Length, a larger one is
+ * compressed from its start. Flushes before the decision are held back;
+ * later ones flush the compressor, so streamed responses keep arriving
+ * incrementally. Only JSON, NDJSON,
+ * CBOR, Smile and text are compressed; ranges and responses already encoded
+ * are passed through. A StreamingResponseBody is finished on the async
+ * dispatch that completes it. A response written with non-blocking IO is
+ * passed through once its WriteListener is set, and readiness is that of
+ * the wrapped stream. zstd is offered only if zstd-jni is on the
+ * classpath.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final boolean ZSTD_PRESENT =
+            ClassUtils.isPresent("com.github.luben.zstd.ZstdOutputStream", ResponseCompressionFilter.class.getClassLoader());
+
+    private static final String RESPONSE_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".response";
+
+    private final int minSize;
+
+    public ResponseCompressionFilter(int minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // an async dispatch continues the response of the initial dispatch
+        CompressingResponse compressingResponse = (CompressingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (compressingResponse == null) {
+            String encoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding == null || request.getHeader(HttpHeaders.RANGE) != null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            compressingResponse = new CompressingResponse(response, encoding);
+            request.setAttribute(RESPONSE_ATTRIBUTE, compressingResponse);
+        }
+        try {
+            chain.doFilter(request, isAsyncDispatch(request) ? response : compressingResponse);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                compressingResponse.finish();
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    // zstd is preferred over gzip; q-values other than 0 are not weighed
+    private static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean gzip = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] coding = part.trim().split(";");
+            if (coding.length > 1 && coding[1].trim().matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (coding[0].equals("zstd") && ZSTD_PRESENT) {
+                return "zstd";
+            }
+            gzip |= coding[0].equals("gzip");
+        }
+        return gzip ? "gzip" : null;
+    }
+
+    private static boolean compressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("json") || type.startsWith("application/cbor")
+                || type.startsWith("application/x-jackson-smile");
+    }
+
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final String encoding;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target; // null until it is decided whether to compress
+        private ServletOutputStream responseStream;
+        private boolean compressing;
+        private CompressingOutputStream outputStream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+
+        private CompressingResponse(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                outputStream = new CompressingOutputStream();
+                String characterEncoding = getCharacterEncoding();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream,
+                        characterEncoding != null ? characterEncoding : StandardCharsets.UTF_8.name()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (target == null) {
+                contentLength = length;
+            } else if (!compressing) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target != null) {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (target == null) {
+                buffer.reset();
+            }
+            super.resetBuffer();
+        }
+
+        // chooses between the plain and the compressed output, once
+        private void decide(boolean compress) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            compress &= compressible(getContentType()) && !containsHeader(HttpHeaders.CONTENT_ENCODING)
+                    && !containsHeader(HttpHeaders.CONTENT_RANGE)
+                    && getStatus() != HttpServletResponse.SC_NO_CONTENT
+                    && getStatus() != HttpServletResponse.SC_NOT_MODIFIED;
+            compressing = compress;
+            responseStream = response.getOutputStream();
+            if (compress) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+                target = encoding.equals("zstd")
+                        ? Zstd.outputStream(responseStream)
+                        : new GZIPOutputStream(responseStream, 8192, true);
+            } else {
+                target = responseStream;
+                if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+            }
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (outputStream == null) {
+                    return;
+                }
+                contentLength = buffer.size();
+                decide(false);
+            }
+            if (compressing) {
+                target.close();
+            }
+        }
+
+        private final class CompressingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                if (target == null && buffer.size() + 1 > minSize) {
+                    decide(true);
+                }
+                (target != null ? target : buffer).write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (target == null && buffer.size() + len > minSize) {
+                    decide(true);
+                }
+                (target != null ? target : buffer).write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                // message converters flush every body, so a flush does not decide
+                if (target != null) {
+                    target.flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                // nothing is written to the response before the decision
+                return target == null || responseStream.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                // a compressor may block on a full response stream, so non-blocking writes are not compressed
+                if (target == null) {
+                    try {
+                        decide(false);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                } else if (compressing) {
+                    throw new IllegalStateException("The response is already being compressed");
+                }
+                responseStream.setWriteListener(writeListener);
+            }
+        }
+    }
+
+    // loaded only when zstd-jni is present
+    private static final class Zstd {
+
+        private static OutputStream outputStream(OutputStream out) throws IOException {
+            com.github.luben.zstd.ZstdOutputStream zstd = new com.github.luben.zstd.ZstdOutputStream(out, 3);
+            zstd.setCloseFrameOnFlush(false);
+            return zstd;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.hygimeter.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCompressionFilterTest {
+
+    private static final int MIN_SIZE = 100;
+
+    private final ResponseCompressionFilter responseCompressionFilter = new ResponseCompressionFilter(MIN_SIZE);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/plan-patterns");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    public void doFilter_BodyWithinMinSize_SendAsItIsWithContentLength() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        byte[] body = body(MIN_SIZE);
+
+        responseCompressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(String.valueOf(MIN_SIZE), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void doFilter_BodyOverMinSize_GzipWithoutContentLength() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip");
+        byte[] body = body(MIN_SIZE + 1);
+
+        responseCompressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(body.length);
+            res.getWriter().write(new String(body, StandardCharsets.UTF_8));
+        });
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals(body, gunzip(response.getContentAsByteArray(), body.length));
+    }
+
+    @Test
+    public void doFilter_NotCompressible_SendAsItIs() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        byte[] body = body(10 * MIN_SIZE);
+
+        responseCompressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("image/png");
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(String.valueOf(body.length), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals(body, response.getContentAsByteArray());
+
+        MockHttpServletRequest rangeRequest = new MockHttpServletRequest("GET", "/topic-info/1/content");
+        rangeRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        rangeRequest.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        MockHttpServletResponse rangeResponse = new MockHttpServletResponse();
+        responseCompressionFilter.doFilter(rangeRequest, rangeResponse, (req, res) -> assertSame(rangeResponse, res));
+    }
+
+    @Test
+    public void flush_BeforeAndAfterDecision_FlushOnlyCompressedBytes() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        byte[] body = body(2 * MIN_SIZE);
+
+        responseCompressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/x-ndjson");
+            ServletOutputStream out = res.getOutputStream();
+            out.write(body, 0, MIN_SIZE / 2);
+            out.flush();
+            // held back until the size decides
+            assertEquals(0, response.getContentAsByteArray().length);
+
+            out.write(body, MIN_SIZE / 2, body.length - MIN_SIZE / 2);
+            out.flush();
+            assertArrayEquals(body, gunzip(response.getContentAsByteArray(), body.length));
+        });
+
+        assertArrayEquals(body, gunzip(response.getContentAsByteArray(), body.length));
+    }
+
+    @Test
+    public void doFilter_AsyncDispatch_FinishOnDispatchThatCompletes() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.setAsyncSupported(true);
+        byte[] body = body(3 * MIN_SIZE);
+        AtomicReference<ServletOutputStream> stream = new AtomicReference<>();
+
+        responseCompressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            stream.set(res.getOutputStream());
+            req.startAsync();
+        });
+        // StreamingResponseBody writes on another thread
+        stream.get().write(body);
+        stream.get().flush();
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        FilterChain asyncChain = (req, res) -> assertSame(response, res);
+        responseCompressionFilter.doFilter(request, response, asyncChain);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, gunzipAll(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void setWriteListener_NonBlockingWrite_PassThroughToResponseStream() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        RecordingOutputStream responseStream = new RecordingOutputStream();
+        HttpServletResponse nonBlockingResponse = new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return responseStream;
+            }
+        };
+        byte[] body = body(5 * MIN_SIZE);
+        WriteListener writeListener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+
+        responseCompressionFilter.doFilter(request, nonBlockingResponse, (req, res) -> {
+            res.setContentType("application/json");
+            ServletOutputStream out = res.getOutputStream();
+            out.setWriteListener(writeListener);
+            assertSame(writeListener, responseStream.writeListener);
+
+            responseStream.ready = false;
+            assertFalse(out.isReady());
+            responseStream.ready = true;
+            assertTrue(out.isReady());
+            out.write(body);
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, responseStream.bytes.toByteArray());
+    }
+
+    private static final class RecordingOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private WriteListener writeListener;
+        private boolean ready = true;
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.writeListener = writeListener;
+        }
+    }
+
+    private static byte[] body(int length) {
+        byte[] body = new byte[length];
+        for (int i = 0; i < length; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+        return body;
+    }
+
+    // reads the bytes of a stream that may not be finished yet
+    private static byte[] gunzip(byte[] compressed, int length) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readNBytes(length);
+        }
+    }
+
+    private static byte[] gunzipAll(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
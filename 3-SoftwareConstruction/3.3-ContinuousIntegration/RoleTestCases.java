@@ -0,0 +1,52 @@
+package com.example.hygimeter.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoleTest {
+
+    @Test
+    public void getMask_EveryPermission_HaveOwnBit() {
+        long masks = 0;
+        for (Permission permission : Permission.values()) {
+            assertEquals(1, Long.bitCount(permission.getMask()), permission.name());
+            assertEquals(0, masks & permission.getMask(), permission.name());
+            masks |= permission.getMask();
+        }
+        assertEquals(Permission.values().length, Long.bitCount(masks));
+    }
+
+    @Test
+    public void getPermissionMask_EveryRole_OrMasksOfItsPermissions() {
+        for (Role role : Role.values()) {
+            long mask = 0;
+            for (Permission permission : role.getPermissions()) {
+                mask |= permission.getMask();
+            }
+            assertEquals(mask, role.getPermissionMask(), role.name());
+        }
+        assertTrue(Role.ADMIN.hasPermission(Permission.ADMIN_DELETE));
+        assertFalse(Role.USER.hasPermission(Permission.ADMIN_READ));
+        assertTrue(Role.USER.hasAllPermissions(Permission.USER_READ.getMask() | Permission.USER_UPDATE.getMask()));
+        assertFalse(Role.USER.hasAllPermissions(Permission.USER_READ.getMask() | Permission.ADMIN_READ.getMask()));
+    }
+
+    @Test
+    public void getAuthorities_Role_ReturnImmutablePermissionsAndRole() {
+        assertEquals(Role.USER.getPermissions().size() + 1, Role.USER.getAuthorities().size());
+        assertTrue(Role.USER.getAuthorities().contains(new SimpleGrantedAuthority("user:read")));
+        assertTrue(Role.USER.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
+        assertFalse(Role.USER.getAuthorities().contains(new SimpleGrantedAuthority("admin:read")));
+        // the list is shared by every authentication of the role
+        assertEquals(Role.ADMIN.getAuthorities(), Role.ADMIN.getAuthorities());
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> Role.USER.getAuthorities().add(new SimpleGrantedAuthority("admin:delete")));
+        assertThrows(UnsupportedOperationException.class, () -> Role.ADMIN.getAuthorities().clear());
+    }
+}
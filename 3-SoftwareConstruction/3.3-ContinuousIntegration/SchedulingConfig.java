@@ -0,0 +1,18 @@
+package com.example.hygimeter.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the @Scheduled methods of the application: the refresh of the
+ * typeahead suggestions, the reload of the plan generation catalog and the
+ * expiry of microclimate readings.
+ * Without it those methods run only through their other triggers. Tests that need a quiet context can set
+ * {@code hygimeter.scheduling.enabled=false}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "hygimeter.scheduling.enabled", matchIfMissing = true)
+public class SchedulingConfig {
+}
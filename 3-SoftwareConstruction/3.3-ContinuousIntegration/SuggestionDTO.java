@@ -0,0 +1,25 @@
+package com.example.hygimeter.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Typeahead Suggestion Data Transfer Object")
+public class SuggestionDTO {
+
+    @Schema(description = "Kind of the suggestion: THEME or TOPIC_TYPE")
+    private String kind;
+
+    @Schema(description = "Theme id, null for topic types")
+    private Integer id;
+
+    @Schema(description = "Suggested text")
+    private String text;
+
+    @Schema(description = "Number of topics of the theme or type")
+    private Long popularity;
+}
@@ -0,0 +1,117 @@
+package com.example.hygimeter.search;
+
+import com.example.hygimeter.dto.SuggestionDTO;
+import com.example.hygimeter.repository.ThemeRepository;
+import com.example.hygimeter.repository.ThemeRepository.ThemePopularity;
+import com.example.hygimeter.repository.TopicInfoRepository;
+import com.example.hygimeter.repository.TopicInfoRepository.TypePopularity;
+import com.example.hygimeter.search.SuggestionTrie.Kind;
+import com.example.hygimeter.search.SuggestionTrie.Suggestion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Typeahead suggestions of Theme titles and TopicInfo types, ranked by
+ * the number of topics. Suggestions are loaded when the application starts;
+ * after a theme or topic change the counts are read again on the next
+ * refresh and only the suggestions that changed are updated in the trie.
+ */
+@Slf4j
+@Service
+public class SuggestionService {
+
+    private final ThemeRepository themeRepository;
+    private final TopicInfoRepository topicInfoRepository;
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    private final Map<Integer, Suggestion> themes = new HashMap<>();
+    private final Map<String, Suggestion> types = new HashMap<>();
+
+    public SuggestionService(ThemeRepository themeRepository, TopicInfoRepository topicInfoRepository) {
+        this.themeRepository = themeRepository;
+        this.topicInfoRepository = topicInfoRepository;
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        List<SuggestionDTO> suggestions = new ArrayList<>();
+        for (Suggestion suggestion : trie.suggest(prefix, Math.min(limit, SuggestionTrie.MAX_SUGGESTIONS))) {
+            suggestions.add(new SuggestionDTO(suggestion.kind().name(), suggestion.id(), suggestion.text(),
+                    suggestion.popularity()));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Marks the suggestions for the next refresh.
+     */
+    public void changed() {
+        changed.set(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${hygimeter.suggestions.refresh:PT5S}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // the changes are still not in the trie, the next refresh retries
+            changed.set(true);
+            throw e;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void reload() {
+        Set<Integer> removedThemes = new HashSet<>(themes.keySet());
+        for (ThemePopularity theme : themeRepository.findThemePopularity()) {
+            // a theme whose title was cleared is removed like a deleted one
+            if (theme.getTitle() != null) {
+                removedThemes.remove(theme.getId());
+                update(themes, theme.getId(), new Suggestion(Kind.THEME, theme.getId(), theme.getTitle(),
+                        theme.getTopics()));
+            }
+        }
+        removedThemes.forEach(id -> {
+            themes.remove(id);
+            trie.removeTheme(id);
+        });
+
+        Set<String> removedTypes = new HashSet<>(types.keySet());
+        for (TypePopularity type : topicInfoRepository.findTypePopularity()) {
+            removedTypes.remove(type.getType());
+            update(types, type.getType(), new Suggestion(Kind.TOPIC_TYPE, null, type.getType(), type.getTopics()));
+        }
+        removedTypes.forEach(type -> {
+            types.remove(type);
+            trie.removeTopicType(type);
+        });
+        log.debug("Suggestions refreshed, {} in the trie", trie.size());
+    }
+
+    private <K> void update(Map<K, Suggestion> current, K key, Suggestion suggestion) {
+        if (!suggestion.equals(current.get(key))) {
+            current.put(key, suggestion);
+            trie.put(suggestion);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.hygimeter.search;
+
+import com.example.hygimeter.repository.ThemeRepository;
+import com.example.hygimeter.repository.ThemeRepository.ThemePopularity;
+import com.example.hygimeter.repository.TopicInfoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class SuggestionServiceTest {
+
+    private final ThemeRepository themeRepository = mock(ThemeRepository.class);
+    private final TopicInfoRepository topicInfoRepository = mock(TopicInfoRepository.class);
+    private final SuggestionService suggestionService = new SuggestionService(themeRepository, topicInfoRepository);
+
+    @Test
+    public void refresh_ReloadFails_RetryOnNextRefresh() {
+        // Mockito cannot stub the projections inside the stubbing of the repository
+        List<ThemePopularity> themes = List.of(theme(1, "Humidity", 3));
+        given(themeRepository.findThemePopularity())
+                .willThrow(new IllegalStateException("database is down"))
+                .willReturn(themes);
+        given(topicInfoRepository.findTypePopularity()).willReturn(List.of());
+
+        assertThrows(IllegalStateException.class, suggestionService::refresh);
+        suggestionService.refresh();
+
+        assertEquals(1, suggestionService.suggest("hum", 10).size());
+    }
+
+    @Test
+    public void refresh_ThemeTitleCleared_RemoveThemeFromTrie() {
+        List<ThemePopularity> titled = List.of(theme(1, "Humidity", 3), theme(2, "Heating", 1));
+        List<ThemePopularity> cleared = List.of(theme(1, null, 3), theme(2, "Heating", 1));
+        given(themeRepository.findThemePopularity()).willReturn(titled, cleared);
+        given(topicInfoRepository.findTypePopularity()).willReturn(List.of());
+
+        suggestionService.refresh();
+        assertEquals(2, suggestionService.suggest("h", 10).size());
+
+        suggestionService.changed();
+        suggestionService.refresh();
+        assertTrue(suggestionService.suggest("hum", 10).isEmpty());
+        assertEquals(1, suggestionService.suggest("h", 10).size());
+    }
+
+    private static ThemePopularity theme(Integer id, String title, long topics) {
+        ThemePopularity theme = mock(ThemePopularity.class);
+        given(theme.getId()).willReturn(id);
+        given(theme.getTitle()).willReturn(title);
+        given(theme.getTopics()).willReturn(topics);
+        return theme;
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.hygimeter.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie of suggestion texts for typeahead.
+ * Every word start of a text is a key, so "Вологість повітря" is suggested
+ * for "вол" and for "пов". Keys are lower-cased; edges hold whole runs of
+ * characters, so a node exists only where keys branch or end. Each node
+ * keeps the MAX_SUGGESTIONS most popular suggestions below it, so a lookup
+ * walks the prefix and returns that list without visiting the subtree.
+ * Putting or removing a suggestion updates the lists along its key paths.
+ * Suggestions of equal popularity are ordered by text, so the lists do not
+ * depend on the order of updates.
+ */
+public final class SuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    public enum Kind {
+        THEME,
+        TOPIC_TYPE
+    }
+
+    /**
+     * Suggested text; id is the Theme id for themes and null for topic types.
+     */
+    public record Suggestion(Kind kind, Integer id, String text, long popularity) {
+    }
+
+    private record Key(Kind kind, String identity) {
+    }
+
+    private static final Suggestion[] NONE = new Suggestion[0];
+
+    private static final class Node {
+        private String label;
+        private char[] firsts = new char[0];
+        private Node[] children = new Node[0];
+        private Suggestion[] own = NONE;
+        private Suggestion[] top = NONE;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int childIndex(char first) {
+            for (int i = 0; i < firsts.length; i++) {
+                if (firsts[i] == first) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void setChild(Node child) {
+            int i = childIndex(child.label.charAt(0));
+            if (i >= 0) {
+                children[i] = child;
+                return;
+            }
+            firsts = Arrays.copyOf(firsts, firsts.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            firsts[firsts.length - 1] = child.label.charAt(0);
+            children[children.length - 1] = child;
+        }
+
+        private void removeChild(int i) {
+            char[] newFirsts = new char[firsts.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, i);
+            System.arraycopy(firsts, i + 1, newFirsts, i, firsts.length - i - 1);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<Key, Suggestion> suggestions = new HashMap<>();
+
+    /**
+     * Returns the most popular suggestions whose text has a word starting
+     * with the prefix, most popular first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int matched = 0;
+            while (matched < key.length()) {
+                int i = node.childIndex(key.charAt(matched));
+                if (i < 0) {
+                    return List.of();
+                }
+                Node child = node.children[i];
+                int common = commonPrefix(child.label, key, matched);
+                if (common < child.label.length() && matched + common < key.length()) {
+                    return List.of();
+                }
+                matched += common;
+                node = child;
+            }
+            Suggestion[] top = node.top;
+            return List.of(Arrays.copyOf(top, Math.min(limit, top.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the suggestion or replaces the one of the same theme or topic type.
+     */
+    public void put(Suggestion suggestion) {
+        Key identity = identity(suggestion);
+        lock.writeLock().lock();
+        try {
+            Suggestion previous = suggestions.remove(identity);
+            if (previous != null) {
+                for (String key : keys(previous.text())) {
+                    remove(root, key, 0, previous);
+                }
+            }
+            Suggestion interned = new Suggestion(suggestion.kind(), suggestion.id(),
+                    suggestion.text().intern(), suggestion.popularity());
+            suggestions.put(identity, interned);
+            for (String key : keys(interned.text())) {
+                insert(key, interned);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeTheme(Integer themeId) {
+        remove(new Key(Kind.THEME, String.valueOf(themeId)));
+    }
+
+    public void removeTopicType(String type) {
+        remove(new Key(Kind.TOPIC_TYPE, type));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return suggestions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(Key identity) {
+        lock.writeLock().lock();
+        try {
+            Suggestion previous = suggestions.remove(identity);
+            if (previous != null) {
+                for (String key : keys(previous.text())) {
+                    remove(root, key, 0, previous);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(String key, Suggestion suggestion) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            int i = node.childIndex(key.charAt(matched));
+            if (i < 0) {
+                Node leaf = new Node(key.substring(matched));
+                node.setChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[i];
+            int common = commonPrefix(child.label, key, matched);
+            if (common < child.label.length()) {
+                // split the edge where the key leaves it
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.setChild(child);
+                split.top = child.top;
+                node.setChild(split);
+                child = split;
+            }
+            matched += common;
+            node = child;
+            path.add(node);
+        }
+        node.own = Arrays.copyOf(node.own, node.own.length + 1);
+        node.own[node.own.length - 1] = suggestion;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).top = add(path.get(i).top, suggestion);
+        }
+    }
+
+    // returns true if the node has become empty and can be dropped by its parent
+    private boolean remove(Node node, String key, int matched, Suggestion suggestion) {
+        if (matched == key.length()) {
+            node.own = without(node.own, suggestion);
+        } else {
+            int i = node.childIndex(key.charAt(matched));
+            if (i < 0) {
+                return false;
+            }
+            Node child = node.children[i];
+            if (!key.startsWith(child.label, matched)) {
+                return false;
+            }
+            if (remove(child, key, matched + child.label.length(), suggestion)) {
+                node.removeChild(i);
+            } else if (child.own.length == 0 && child.children.length == 1) {
+                // merge the edge that no longer branches
+                Node grandchild = child.children[0];
+                grandchild.label = child.label + grandchild.label;
+                node.children[i] = grandchild;
+            }
+        }
+        node.top = top(node);
+        return node != root && node.own.length == 0 && node.children.length == 0;
+    }
+
+    private static Suggestion[] top(Node node) {
+        Suggestion[] top = NONE;
+        for (Suggestion suggestion : node.own) {
+            top = add(top, suggestion);
+        }
+        for (Node child : node.children) {
+            for (Suggestion suggestion : child.top) {
+                top = add(top, suggestion);
+            }
+        }
+        return top;
+    }
+
+    // adds to a list ordered by popularity, keeping at most MAX_SUGGESTIONS distinct suggestions
+    private static Suggestion[] add(Suggestion[] list, Suggestion suggestion) {
+        for (Suggestion present : list) {
+            if (present == suggestion) {
+                return list;
+            }
+        }
+        int position = 0;
+        while (position < list.length && ranksBefore(list[position], suggestion)) {
+            position++;
+        }
+        if (position >= MAX_SUGGESTIONS) {
+            return list;
+        }
+        int size = Math.min(list.length + 1, MAX_SUGGESTIONS);
+        Suggestion[] result = new Suggestion[size];
+        System.arraycopy(list, 0, result, 0, position);
+        result[position] = suggestion;
+        System.arraycopy(list, position, result, position + 1, size - position - 1);
+        return result;
+    }
+
+    private static boolean ranksBefore(Suggestion a, Suggestion b) {
+        if (a.popularity() != b.popularity()) {
+            return a.popularity() > b.popularity();
+        }
+        int text = a.text().compareTo(b.text());
+        if (text != 0) {
+            return text < 0;
+        }
+        if (a.kind() != b.kind()) {
+            return a.kind().compareTo(b.kind()) < 0;
+        }
+        return a.id() != null && b.id() != null && a.id() < b.id();
+    }
+
+    private static Suggestion[] without(Suggestion[] list, Suggestion suggestion) {
+        for (int i = 0; i < list.length; i++) {
+            if (list[i] == suggestion) {
+                Suggestion[] result = new Suggestion[list.length - 1];
+                System.arraycopy(list, 0, result, 0, i);
+                System.arraycopy(list, i + 1, result, i, list.length - i - 1);
+                return result;
+            }
+        }
+        return list;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Key identity(Suggestion suggestion) {
+        return suggestion.kind() == Kind.THEME
+                ? new Key(Kind.THEME, String.valueOf(suggestion.id()))
+                : new Key(Kind.TOPIC_TYPE, suggestion.text());
+    }
+
+    // the normalized text from every word start
+    private static List<String> keys(String text) {
+        String normalized = normalize(text);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) && c != 'ʼ') {
+                normalized.append(c);
+            } else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' '
+                    && !(c == '\'' || c == '’' || c == 'ʼ')) {
+                normalized.append(' ');
+            }
+        }
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return normalized.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.hygimeter.search;
+
+import com.example.hygimeter.search.SuggestionTrie.Kind;
+import com.example.hygimeter.search.SuggestionTrie.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SuggestionTrieTest {
+
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong(Suggestion::popularity).reversed()
+            .thenComparing(Suggestion::text)
+            .thenComparing(Suggestion::kind)
+            .thenComparing(suggestion -> suggestion.id() == null ? 0 : suggestion.id());
+
+    @Test
+    public void suggest_WordStarts_ReturnMostPopularFirst() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(new Suggestion(Kind.THEME, 1, "Вологість повітря", 5));
+        trie.put(new Suggestion(Kind.THEME, 2, "Вологість ґрунту", 7));
+        trie.put(new Suggestion(Kind.TOPIC_TYPE, null, "Полив", 3));
+
+        assertEquals(List.of("Вологість ґрунту", "Вологість повітря"), texts(trie.suggest("вол", 10)));
+        assertEquals(List.of("Вологість повітря", "Полив"), texts(trie.suggest("ПО", 10)));
+        assertEquals(List.of("Вологість ґрунту"), texts(trie.suggest("вологість ґ", 10)));
+        assertEquals(List.of("Вологість ґрунту"), texts(trie.suggest("вол", 1)));
+        assertEquals(List.of(), texts(trie.suggest("волога", 10)));
+        assertEquals(List.of(), texts(trie.suggest("  ", 10)));
+    }
+
+    @Test
+    public void put_SameTheme_ReplaceSuggestion() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(new Suggestion(Kind.THEME, 1, "Температура", 5));
+        trie.put(new Suggestion(Kind.THEME, 1, "Освітлення", 6));
+
+        assertEquals(1, trie.size());
+        assertEquals(List.of(), texts(trie.suggest("темп", 10)));
+        assertEquals(List.of("Освітлення"), texts(trie.suggest("осв", 10)));
+
+        trie.removeTheme(1);
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), texts(trie.suggest("осв", 10)));
+    }
+
+    @Test
+    public void suggest_RandomUpdates_MatchBruteForce() {
+        Random random = new Random(7);
+        SuggestionTrie trie = new SuggestionTrie();
+        Map<Integer, Suggestion> themes = new HashMap<>();
+        Map<String, Suggestion> types = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                // few ids, letters and popularities, so keys share prefixes and replace each other
+                Suggestion suggestion = new Suggestion(Kind.THEME, random.nextInt(60), text(random),
+                        random.nextInt(8));
+                themes.put(suggestion.id(), suggestion);
+                trie.put(suggestion);
+            } else if (operation < 7) {
+                Suggestion suggestion = new Suggestion(Kind.TOPIC_TYPE, null, text(random), random.nextInt(8));
+                types.put(suggestion.text(), suggestion);
+                trie.put(suggestion);
+            } else if (operation < 8) {
+                Integer id = random.nextInt(60);
+                themes.remove(id);
+                trie.removeTheme(id);
+            } else if (operation < 9 && !types.isEmpty()) {
+                String type = new ArrayList<>(types.keySet()).get(random.nextInt(types.size()));
+                types.remove(type);
+                trie.removeTopicType(type);
+            }
+
+            String prefix = text(random);
+            prefix = prefix.substring(0, 1 + random.nextInt(prefix.length()));
+            int limit = 1 + random.nextInt(SuggestionTrie.MAX_SUGGESTIONS);
+            assertEquals(expected(themes, types, prefix.trim(), limit), trie.suggest(prefix, limit),
+                    "step " + step + ", prefix '" + prefix + "'");
+            assertEquals(themes.size() + types.size(), trie.size());
+        }
+    }
+
+    private static List<Suggestion> expected(Map<Integer, Suggestion> themes, Map<String, Suggestion> types,
+                                             String prefix, int limit) {
+        List<Suggestion> matches = new ArrayList<>();
+        List<Suggestion> all = new ArrayList<>(themes.values());
+        all.addAll(types.values());
+        for (Suggestion suggestion : all) {
+            String text = suggestion.text();
+            for (int i = 0; i < text.length(); i++) {
+                if ((i == 0 || text.charAt(i - 1) == ' ') && text.startsWith(prefix, i)) {
+                    matches.add(suggestion);
+                    break;
+                }
+            }
+        }
+        matches.sort(RANKING);
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    // one to three words of the letters a to c, so edges split and merge often
+    private static String text(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            int length = 1 + random.nextInt(4);
+            for (int i = 0; i < length; i++) {
+                text.append((char) ('a' + random.nextInt(3)));
+            }
+        }
+        return text.toString();
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.hygimeter.schedule;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Compiled PlanParameters.temperatureSked.
+ * A schedule repeats every day and has one of two forms:
+ * <pre>
+ * daily    := time '=' temperature ( (';' | ',') time '=' temperature )*
+ * periodic := 'every' number ('hour' | 'hours' | 'minute' | 'minutes') [ '=' temperature ]
+ * time     := HH ':' MM
+ * </pre>
+ * for example "06:00=21; 22:00=18" or "Every 6 hours". A periodic schedule
+ * changes every period from midnight and has no setpoints unless one is
+ * given. The compiled form is an immutable sorted array of change minutes,
+ * so setpoint and next change lookups are binary searches that allocate
+ * nothing.
+ */
+public final class TemperatureSchedule {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Format error of a schedule. It is an expected input error, so the
+     * stack trace is not filled in.
+     */
+    public static final class ScheduleFormatException extends IllegalArgumentException {
+
+        private ScheduleFormatException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private final int[] changeMinutes;
+    // null for a periodic schedule without a setpoint
+    private final float[] setpoints;
+
+    private TemperatureSchedule(int[] changeMinutes, float[] setpoints) {
+        this.changeMinutes = changeMinutes;
+        this.setpoints = setpoints;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text does not follow the grammar
+     */
+    public static TemperatureSchedule compile(String text) {
+        if (text == null || text.isBlank()) {
+            throw new ScheduleFormatException("Temperature schedule is empty");
+        }
+        String source = text.trim().toLowerCase(Locale.ROOT);
+        return source.startsWith("every") ? compilePeriodic(source) : compileDaily(source);
+    }
+
+    public static boolean isValid(String text) {
+        try {
+            compile(text);
+            return true;
+        } catch (ScheduleFormatException e) {
+            return false;
+        }
+    }
+
+    public boolean hasSetpoints() {
+        return setpoints != null;
+    }
+
+    /**
+     * @return the setpoint at the minute of the day
+     * @throws IllegalStateException if the schedule has no setpoints
+     */
+    public float setpointAt(int minuteOfDay) {
+        if (setpoints == null) {
+            throw new IllegalStateException("Temperature schedule has no setpoints");
+        }
+        int index = Arrays.binarySearch(changeMinutes, Math.floorMod(minuteOfDay, MINUTES_PER_DAY));
+        if (index < 0) {
+            index = -index - 2;
+        }
+        // before the first change of the day the last change of the previous day holds
+        return setpoints[index < 0 ? setpoints.length - 1 : index];
+    }
+
+    public float setpointAt(LocalTime time) {
+        return setpointAt(time.getHour() * 60 + time.getMinute());
+    }
+
+    /**
+     * @return minutes from the minute of the day to the next change, from 1
+     *         to MINUTES_PER_DAY
+     */
+    public int minutesToNextChange(int minuteOfDay) {
+        int minute = Math.floorMod(minuteOfDay, MINUTES_PER_DAY);
+        int index = Arrays.binarySearch(changeMinutes, minute);
+        index = index < 0 ? -index - 1 : index + 1;
+        int next = index < changeMinutes.length ? changeMinutes[index] : changeMinutes[0] + MINUTES_PER_DAY;
+        return next - minute;
+    }
+
+    /**
+     * @return the minute of the day of the next change after the given one
+     */
+    public int nextChangeAfter(int minuteOfDay) {
+        return Math.floorMod(minuteOfDay + minutesToNextChange(minuteOfDay), MINUTES_PER_DAY);
+    }
+
+    public int changesPerDay() {
+        return changeMinutes.length;
+    }
+
+    private static TemperatureSchedule compilePeriodic(String source) {
+        String[] parts = source.split("=", -1);
+        if (parts.length > 2) {
+            throw new ScheduleFormatException("Temperature schedule has more than one setpoint");
+        }
+        String[] words = parts[0].trim().split("\\s+");
+        if (words.length != 3) {
+            throw new ScheduleFormatException("Temperature schedule must be 'Every N hours'");
+        }
+        int amount = parseInt(words[1]);
+        int minutesPerUnit = switch (words[2]) {
+            case "hour", "hours" -> 60;
+            case "minute", "minutes" -> 1;
+            default -> throw new ScheduleFormatException("Unknown period unit: " + words[2]);
+        };
+        // bounded before multiplying, so a large amount cannot wrap around
+        if (amount <= 0 || amount > MINUTES_PER_DAY / minutesPerUnit) {
+            throw new ScheduleFormatException("Period must be from 1 minute to 24 hours");
+        }
+        int period = amount * minutesPerUnit;
+
+        int changes = (MINUTES_PER_DAY + period - 1) / period;
+        int[] changeMinutes = new int[changes];
+        for (int i = 0; i < changes; i++) {
+            changeMinutes[i] = i * period;
+        }
+        if (parts.length == 1) {
+            return new TemperatureSchedule(changeMinutes, null);
+        }
+        float[] setpoints = new float[changes];
+        Arrays.fill(setpoints, parseTemperature(parts[1]));
+        return new TemperatureSchedule(changeMinutes, setpoints);
+    }
+
+    private static TemperatureSchedule compileDaily(String source) {
+        String[] entries = source.split("[;,]");
+        int[] changeMinutes = new int[entries.length];
+        float[] setpoints = new float[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String[] entry = entries[i].split("=", -1);
+            if (entry.length != 2) {
+                throw new ScheduleFormatException("Schedule entry must be 'HH:MM=temperature': " + entries[i]);
+            }
+            changeMinutes[i] = parseTime(entry[0].trim());
+            setpoints[i] = parseTemperature(entry[1]);
+        }
+        // sort the entries by time
+        Integer[] order = new Integer[entries.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(changeMinutes[a], changeMinutes[b]));
+        int[] sortedMinutes = new int[order.length];
+        float[] sortedSetpoints = new float[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedMinutes[i] = changeMinutes[order[i]];
+            sortedSetpoints[i] = setpoints[order[i]];
+            if (i > 0 && sortedMinutes[i] == sortedMinutes[i - 1]) {
+                throw new ScheduleFormatException("Schedule has two setpoints at one time");
+            }
+        }
+        return new TemperatureSchedule(sortedMinutes, sortedSetpoints);
+    }
+
+    private static int parseTime(String time) {
+        String[] parts = time.split(":");
+        if (parts.length != 2) {
+            throw new ScheduleFormatException("Time must be HH:MM: " + time);
+        }
+        int hour = parseInt(parts[0]);
+        int minute = parseInt(parts[1]);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            throw new ScheduleFormatException("Time is out of range: " + time);
+        }
+        return hour * 60 + minute;
+    }
+
+    private static float parseTemperature(String temperature) {
+        String value = temperature.trim();
+        if (value.endsWith("°c")) {
+            value = value.substring(0, value.length() - 2).trim();
+        }
+        try {
+            float setpoint = Float.parseFloat(value);
+            if (Float.isNaN(setpoint) || Float.isInfinite(setpoint)) {
+                throw new ScheduleFormatException("Temperature must be a number: " + temperature);
+            }
+            return setpoint;
+        } catch (NumberFormatException e) {
+            throw new ScheduleFormatException("Temperature must be a number: " + temperature);
+        }
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ScheduleFormatException("Not a number: " + value);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.hygimeter.schedule;
+
+import com.example.hygimeter.model.PlanParameters;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiled temperature schedules by PlanParameters id.
+ * An entry keeps the text it was compiled from, so a schedule changed
+ * without invalidation is compiled again instead of being served stale.
+ * The cache is bounded by entry count, so plan parameters that are no
+ * longer used do not stay in memory after their pattern is deleted.
+ */
+@Component
+public class TemperatureScheduleCache {
+
+    private record Entry(String source, TemperatureSchedule schedule) {
+    }
+
+    private final Cache<Integer, Entry> schedules;
+
+    public TemperatureScheduleCache(@Value("${hygimeter.cache.temperature-schedules.max-size:10000}") long maxSize) {
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the schedule does not follow the grammar
+     */
+    public TemperatureSchedule get(PlanParameters planParameters) {
+        return get(planParameters.getId(), planParameters.getTemperatureSked());
+    }
+
+    /**
+     * @param planParametersId the id of the plan parameters, null if not saved
+     * @param source           their temperatureSked
+     * @throws IllegalArgumentException if the schedule does not follow the grammar
+     */
+    public TemperatureSchedule get(Integer planParametersId, String source) {
+        if (planParametersId == null) {
+            return TemperatureSchedule.compile(source);
+        }
+        Entry entry = schedules.getIfPresent(planParametersId);
+        if (entry == null || !entry.source().equals(source)) {
+            entry = new Entry(source, TemperatureSchedule.compile(source));
+            schedules.put(planParametersId, entry);
+        }
+        return entry.schedule();
+    }
+
+    public int size() {
+        return (int) schedules.estimatedSize();
+    }
+
+    public void invalidate(Integer planParametersId) {
+        if (planParametersId != null) {
+            schedules.invalidate(planParametersId);
+        }
+    }
+
+    public void clear() {
+        schedules.invalidateAll();
+    }
+}
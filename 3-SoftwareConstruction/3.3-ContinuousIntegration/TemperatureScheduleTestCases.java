@@ -0,0 +1,115 @@
+package com.example.hygimeter.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TemperatureScheduleTest {
+
+    @Test
+    public void compile_DailySchedule_ReturnSetpointOfLastChange() {
+        TemperatureSchedule schedule = TemperatureSchedule.compile("22:00=18; 06:00=21, 12:30=23.5°C");
+
+        assertEquals(3, schedule.changesPerDay());
+        assertEquals(21f, schedule.setpointAt(6 * 60));
+        assertEquals(21f, schedule.setpointAt(12 * 60 + 29));
+        assertEquals(23.5f, schedule.setpointAt(LocalTime.of(12, 30)));
+        assertEquals(18f, schedule.setpointAt(23 * 60));
+        // before the first change the last change of the previous day holds
+        assertEquals(18f, schedule.setpointAt(5 * 60));
+        assertEquals(18f, schedule.setpointAt(-60));
+    }
+
+    @Test
+    public void minutesToNextChange_DailySchedule_WrapAroundMidnight() {
+        TemperatureSchedule schedule = TemperatureSchedule.compile("06:00=21; 22:00=18");
+
+        assertEquals(6 * 60, schedule.minutesToNextChange(0));
+        assertEquals(16 * 60, schedule.minutesToNextChange(6 * 60));
+        assertEquals(1, schedule.minutesToNextChange(22 * 60 - 1));
+        assertEquals(8 * 60, schedule.minutesToNextChange(22 * 60));
+        assertEquals(6 * 60, schedule.nextChangeAfter(23 * 60));
+    }
+
+    @Test
+    public void minutesToNextChange_OneChangePerDay_ReturnWholeDay() {
+        TemperatureSchedule schedule = TemperatureSchedule.compile("06:00=21");
+
+        assertEquals(TemperatureSchedule.MINUTES_PER_DAY, schedule.minutesToNextChange(6 * 60));
+        assertEquals(21f, schedule.setpointAt(0));
+    }
+
+    @Test
+    public void compile_PeriodicSchedule_ChangeEveryPeriodFromMidnight() {
+        TemperatureSchedule schedule = TemperatureSchedule.compile("Every 6 hours = 20");
+
+        assertEquals(4, schedule.changesPerDay());
+        assertTrue(schedule.hasSetpoints());
+        assertEquals(20f, schedule.setpointAt(7 * 60));
+        assertEquals(5 * 60, schedule.minutesToNextChange(7 * 60));
+        assertEquals(0, schedule.nextChangeAfter(18 * 60));
+    }
+
+    @Test
+    public void compile_PeriodNotDividingDay_LastChangeBeforeMidnight() {
+        TemperatureSchedule schedule = TemperatureSchedule.compile("every 7 hours");
+
+        assertEquals(4, schedule.changesPerDay());
+        assertEquals(3 * 60, schedule.minutesToNextChange(21 * 60));
+    }
+
+    @Test
+    public void compile_PeriodicWithoutSetpoint_HasNoSetpoints() {
+        TemperatureSchedule schedule = TemperatureSchedule.compile("Every 6 hours");
+
+        assertFalse(schedule.hasSetpoints());
+        assertEquals(6 * 60, schedule.minutesToNextChange(0));
+        assertThrows(IllegalStateException.class, () -> schedule.setpointAt(0));
+    }
+
+    @Test
+    public void compile_PeriodOutOfRange_ThrowFormatException() {
+        for (String text : new String[]{"Every 0 hours", "Every -1 hours", "Every 25 hours",
+                "Every 1441 minutes", "Every 35791395 hours", "Every 2147483647 hours",
+                "Every 99999999999 hours"}) {
+            assertThrows(TemperatureSchedule.ScheduleFormatException.class,
+                    () -> TemperatureSchedule.compile(text), text);
+            assertFalse(TemperatureSchedule.isValid(text), text);
+        }
+        assertTrue(TemperatureSchedule.isValid("Every 24 hours"));
+        assertTrue(TemperatureSchedule.isValid("Every 1 minute"));
+    }
+
+    @Test
+    public void isValid_MalformedSchedule_ReturnFalse() {
+        for (String text : new String[]{null, "", "  ", "06:00", "06:00=21=22", "24:00=21", "06:60=21",
+                "6=21", "06:00=warm", "06:00=NaN", "06:00=Infinity", "06:00=21; 06:00=22",
+                "Every hours", "Every 6 days", "Every 6 hours = 20 = 21", "Every six hours"}) {
+            assertFalse(TemperatureSchedule.isValid(text), String.valueOf(text));
+        }
+    }
+
+    @Test
+    public void get_SameSource_ReturnCachedSchedule() {
+        TemperatureScheduleCache cache = new TemperatureScheduleCache(1000);
+
+        TemperatureSchedule first = cache.get(1, "06:00=21");
+
+        assertSame(first, cache.get(1, "06:00=21"));
+        assertNotSame(first, cache.get(1, "06:00=22"));
+        assertEquals(22f, cache.get(1, "06:00=22").setpointAt(0));
+
+        cache.invalidate(1);
+        cache.invalidate(null);
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.get(null, "06:00=21").changesPerDay());
+        assertEquals(0, cache.size());
+    }
+}
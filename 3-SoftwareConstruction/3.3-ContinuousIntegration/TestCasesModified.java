@@ -4,10 +4,12 @@ import com.example.hygimeter.config.JwtService;
 import com.example.hygimeter.dto.*;
 import com.example.hygimeter.exception.EntityNotFoundException;
 import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.exception.PreconditionFailedException;
 import com.example.hygimeter.exception.StatusCodes;
 import com.example.hygimeter.service.PlanPatternService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,12 +21,21 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 
 @ExtendWith(SpringExtension.class)
@@ -472,5 +483,179 @@ public class PlanPatternControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value(expectedCode));
     }
 
+    @Test
+    public void getPlanPatternById_PlanPatternExists_ReturnETag() throws Exception {
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(5);
+        planPatternDTO.setDevice("DeviceTypeA");
+        planPatternDTO.setVersion(3);
+
+        given(planPatternService.getPlanPatternById(5)).willReturn(planPatternDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/plan-pattern/{id}", 5))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].version").value(3));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/plan-pattern/{id}", 5)
+                        .header("If-None-Match", "\"3\""))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/plan-pattern/{id}", 5)
+                        .header("If-None-Match", "\"2\", W/\"3\""))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+
+    @Test
+    public void updatePlanPattern_IfMatchOutdated_ReturnPreconditionFailed() throws Exception {
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(5);
+        planPatternDTO.setDevice("DeviceTypeA");
+
+        PlanPatternDTO expectedDTO = new PlanPatternDTO();
+        expectedDTO.setId(5);
+        expectedDTO.setDevice("DeviceTypeA");
+        expectedDTO.setVersion(2);
+
+        given(planPatternService.updatePlanPattern(5, expectedDTO))
+                .willThrow(new PreconditionFailedException("Plan pattern has been changed"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/plan-pattern/{id}", 5)
+                        .header("If-Match", "\"2\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsBytes(planPatternDTO)))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value("PRECONDITION_FAILED"));
+    }
+
+    @Test
+    public void updatePlanPattern_IfMatchWeak_ReturnPreconditionFailed() throws Exception {
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(5);
+        planPatternDTO.setDevice("DeviceTypeA");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/plan-pattern/{id}", 5)
+                        .header("If-Match", "W/\"2\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsBytes(planPatternDTO)))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value("PRECONDITION_FAILED"));
+
+        verify(planPatternService, never()).updatePlanPattern(any(), any());
+    }
+
+    @Test
+    public void patchPlanPattern_LightsOffTimeOnly_ReturnNewETag() throws Exception {
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("Every 6 hours");
+        planParameters.setLightsOffTime(LocalTime.of(21, 30));
+
+        PlanPatternDTO patchedDTO = new PlanPatternDTO();
+        patchedDTO.setId(5);
+        patchedDTO.setDevice("DeviceTypeA");
+        patchedDTO.setPlanParametersDTO(planParameters);
+        patchedDTO.setVersion(4);
+
+        PlanPatternPatch expectedPatch = new PlanPatternPatch(3,
+                Map.of(PlanPatternPatch.Field.LIGHTS_OFF_TIME, LocalTime.of(21, 30)));
+        given(planPatternService.patchPlanPattern(5, expectedPatch)).willReturn(patchedDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/plan-pattern/{id}", 5)
+                        .header("If-Match", "\"3\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"planParametersDTO\":{\"lightsOffTime\":\"21:30\"}}"))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].device").value("DeviceTypeA"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value("OK"));
+    }
+
+    @Test
+    public void patchPlanPattern_MicroclimateField_ReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/plan-pattern/{id}", 5)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"microclimateDTO\":{\"temperature\":\"22°C\"}}"))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusMessage").value("Field microclimateDTO cannot be patched"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value("INVALID_DATA"));
+    }
+
+    @Test
+    public void getPlanPatternsPage_NextPageExists_ReturnCursor() throws Exception {
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(11);
+        planPatternDTO.setDevice("DeviceTypeA");
+
+        PlanPatternPageDTO page = new PlanPatternPageDTO(List.of(planPatternDTO), 11);
+
+        given(planPatternService.getPlanPatternsPage(10, 1)).willReturn(page);
 
+        mockMvc.perform(MockMvcRequestBuilders.get("/plan-pattern")
+                        .param("after", "10")
+                        .param("limit", "1"))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].planPatterns[0].id").value(11))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].nextCursor").value(11))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value("OK"));
+    }
+
+    @Test
+    public void getPlanPatternsPage_InvalidLimit_ReturnBadRequest() throws Exception {
+        given(planPatternService.getPlanPatternsPage(null, 0))
+                .willThrow(new InvalidDataException(StatusCodes.INVALID_DATA.name(), "Page limit must be greater than 0"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/plan-pattern")
+                        .param("limit", "0"))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusMessage").value("Page limit must be greater than 0"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value("INVALID_DATA"));
+    }
+
+    @Test
+    public void streamPlanPatterns_UserHasPlans_ReturnNdjsonLines() throws Exception {
+        PlanPatternDTO first = new PlanPatternDTO();
+        first.setId(1);
+        first.setDevice("DeviceTypeA");
+        PlanPatternDTO second = new PlanPatternDTO();
+        second.setId(2);
+        second.setDevice("DeviceTypeB");
+
+        willAnswer(invocation -> {
+            Consumer<PlanPatternDTO> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).given(planPatternService).streamPlanPatterns(eq(7), any());
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/plan-pattern/stream")
+                        .param("userId", "7"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, JsonPath.<Integer>read(lines[0], "$.id"));
+        assertEquals("DeviceTypeB", JsonPath.<String>read(lines[1], "$.device"));
+    }
 }
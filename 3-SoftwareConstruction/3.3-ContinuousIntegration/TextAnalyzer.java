@@ -0,0 +1,112 @@
+package com.example.hygimeter.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits Ukrainian and English text into index terms.
+ * Text is cut at every character that is not a letter or a digit,
+ * apostrophes inside Ukrainian words are dropped ("м'який" and "мʼякий"
+ * give the same term), terms are lower-cased, stop words are skipped and
+ * the inflection ending is stripped: a Ukrainian ending for words with
+ * Cyrillic letters and an English plural or verb suffix for the others.
+ * Queries and documents go through the same analysis, so "вологості"
+ * finds "вологість" and "sensors" finds "sensor".
+ */
+public final class TextAnalyzer {
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "in", "is", "it", "of", "on", "or",
+            "the", "to", "with",
+            "а", "або", "в", "від", "для", "до", "з", "за", "зі", "і", "із", "й", "к", "на", "не", "по",
+            "при", "та", "у", "це", "що", "як");
+
+    // longest first, so "ами" is stripped before "и"
+    private static final String[] UKRAINIAN_ENDINGS = {
+            "ами", "ями", "ого", "ому", "ими", "ові", "еві", "ях", "ах", "ам", "ям", "ів", "їв", "ий", "ій",
+            "их", "ої", "ою", "ею", "ом", "ем", "ти", "а", "я", "у", "ю", "і", "и", "о", "е", "ь", "ї"
+    };
+
+    // nouns in "-ість" change the vowel in other cases: вологість, вологості
+    private static final String[] ABSTRACT_NOUN_ENDINGS = {"ість", "ості", "істю", "остей", "остям", "остями", "остях"};
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (isApostrophe(c)) {
+                if (word.length() > 0 && i + 1 < text.length() && Character.isLetter(text.charAt(i + 1))) {
+                    // apostrophe inside a word, e.g. "сім'я"
+                    continue;
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (word.length() > 0) {
+                String term = word.toString();
+                word.setLength(0);
+                if (!STOP_WORDS.contains(term)) {
+                    terms.add(stem(term));
+                }
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String term) {
+        if (isCyrillic(term)) {
+            for (String ending : ABSTRACT_NOUN_ENDINGS) {
+                if (term.endsWith(ending) && term.length() - ending.length() >= MIN_STEM_LENGTH) {
+                    return term.substring(0, term.length() - ending.length()) + "ост";
+                }
+            }
+            for (String ending : UKRAINIAN_ENDINGS) {
+                if (term.endsWith(ending) && term.length() - ending.length() >= MIN_STEM_LENGTH) {
+                    return term.substring(0, term.length() - ending.length());
+                }
+            }
+            return term;
+        }
+        if (term.endsWith("ies") && term.length() > MIN_STEM_LENGTH + 1) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.endsWith("ing") && term.length() - 3 >= MIN_STEM_LENGTH) {
+            return term.substring(0, term.length() - 3);
+        }
+        if (term.endsWith("ed") && term.length() - 2 >= MIN_STEM_LENGTH) {
+            return term.substring(0, term.length() - 2);
+        }
+        if (term.endsWith("es") && term.length() - 2 >= MIN_STEM_LENGTH
+                && (term.endsWith("sses") || term.endsWith("xes") || term.endsWith("ches") || term.endsWith("shes"))) {
+            return term.substring(0, term.length() - 2);
+        }
+        if (term.endsWith("s") && !term.endsWith("ss") && term.length() - 1 >= MIN_STEM_LENGTH) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    private static boolean isCyrillic(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.UnicodeBlock.of(term.charAt(i)) == Character.UnicodeBlock.CYRILLIC) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’' || c == 'ʼ' || c == '`';
+    }
+}
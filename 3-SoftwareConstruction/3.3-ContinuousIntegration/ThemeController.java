@@ -0,0 +1,40 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.dto.RemoteResponse;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.search.SuggestionService;
+import com.example.hygimeter.service.ThemeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/theme")
+@RequiredArgsConstructor
+public class ThemeController {
+
+    private final ThemeService themeService;
+    private final SuggestionService suggestionService;
+
+    @GetMapping
+    public RemoteResponse getAllThemes() {
+        return RemoteResponse.create(true, StatusCodes.OK.name(),
+                "Themes have been found", themeService.getAllThemes());
+    }
+
+    @GetMapping("/{id}/topics")
+    public RemoteResponse getTopicsByTheme(@PathVariable Integer id) {
+        return RemoteResponse.create(true, StatusCodes.OK.name(),
+                "Topics have been found", themeService.getTopicsByTheme(id));
+    }
+
+    @GetMapping("/suggest")
+    public RemoteResponse suggest(@RequestParam String prefix,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return RemoteResponse.create(true, StatusCodes.OK.name(),
+                "Suggestions have been found", suggestionService.suggest(prefix, limit));
+    }
+}
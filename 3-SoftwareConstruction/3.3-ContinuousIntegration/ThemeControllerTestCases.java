@@ -0,0 +1,73 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.config.JwtService;
+import com.example.hygimeter.dto.TopicSummaryDTO;
+import com.example.hygimeter.exception.EntityNotFoundException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.search.SuggestionService;
+import com.example.hygimeter.service.ThemeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(value = ThemeController.class, excludeAutoConfiguration = SecurityAutoConfiguration.class)
+@AutoConfigureDataJpa
+@AutoConfigureMockMvc
+public class ThemeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ThemeService themeService;
+
+    @MockBean
+    private SuggestionService suggestionService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    public void getTopicsByTheme_ThemeExists_ReturnTopicsWithoutContent() throws Exception {
+        given(themeService.getTopicsByTheme(3)).willReturn(List.of(
+                new TopicSummaryDTO(1, "Watering", "article", List.of("Plants")),
+                new TopicSummaryDTO(2, "Grow lamps", "video", List.of("Plants", "Lighting"))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/theme/{id}/topics", 3))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].id").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].description").value("Grow lamps"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].themeTitles[1]").value("Lighting"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].info").doesNotExist());
+    }
+
+    @Test
+    public void getTopicsByTheme_ThemeNotFound_ReturnNotFound() throws Exception {
+        given(themeService.getTopicsByTheme(4))
+                .willThrow(new EntityNotFoundException(StatusCodes.ENTITY_NOT_FOUND.name(), "Theme not found"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/theme/{id}/topics", 4))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusMessage").value("Theme not found"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.statusCode").value("ENTITY_NOT_FOUND"));
+    }
+}
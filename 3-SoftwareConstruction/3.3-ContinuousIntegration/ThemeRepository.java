@@ -0,0 +1,35 @@
+package com.example.hygimeter.repository;
+
+import com.example.hygimeter.model.Theme;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ThemeRepository extends JpaRepository<Theme, Integer> {
+
+    /**
+     * Theme of the theme list without its topics.
+     */
+    interface ThemeSummary {
+        Integer getId();
+        String getTitle();
+    }
+
+    List<ThemeSummary> findAllByOrderByTitleAsc(); //знаходження усіх тематик без топіків
+
+    /**
+     * Theme with the number of its topics.
+     */
+    interface ThemePopularity {
+        Integer getId();
+        String getTitle();
+        Long getTopics();
+    }
+
+    @Query("select th.id as id, th.title as title, count(t) as topics "
+            + "from Theme th left join th.topicInfos t group by th.id, th.title")
+    List<ThemePopularity> findThemePopularity(); //тематики з кількістю топіків
+}
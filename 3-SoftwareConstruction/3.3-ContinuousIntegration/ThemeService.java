@@ -0,0 +1,11 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.dto.TopicSummaryDTO;
+import com.example.hygimeter.repository.ThemeRepository.ThemeSummary;
+
+import java.util.List;
+
+public interface ThemeService {
+    List<ThemeSummary> getAllThemes(); //знайти усі тематики
+    List<TopicSummaryDTO> getTopicsByTheme(Integer themeId); //знайти топіки тематики без їх вмісту
+}
@@ -0,0 +1,66 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.dto.TopicSummaryDTO;
+import com.example.hygimeter.exception.EntityNotFoundException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.repository.ThemeRepository;
+import com.example.hygimeter.repository.ThemeRepository.ThemeSummary;
+import com.example.hygimeter.repository.TopicInfoRepository;
+import com.example.hygimeter.repository.TopicInfoRepository.TopicSummaryRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ThemeServiceImpl implements ThemeService {
+
+    private final ThemeRepository themeRepository;
+    private final TopicInfoRepository topicInfoRepository;
+
+    /**
+     * Отримує всі тематики без їх топіків.
+     *
+     * @return List<ThemeSummary> Список тематик, відсортований за назвою.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ThemeSummary> getAllThemes() {
+        return themeRepository.findAllByOrderByTitleAsc();
+    }
+
+    /**
+     * Отримує топіки тематики одним запитом, не читаючи їх вміст.
+     * Рядки запиту впорядковані за id топіка, тому назви тематик збираються за один прохід.
+     * Тематика без топіків дає один рядок без id, тож її існування не перевіряється окремим запитом.
+     *
+     * @param themeId ID тематики.
+     * @return List<TopicSummaryDTO> Список топіків з назвами їх тематик.
+     * @throws EntityNotFoundException якщо тематику не знайдено.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TopicSummaryDTO> getTopicsByTheme(Integer themeId) {
+        List<TopicSummaryRow> rows = topicInfoRepository.findTopicSummariesByThemeId(themeId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException(StatusCodes.ENTITY_NOT_FOUND.name(), "Theme not found");
+        }
+
+        List<TopicSummaryDTO> topics = new ArrayList<>();
+        TopicSummaryDTO current = null;
+        for (TopicSummaryRow row : rows) {
+            if (row.getId() == null) {
+                break;
+            }
+            if (current == null || !current.getId().equals(row.getId())) {
+                current = new TopicSummaryDTO(row.getId(), row.getDescription(), row.getType(), new ArrayList<>());
+                topics.add(current);
+            }
+            current.getThemeTitles().add(row.getThemeTitle());
+        }
+        return topics;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.hygimeter.service;
+
+import com.example.hygimeter.dto.TopicSummaryDTO;
+import com.example.hygimeter.exception.EntityNotFoundException;
+import com.example.hygimeter.model.Theme;
+import com.example.hygimeter.model.TopicInfo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import(ThemeServiceImpl.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ThemeServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ThemeService themeService;
+
+    private Statistics statistics;
+    private Theme plants;
+    private Theme lighting;
+    private Theme empty;
+    private TopicInfo watering;
+    private TopicInfo growLamps;
+
+    @BeforeEach
+    void setUp() {
+        plants = theme("Plants");
+        lighting = theme("Lighting");
+        empty = theme("Empty");
+        watering = topic("Watering", "article", plants);
+        growLamps = topic("Grow lamps", "video", plants, lighting);
+        topic("Lux meters", "article", lighting);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void getTopicsByTheme_TopicOfTwoThemes_ReturnEveryThemeTitleInOneStatement() {
+        List<TopicSummaryDTO> topics = themeService.getTopicsByTheme(plants.getId());
+
+        assertEquals(2, topics.size());
+        assertEquals(watering.getId(), topics.get(0).getId());
+        assertEquals("Watering", topics.get(0).getDescription());
+        assertEquals("article", topics.get(0).getType());
+        assertEquals(List.of("Plants"), topics.get(0).getThemeTitles());
+        // the selected theme does not limit the titles of the topic
+        assertEquals(growLamps.getId(), topics.get(1).getId());
+        assertEquals(Set.of("Plants", "Lighting"), Set.copyOf(topics.get(1).getThemeTitles()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getTopicsByTheme_ThemeWithoutTopics_ReturnEmptyListInOneStatement() {
+        List<TopicSummaryDTO> topics = themeService.getTopicsByTheme(empty.getId());
+
+        assertEquals(List.of(), topics);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getTopicsByTheme_ThemeNotFound_ThrowEntityNotFound() {
+        Integer missingId = empty.getId() + 1_000;
+
+        assertThrows(EntityNotFoundException.class, () -> themeService.getTopicsByTheme(missingId));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getAllThemes_ReturnThemesOrderedByTitle() {
+        List<String> titles = themeService.getAllThemes().stream()
+                .map(theme -> theme.getTitle())
+                .filter(title -> Set.of("Plants", "Lighting", "Empty").contains(title))
+                .toList();
+
+        assertEquals(List.of("Empty", "Lighting", "Plants"), titles);
+    }
+
+    private Theme theme(String title) {
+        Theme theme = new Theme();
+        theme.setTitle(title);
+        return entityManager.persist(theme);
+    }
+
+    private TopicInfo topic(String description, String type, Theme... themes) {
+        TopicInfo topicInfo = new TopicInfo();
+        topicInfo.setDescription(description);
+        topicInfo.setType(type);
+        topicInfo.setThemes(List.of(themes));
+        return entityManager.persist(topicInfo);
+    }
+}
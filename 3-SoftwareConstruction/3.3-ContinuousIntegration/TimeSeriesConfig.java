@@ -0,0 +1,50 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.timeseries.MicroclimateReadingStore;
+import com.example.hygimeter.timeseries.MicroclimateRollups;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Beans of the microclimate time series: the store of the raw readings,
+ * in memory-mapped files of {@code hygimeter.timeseries.directory} or in
+ * memory if it is not set, and the rollups of the readings of every plan,
+ * which the rollup endpoints query. The rollups are kept only in memory, so
+ * when the application is ready they are rebuilt from the readings the
+ * store recovered within the retention period.
+ */
+@Configuration
+public class TimeSeriesConfig {
+
+    @Bean(destroyMethod = "close")
+    public MicroclimateReadingStore microclimateReadingStore(
+            @Value("${hygimeter.timeseries.directory:}") String directory,
+            @Value("${hygimeter.timeseries.records-per-segment:4096}") int recordsPerSegment,
+            @Value("${hygimeter.timeseries.max-segments:64}") int maxSegmentsPerSeries,
+            @Value("${hygimeter.timeseries.retention:P30D}") Duration retention) throws IOException {
+        return directory.isEmpty()
+                ? MicroclimateReadingStore.inMemory(recordsPerSegment, maxSegmentsPerSeries, retention)
+                : MicroclimateReadingStore.mapped(Path.of(directory), recordsPerSegment, maxSegmentsPerSeries,
+                        retention);
+    }
+
+    @Bean
+    public MicroclimateRollups microclimateRollups() {
+        return new MicroclimateRollups();
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> microclimateRollupsLoader(
+            MicroclimateReadingStore microclimateReadingStore, MicroclimateRollups microclimateRollups,
+            @Value("${hygimeter.timeseries.retention:P30D}") Duration retention) {
+        return event -> microclimateRollups.loadAll(microclimateReadingStore,
+                System.currentTimeMillis() - retention.toMillis(), Long.MAX_VALUE);
+    }
+}
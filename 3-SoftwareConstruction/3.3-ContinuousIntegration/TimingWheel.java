@@ -0,0 +1,197 @@
+package com.example.hygimeter.schedule;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel.
+ * Every level has 64 slots; a slot of level n spans 64^n ticks, so four
+ * levels cover 64^4 ticks (about 194 days with one-second ticks). A timeout
+ * is kept in an intrusive doubly linked list of its slot, which makes
+ * scheduling and cancelling O(1). When a lower level wraps around, the
+ * current slot of the level above is cascaded into the lower levels.
+ * The wheel is not thread-safe; its owner serializes access.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadline;
+        private final long deadlineTick;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        private Slot<T> slot;
+
+        private Timeout(T task, long deadline, long deadlineTick) {
+            this.task = task;
+            this.deadline = deadline;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        /**
+         * @return the deadline in milliseconds since the epoch
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return slot != null;
+        }
+    }
+
+    private static final class Slot<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        private void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.previous = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.slot = null;
+        }
+
+        private Timeout<T> takeAll() {
+            Timeout<T> first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final Slot<T>[][] wheels;
+    private long currentTick;
+    private long size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startMillis, long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be greater than 0");
+        }
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.wheels = new Slot[LEVELS][SLOTS];
+        for (Slot<T>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot<>();
+            }
+        }
+    }
+
+    /**
+     * Schedules the task. A deadline in the past fires on the next tick.
+     */
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis, deadlineTick);
+        place(timeout, currentTick + 1);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return false if the timeout has already fired or was cancelled
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time and passes every expired timeout
+     * to the consumer in tick order.
+     */
+    public void advance(long nowMillis, Consumer<Timeout<T>> expired) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Timeout<T> timeout = wheels[0][(int) (currentTick & SLOT_MASK)].takeAll();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.previous = null;
+                timeout.next = null;
+                timeout.slot = null;
+                size--;
+                expired.accept(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        // higher levels first, so their timeouts are cascaded again if they land on a current slot
+        for (int level = top; level >= 1; level--) {
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Timeout<T> timeout = wheels[level][index].takeAll();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                // a timeout due on the current tick goes to the level 0 slot fired next
+                place(timeout, currentTick);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout, long earliestTick) {
+        long tick = Math.max(timeout.deadlineTick, earliestTick);
+        long delta = tick - currentTick;
+        if (delta > MAX_DELTA) {
+            // cascaded again until the deadline is within range
+            tick = currentTick + MAX_DELTA;
+            delta = MAX_DELTA;
+        }
+        int level = 0;
+        while (delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.hygimeter.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void advance_DeadlineOnSlotBoundary_FireOnDeadlineTick() {
+        for (long deadline : new long[]{63, 64, 65, 128, 4096, 64 * 64 * 64, 64 * 64 * 64 + 64}) {
+            TimingWheel<Long> wheel = new TimingWheel<>(0, 1);
+            List<Long> fired = new ArrayList<>();
+            wheel.schedule(deadline, deadline);
+
+            wheel.advance(deadline - 1, timeout -> fired.add(timeout.task()));
+            assertTrue(fired.isEmpty(), "fired before " + deadline);
+
+            wheel.advance(deadline, timeout -> fired.add(timeout.task()));
+            assertEquals(List.of(deadline), fired);
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    public void advance_RandomDeadlines_FireExactlyOnTheirTicks() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(1_000, 10);
+        List<TimingWheel.Timeout<Long>> cancelled = new ArrayList<>();
+        int scheduled = 0;
+        for (int i = 0; i < 5_000; i++) {
+            // spans all four levels
+            long deadline = 1_010 + random.nextInt(1 << (6 * (1 + random.nextInt(3)))) * 10L;
+            TimingWheel.Timeout<Long> timeout = wheel.schedule(deadline, deadline);
+            if (i % 10 == 0) {
+                cancelled.add(timeout);
+            } else {
+                scheduled++;
+            }
+        }
+        for (TimingWheel.Timeout<Long> timeout : cancelled) {
+            assertTrue(wheel.cancel(timeout));
+            assertFalse(wheel.cancel(timeout));
+        }
+        assertEquals(scheduled, wheel.size());
+
+        long[] now = {1_000};
+        long[] previous = {0};
+        int[] fired = {0};
+        while (wheel.size() > 0) {
+            previous[0] = now[0];
+            now[0] += 10 * (1 + random.nextInt(200));
+            wheel.advance(now[0], timeout -> {
+                // a timeout fires in the advance that first reaches its deadline
+                assertTrue(timeout.task() <= now[0], "fired early: " + timeout.task());
+                assertTrue(timeout.task() > previous[0], "fired late: " + timeout.task());
+                assertFalse(timeout.isPending());
+                fired[0]++;
+            });
+        }
+        assertEquals(scheduled, fired[0]);
+    }
+
+    @Test
+    public void advance_TicksInOrder_FireInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(0, 1);
+        for (long deadline = 5_000; deadline > 0; deadline -= 7) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(5_000, timeout -> fired.add(timeout.task()));
+
+        for (int i = 1; i < fired.size(); i++) {
+            assertTrue(fired.get(i - 1) < fired.get(i));
+        }
+        assertEquals(715, fired.size());
+    }
+
+    @Test
+    public void schedule_DeadlineInPast_FireOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(0, 1);
+        wheel.advance(100, timeout -> { });
+        wheel.schedule("late", 50);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advance(100, timeout -> fired.add(timeout.task()));
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(101, timeout -> fired.add(timeout.task()));
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    public void schedule_DeadlineBeyondWheel_FireAfterCascades() {
+        TimingWheel<String> wheel = new TimingWheel<>(0, 1);
+        long deadline = (1L << 24) + 100;
+        wheel.schedule("far", deadline);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advance(deadline - 1, timeout -> fired.add(timeout.task()));
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(deadline, timeout -> fired.add(timeout.task()));
+        assertEquals(List.of("far"), fired);
+    }
+}
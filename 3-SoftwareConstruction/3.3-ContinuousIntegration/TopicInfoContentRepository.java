@@ -0,0 +1,100 @@
+package com.example.hygimeter.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/**
+ * Repository for the binary content of TopicInfo.
+ * The info column is never read as a whole: its length is selected with
+ * octet_length and the bytes are read with substring in fixed-size chunks,
+ * so one request holds at most one chunk in memory.
+ * The chunks of one response are read in one read-only REPEATABLE READ
+ * transaction, so they all come from the same version of the content.
+ */
+@Repository
+public class TopicInfoContentRepository {
+
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+
+    public TopicInfoContentRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Content type, size and SHA-256 (hex) of the info of a topic.
+     * The hash is kept in the info_sha256 column by a trigger on every write
+     * of info, so it is not computed on read.
+     */
+    public record TopicContentInfo(Integer id, String type, long length, String sha256) {
+    }
+
+    public Optional<TopicContentInfo> findContentInfo(Integer id) {
+        return jdbcTemplate.query(
+                "SELECT id, type, octet_length(info), encode(info_sha256, 'hex') FROM topicsinfo WHERE id = ?",
+                rs -> rs.next()
+                        ? Optional.of(new TopicContentInfo(rs.getInt(1), rs.getString(2), rs.getLong(3),
+                                rs.getString(4)))
+                        : Optional.empty(),
+                id);
+    }
+
+    /**
+     * Writes the bytes [start, start + length) of the info to the stream.
+     * Fails with an IOException if the info is no longer the version
+     * described by {@code info}, because the headers sent for that version
+     * (length, ETag) would not match the body.
+     */
+    public void copyContent(TopicContentInfo info, long start, long length, OutputStream out) throws IOException {
+        try {
+            snapshotTransaction.executeWithoutResult(status -> {
+                String sha256 = jdbcTemplate.query(
+                        "SELECT encode(info_sha256, 'hex') FROM topicsinfo WHERE id = ?",
+                        rs -> rs.next() ? rs.getString(1) : null,
+                        info.id());
+                if (!info.sha256().equals(sha256)) {
+                    throw new UncheckedIOException(new IOException(
+                            "Content of topic " + info.id() + " has changed"));
+                }
+                copyChunks(info.id(), start, length, out);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void copyChunks(Integer id, long start, long length, OutputStream out) {
+        long position = start;
+        long end = start + length;
+        try {
+            while (position < end) {
+                int chunk = (int) Math.min(CHUNK_SIZE, end - position);
+                // substring of bytea is 1-based
+                byte[] bytes = jdbcTemplate.queryForObject(
+                        "SELECT substring(info FROM ? FOR ?) FROM topicsinfo WHERE id = ?",
+                        byte[].class, position + 1, chunk, id);
+                if (bytes == null || bytes.length == 0) {
+                    break;
+                }
+                out.write(bytes);
+                out.flush();
+                position += bytes.length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.config.JwtService;
+import com.example.hygimeter.repository.TopicInfoContentRepository;
+import com.example.hygimeter.repository.TopicInfoContentRepository.TopicContentInfo;
+import com.example.hygimeter.search.TopicSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(value = TopicInfoController.class, excludeAutoConfiguration = SecurityAutoConfiguration.class)
+@AutoConfigureDataJpa
+@AutoConfigureMockMvc
+public class TopicInfoControllerTest {
+
+    private static final String SHA256 = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String ETAG = "\"" + SHA256 + "\"";
+    private static final byte[] CONTENT = new byte[100];
+
+    static {
+        for (int i = 0; i < CONTENT.length; i++) {
+            CONTENT[i] = (byte) i;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TopicInfoContentRepository topicInfoContentRepository;
+
+    @MockBean
+    private TopicSearchService topicSearchService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TopicContentInfo info = new TopicContentInfo(5, "video/mp4", CONTENT.length, SHA256);
+        given(topicInfoContentRepository.findContentInfo(5)).willReturn(Optional.of(info));
+        given(topicInfoContentRepository.findContentInfo(6)).willReturn(Optional.empty());
+        willAnswer(invocation -> {
+            long start = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            OutputStream out = invocation.getArgument(3);
+            out.write(CONTENT, (int) start, (int) length);
+            return null;
+        }).given(topicInfoContentRepository).copyContent(eq(info), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void getTopicContent_NoRange_ReturnWholeContent() throws Exception {
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("video/mp4"))
+                .andExpect(MockMvcResultMatchers.header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(MockMvcResultMatchers.content().bytes(CONTENT));
+    }
+
+    @Test
+    public void getTopicContent_Range_ReturnPartialContent() throws Exception {
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content")
+                        .header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(MockMvcResultMatchers.content().bytes(Arrays.copyOfRange(CONTENT, 10, 20)));
+    }
+
+    @Test
+    public void getTopicContent_SuffixRange_ReturnLastBytes() throws Exception {
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content")
+                        .header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"))
+                .andExpect(MockMvcResultMatchers.content().bytes(Arrays.copyOfRange(CONTENT, 95, 100)));
+    }
+
+    @Test
+    public void getTopicContent_RangeBeyondEnd_ReturnClampedRange() throws Exception {
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content")
+                        .header(HttpHeaders.RANGE, "bytes=90-"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes 90-99/100"))
+                .andExpect(MockMvcResultMatchers.content().bytes(Arrays.copyOfRange(CONTENT, 90, 100)));
+    }
+
+    @Test
+    public void getTopicContent_IfRangeMatches_ReturnPartialContent() throws Exception {
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content")
+                        .header(HttpHeaders.RANGE, "bytes=0-49")
+                        .header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-49/100"))
+                .andExpect(MockMvcResultMatchers.content().bytes(Arrays.copyOfRange(CONTENT, 0, 50)));
+    }
+
+    @Test
+    public void getTopicContent_IfRangeStale_ReturnWholeContent() throws Exception {
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content")
+                        .header(HttpHeaders.RANGE, "bytes=0-49")
+                        .header(HttpHeaders.IF_RANGE, "\"5-100\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(MockMvcResultMatchers.content().bytes(CONTENT));
+    }
+
+    @Test
+    public void getTopicContent_IfRangeWeak_ReturnWholeContent() throws Exception {
+        // If-Range uses the strong comparison, so a weak validator never matches
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content")
+                        .header(HttpHeaders.RANGE, "bytes=0-49")
+                        .header(HttpHeaders.IF_RANGE, "W/" + ETAG))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().bytes(CONTENT));
+    }
+
+    @Test
+    public void getTopicContent_MultipleRanges_ReturnWholeContent() throws Exception {
+        streamed(MockMvcRequestBuilders.get("/topic-info/5/content")
+                        .header(HttpHeaders.RANGE, "bytes=0-9,20-29"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().bytes(CONTENT));
+    }
+
+    @Test
+    public void getTopicContent_RangeNotSatisfiable_ReturnRangeNotSatisfiable() throws Exception {
+        for (String range : new String[]{"bytes=100-", "bytes=50-10", "pages=1-2"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/topic-info/5/content")
+                            .header(HttpHeaders.RANGE, range))
+                    .andExpect(MockMvcResultMatchers.status().isRequestedRangeNotSatisfiable())
+                    .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+        }
+    }
+
+    @Test
+    public void getTopicContent_TopicNotExists_ReturnNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/topic-info/6/content"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    private ResultActions streamed(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult));
+    }
+}
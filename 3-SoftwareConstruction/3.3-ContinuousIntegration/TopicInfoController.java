@@ -0,0 +1,107 @@
+package com.example.hygimeter.controller;
+
+import com.example.hygimeter.dto.RemoteResponse;
+import com.example.hygimeter.exception.EntityNotFoundException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.repository.TopicInfoContentRepository;
+import com.example.hygimeter.repository.TopicInfoContentRepository.TopicContentInfo;
+import com.example.hygimeter.search.TopicSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * REST controller for TopicInfo content.
+ * The content is streamed from the database chunk by chunk; a single
+ * byte range from the Range header is honoured, so players can seek.
+ * The ETag is the SHA-256 of the content, so If-Range only resumes a
+ * range of the same bytes.
+ * Topics are searched by text through the in-memory TopicSearchService.
+ */
+@RestController
+@RequestMapping("/topic-info")
+@RequiredArgsConstructor
+public class TopicInfoController {
+
+    private final TopicInfoContentRepository topicInfoContentRepository;
+    private final TopicSearchService topicSearchService;
+
+    @GetMapping("/search")
+    public RemoteResponse searchTopics(@RequestParam("q") String query,
+                                       @RequestParam(defaultValue = "20") int limit) {
+        return RemoteResponse.create(true, StatusCodes.OK.name(),
+                "Topics have been found", topicSearchService.search(query, limit));
+    }
+
+    @GetMapping("/{id}/content")
+    public ResponseEntity<StreamingResponseBody> getTopicContent(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+        TopicContentInfo info = topicInfoContentRepository.findContentInfo(id)
+                .orElseThrow(() -> new EntityNotFoundException(StatusCodes.ENTITY_NOT_FOUND.name(),
+                        "Topic not found"));
+
+        long length = info.length();
+        String eTag = "\"" + info.sha256() + "\"";
+        MediaType mediaType = contentType(info.type());
+
+        List<HttpRange> ranges = List.of();
+        if (range != null && (ifRange == null || ifRange.equals(eTag))) {
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                return unsatisfiable(length);
+            }
+        }
+
+        if (ranges.size() != 1) {
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .contentLength(length)
+                    .eTag(eTag)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .body(out -> topicInfoContentRepository.copyContent(info, 0, length, out));
+        }
+
+        HttpRange httpRange = ranges.get(0);
+        long start;
+        long end;
+        try {
+            start = httpRange.getRangeStart(length);
+            end = httpRange.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            return unsatisfiable(length);
+        }
+        long rangeLength = end - start + 1;
+
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .contentType(mediaType)
+                .contentLength(rangeLength)
+                .eTag(eTag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
+                .body(out -> topicInfoContentRepository.copyContent(info, start, rangeLength, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> unsatisfiable(long length) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                .build();
+    }
+
+    private MediaType contentType(String type) {
+        try {
+            return MediaType.parseMediaType(type);
+        } catch (RuntimeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.hygimeter.repository;
+
+import com.example.hygimeter.model.TopicInfo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TopicInfoRepository extends JpaRepository<TopicInfo, Integer> {
+
+    /**
+     * Topic row of the topic list without the info column.
+     * One row is returned for every theme of the topic; a theme without
+     * topics gives one row with a null id.
+     */
+    interface TopicSummaryRow {
+        Integer getId();
+        String getDescription();
+        String getType();
+        String getThemeTitle();
+    }
+
+    /**
+     * Topic type with the number of topics of the type.
+     */
+    interface TypePopularity {
+        String getType();
+        Long getTopics();
+    }
+
+    @Query("select t.id as id, t.description as description, t.type as type, th.title as themeTitle "
+            + "from Theme selected left join selected.topicInfos t left join t.themes th "
+            + "where selected.id = :themeId order by t.id")
+    List<TopicSummaryRow> findTopicSummariesByThemeId(@Param("themeId") Integer themeId); //знаходження тем без вмісту, порожньо якщо тематики немає
+
+    @Query("select t.id from TopicInfo t where t.id > :after order by t.id")
+    List<Integer> findIdsAfter(@Param("after") Integer after, Pageable pageable); //сторінка id топіків для побудови індексу
+
+    @Query("select t.id from TopicInfo t join t.themes th where th.id = :themeId")
+    List<Integer> findIdsByThemeId(@Param("themeId") Integer themeId); //id топіків тематики
+
+    @Query("select t.id as id, t.description as description, t.type as type, th.title as themeTitle "
+            + "from TopicInfo t left join t.themes th where t.id in :ids order by t.id")
+    List<TopicSummaryRow> findTopicSummariesByIdIn(@Param("ids") Collection<Integer> ids); //знаходження топіків за id без вмісту
+
+    @Query("select t.type as type, count(t) as topics from TopicInfo t where t.type is not null group by t.type")
+    List<TypePopularity> findTypePopularity(); //типи топіків з кількістю топіків
+}
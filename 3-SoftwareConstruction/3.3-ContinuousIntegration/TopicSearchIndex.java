@@ -0,0 +1,260 @@
+package com.example.hygimeter.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of topics, ranked with BM25.
+ * A topic is indexed as its description, type and theme titles; a term of
+ * a theme title counts twice, a term of the type once and a term of the
+ * description once. Postings of a term are kept in primitive arrays of
+ * internal document numbers and term frequencies. A changed topic is
+ * indexed under a new number and its old number is marked deleted; the
+ * postings are compacted once a quarter of the numbers are deleted.
+ * Searches run concurrently under a read lock, changes take the write lock.
+ * Score accumulators are as large as the index and are pooled: at most one
+ * per processor is kept between searches, whatever the number of threads.
+ */
+public final class TopicSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int THEME_TITLE_WEIGHT = 2;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    /**
+     * Topic as it is indexed and returned by searches.
+     */
+    public record Document(int topicId, String description, String type, List<String> themeTitles) {
+    }
+
+    public record Hit(Document document, float score) {
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int live;
+
+        private void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+    }
+
+    // score accumulators of one search, reset through the touched documents only
+    private static final class Accumulator {
+        private float[] scores = new float[0];
+        private int[] touched = new int[0];
+        private int touchedSize;
+
+        private void ensureCapacity(int documents) {
+            if (scores.length < documents) {
+                scores = new float[documents];
+                touched = new int[documents];
+            }
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Accumulator> accumulators =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Integer> docsByTopicId = new HashMap<>();
+    private Document[] documents = new Document[1024];
+    private int[] lengths = new int[1024];
+    private int maxDoc;
+    private int deleted;
+    private long totalLength;
+
+    /**
+     * Adds the topic or replaces its previous version.
+     */
+    public void put(Document document) {
+        Map<String, Integer> frequencies = frequencies(document);
+        lock.writeLock().lock();
+        try {
+            removeDocument(document.topicId());
+            if (maxDoc == documents.length) {
+                documents = Arrays.copyOf(documents, maxDoc * 2);
+                lengths = Arrays.copyOf(lengths, maxDoc * 2);
+            }
+            int doc = maxDoc++;
+            int length = 0;
+            for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+                postings.computeIfAbsent(frequency.getKey(), term -> new Postings()).add(doc, frequency.getValue());
+                length += frequency.getValue();
+            }
+            documents[doc] = document;
+            lengths[doc] = length;
+            totalLength += length;
+            docsByTopicId.put(document.topicId(), doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int topicId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(topicId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByTopicId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matching topics, best first. A topic matches if it
+     * contains any term of the query.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = TextAnalyzer.terms(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Accumulator pooled = accumulators.poll();
+        Accumulator accumulator = pooled != null ? pooled : new Accumulator();
+        lock.readLock().lock();
+        try {
+            int liveDocs = docsByTopicId.size();
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            float averageLength = (float) totalLength / liveDocs;
+            accumulator.ensureCapacity(maxDoc);
+            float[] scores = accumulator.scores;
+            int[] touched = accumulator.touched;
+            int touchedSize = 0;
+
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null || termPostings.live == 0) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (liveDocs - termPostings.live + 0.5) / (termPostings.live + 0.5));
+                int[] docs = termPostings.docs;
+                int[] frequencies = termPostings.frequencies;
+                for (int i = 0; i < termPostings.size; i++) {
+                    int doc = docs[i];
+                    if (documents[doc] == null) {
+                        continue;
+                    }
+                    float frequency = frequencies[i];
+                    float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                    if (scores[doc] == 0) {
+                        touched[touchedSize++] = doc;
+                    }
+                    scores[doc] += idf * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(a.score(), b.score()));
+            for (int i = 0; i < touchedSize; i++) {
+                int doc = touched[i];
+                float score = scores[doc];
+                scores[doc] = 0;
+                if (best.size() < limit) {
+                    best.add(new Hit(documents[doc], score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Hit(documents[doc], score));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort((a, b) -> Float.compare(b.score(), a.score()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+            // dropped if the pool is full
+            accumulators.offer(accumulator);
+        }
+    }
+
+    private void removeDocument(int topicId) {
+        Integer doc = docsByTopicId.remove(topicId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : frequencies(documents[doc]).keySet()) {
+            postings.get(term).live--;
+        }
+        totalLength -= lengths[doc];
+        documents[doc] = null;
+        deleted++;
+        if (deleted >= MIN_DELETED_TO_COMPACT && deleted * 4 >= maxDoc) {
+            compact();
+        }
+    }
+
+    // renumbers the live documents and drops deleted ones from the postings
+    private void compact() {
+        int[] newDocs = new int[maxDoc];
+        int live = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (documents[doc] != null) {
+                newDocs[doc] = live;
+                documents[live] = documents[doc];
+                lengths[live] = lengths[doc];
+                docsByTopicId.put(documents[live].topicId(), live);
+                live++;
+            } else {
+                newDocs[doc] = -1;
+            }
+        }
+        Arrays.fill(documents, live, maxDoc, null);
+        postings.values().removeIf(termPostings -> {
+            int size = 0;
+            for (int i = 0; i < termPostings.size; i++) {
+                int doc = newDocs[termPostings.docs[i]];
+                if (doc >= 0) {
+                    termPostings.docs[size] = doc;
+                    termPostings.frequencies[size] = termPostings.frequencies[i];
+                    size++;
+                }
+            }
+            termPostings.size = size;
+            return size == 0;
+        });
+        maxDoc = live;
+        deleted = 0;
+    }
+
+    private static Map<String, Integer> frequencies(Document document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.terms(document.description())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        for (String term : TextAnalyzer.terms(document.type())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        for (String title : document.themeTitles()) {
+            for (String term : TextAnalyzer.terms(title)) {
+                frequencies.merge(term, THEME_TITLE_WEIGHT, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.hygimeter.search;
+
+import com.example.hygimeter.search.TopicSearchIndex.Document;
+import com.example.hygimeter.search.TopicSearchIndex.Hit;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class TopicSearchIndexTest {
+
+    @Test
+    public void terms_InflectedForms_SameTerm() {
+        assertEquals(TextAnalyzer.stem("вологість"), TextAnalyzer.stem("вологості"));
+        assertEquals(TextAnalyzer.stem("вологість"), TextAnalyzer.stem("вологістю"));
+        assertEquals("датчик", TextAnalyzer.stem("датчиками"));
+        assertEquals("sensor", TextAnalyzer.stem("sensors"));
+        assertEquals("humidity", TextAnalyzer.stem("humidities"));
+        assertEquals("box", TextAnalyzer.stem("boxes"));
+        assertEquals("glass", TextAnalyzer.stem("glass"));
+        assertEquals("bus", TextAnalyzer.stem("bus"));
+
+        assertEquals(List.of("sensor", "greenhouse"), TextAnalyzer.terms("Sensors in the greenhouse"));
+        assertEquals(TextAnalyzer.terms("м'який"), TextAnalyzer.terms("мʼякий"));
+        assertEquals(List.of("датчик", "вологост"), TextAnalyzer.terms("Датчики для вологості"));
+        assertEquals(List.of(), TextAnalyzer.terms(null));
+    }
+
+    @Test
+    public void search_SingleTerm_ScoreByBm25() {
+        TopicSearchIndex index = new TopicSearchIndex();
+        // lengths 3, 4 and 5; the theme title counts twice
+        index.put(new Document(1, "Humidity sensor", "device", List.of()));
+        index.put(new Document(2, "Temperature sensor sensor", "device", List.of()));
+        index.put(new Document(3, "Light bulb", "lamp", List.of("Sensor")));
+
+        Map<Integer, Float> scores = scores(index.search("sensors", 10));
+
+        float idf = (float) Math.log(1 + 0.5 / 3.5);
+        float averageLength = 12f / 3;
+        assertEquals(bm25(idf, 1, 3, averageLength), scores.get(1), 1e-6f);
+        assertEquals(bm25(idf, 2, 4, averageLength), scores.get(2), 1e-6f);
+        assertEquals(bm25(idf, 2, 5, averageLength), scores.get(3), 1e-6f);
+        assertEquals(List.of(2, 3, 1), index.search("sensor", 10).stream().map(hit -> hit.document().topicId()).toList());
+        assertEquals(List.of(2), index.search("sensor", 1).stream().map(hit -> hit.document().topicId()).toList());
+        assertEquals(1, index.search("humidity", 10).size());
+        assertEquals(List.of(), index.search("the", 10));
+    }
+
+    @Test
+    public void search_AfterCompaction_SameScoresAsFreshIndex() {
+        TopicSearchIndex index = new TopicSearchIndex();
+        for (int topicId = 0; topicId < 1_300; topicId++) {
+            index.put(document(topicId, 0));
+        }
+        // a quarter of the numbers and at least 1024 deleted compacts the postings
+        for (int topicId = 0; topicId < 1_300; topicId++) {
+            if (topicId % 5 != 0) {
+                if (topicId % 3 == 0) {
+                    index.put(document(topicId, 1));
+                } else {
+                    index.remove(topicId);
+                }
+            }
+        }
+        index.remove(5);
+        index.put(document(10, 2));
+
+        TopicSearchIndex fresh = new TopicSearchIndex();
+        for (int topicId = 0; topicId < 1_300; topicId++) {
+            if (topicId != 5 && topicId != 10 && (topicId % 5 == 0 || topicId % 3 == 0)) {
+                fresh.put(document(topicId, topicId % 5 == 0 ? 0 : 1));
+            }
+        }
+        fresh.put(document(10, 2));
+
+        assertEquals(fresh.size(), index.size());
+        for (String query : List.of("sensor", "version", "word humidity")) {
+            Map<Integer, Float> expected = scores(fresh.search(query, 2_000));
+            Map<Integer, Float> actual = scores(index.search(query, 2_000));
+            assertEquals(expected.keySet(), actual.keySet(), query);
+            expected.forEach((topicId, score) -> assertEquals(score, actual.get(topicId), 1e-6f, query));
+        }
+        assertFalse(scores(index.search("sensor", 2_000)).containsKey(5));
+    }
+
+    private static Document document(int topicId, int version) {
+        String description = "sensor ".repeat(topicId % 4 + 1) + "word ".repeat(topicId % 7)
+                + "version ".repeat(version) + (topicId % 2 == 0 ? "humidity" : "");
+        return new Document(topicId, description, "device", List.of());
+    }
+
+    private static float bm25(float idf, float frequency, int length, float averageLength) {
+        return idf * frequency * 2.2f / (frequency + 1.2f * (0.25f + 0.75f * length / averageLength));
+    }
+
+    private static Map<Integer, Float> scores(List<Hit> hits) {
+        Map<Integer, Float> scores = new HashMap<>();
+        for (Hit hit : hits) {
+            scores.put(hit.document().topicId(), hit.score());
+        }
+        return scores;
+    }
+}
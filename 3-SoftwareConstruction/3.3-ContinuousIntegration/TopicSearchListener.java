@@ -0,0 +1,76 @@
+package com.example.hygimeter.search;
+
+import com.example.hygimeter.model.Theme;
+import com.example.hygimeter.model.TopicInfo;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * JPA entity listener of TopicInfo and Theme that passes committed changes
+ * to TopicSearchService and SuggestionService. Changes of a rolled back transaction are not
+ * indexed.
+ */
+@Component
+public class TopicSearchListener {
+
+    private final ObjectProvider<TopicSearchService> topicSearchService;
+    private final ObjectProvider<SuggestionService> suggestionService;
+
+    public TopicSearchListener(ObjectProvider<TopicSearchService> topicSearchService,
+                               ObjectProvider<SuggestionService> suggestionService) {
+        this.topicSearchService = topicSearchService;
+        this.suggestionService = suggestionService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void changed(Object entity) {
+        afterCommit(() -> suggestionService.getObject().changed());
+        if (entity instanceof TopicInfo topicInfo) {
+            Integer id = topicInfo.getId();
+            afterCommit(() -> topicSearchService.getObject().topicsChanged(List.of(id)));
+        } else if (entity instanceof Theme theme) {
+            Integer id = theme.getId();
+            afterCommit(() -> topicSearchService.getObject().themeChanged(id));
+        }
+    }
+
+    @PreRemove
+    public void removing(Object entity) {
+        if (entity instanceof Theme theme && theme.getTopicInfos() != null) {
+            // the links to the topics are gone after the removal
+            List<Integer> topicIds = theme.getTopicInfos().stream().map(TopicInfo::getId).toList();
+            afterCommit(() -> topicSearchService.getObject().topicsChanged(topicIds));
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        afterCommit(() -> suggestionService.getObject().changed());
+        if (entity instanceof TopicInfo topicInfo) {
+            Integer id = topicInfo.getId();
+            afterCommit(() -> topicSearchService.getObject().topicRemoved(id));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.hygimeter.search;
+
+import com.example.hygimeter.dto.TopicSummaryDTO;
+import com.example.hygimeter.repository.TopicInfoRepository;
+import com.example.hygimeter.repository.TopicInfoRepository.TopicSummaryRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Full-text search of topics by description, type and theme titles.
+ * The TopicSearchIndex is built from the database when the application
+ * starts and is kept up to date by TopicSearchListener: changed topics are
+ * read again and indexed on a single indexing thread, in commit order,
+ * after the changing transaction has committed.
+ */
+@Slf4j
+@Service
+public class TopicSearchService {
+
+    public static final int MAX_LIMIT = 100;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final TopicInfoRepository topicInfoRepository;
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(r -> new Thread(r, "topic-search-indexer"));
+    private final TopicSearchIndex index = new TopicSearchIndex();
+
+    public TopicSearchService(TopicInfoRepository topicInfoRepository) {
+        this.topicInfoRepository = topicInfoRepository;
+    }
+
+    @PreDestroy
+    public void stop() {
+        indexer.shutdown();
+    }
+
+    /**
+     * Indexes all topics, page by page.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        submit(() -> {
+            int after = 0;
+            List<Integer> ids;
+            do {
+                ids = topicInfoRepository.findIdsAfter(after, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                if (!ids.isEmpty()) {
+                    index(ids);
+                    after = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == REBUILD_PAGE_SIZE);
+            log.info("Topic search index loaded {} topics", index.size());
+        });
+    }
+
+    /**
+     * Finds topics by a Ukrainian or English query, best matching first.
+     */
+    public List<TopicSummaryDTO> search(String query, int limit) {
+        List<TopicSummaryDTO> topics = new ArrayList<>();
+        for (TopicSearchIndex.Hit hit : index.search(query, Math.min(limit, MAX_LIMIT))) {
+            TopicSearchIndex.Document document = hit.document();
+            topics.add(new TopicSummaryDTO(document.topicId(), document.description(), document.type(),
+                    new ArrayList<>(document.themeTitles())));
+        }
+        return topics;
+    }
+
+    /**
+     * Reads the topics again and indexes them; topics no longer in the
+     * database are removed from the index.
+     */
+    public void topicsChanged(Collection<Integer> topicIds) {
+        List<Integer> ids = List.copyOf(topicIds);
+        submit(() -> index(ids));
+    }
+
+    public void themeChanged(Integer themeId) {
+        submit(() -> index(topicInfoRepository.findIdsByThemeId(themeId)));
+    }
+
+    public void topicRemoved(Integer topicId) {
+        submit(() -> index.remove(topicId));
+    }
+
+    private void submit(Runnable task) {
+        indexer.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Topic search index update failed", e);
+            }
+        });
+    }
+
+    private void index(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Integer> missing = new HashSet<>(ids);
+        // rows are ordered by topic id, one row for every theme of a topic
+        TopicSummaryRow current = null;
+        List<String> themeTitles = new ArrayList<>();
+        for (TopicSummaryRow row : topicInfoRepository.findTopicSummariesByIdIn(ids)) {
+            if (current != null && !current.getId().equals(row.getId())) {
+                put(current, themeTitles);
+                themeTitles = new ArrayList<>();
+            }
+            current = row;
+            missing.remove(row.getId());
+            if (row.getThemeTitle() != null) {
+                themeTitles.add(row.getThemeTitle());
+            }
+        }
+        if (current != null) {
+            put(current, themeTitles);
+        }
+        missing.forEach(index::remove);
+    }
+
+    private void put(TopicSummaryRow row, List<String> themeTitles) {
+        index.put(new TopicSearchIndex.Document(row.getId(), row.getDescription(), row.getType(),
+                List.copyOf(themeTitles)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.hygimeter.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Topic Summary Data Transfer Object")
+public class TopicSummaryDTO {
+
+    @Schema(description = "Topic id")
+    private Integer id;
+
+    @Schema(description = "Topic description")
+    private String description;
+
+    @Schema(description = "Topic type")
+    private String type;
+
+    @Schema(description = "Titles of the topic themes")
+    private List<String> themeTitles = new ArrayList<>();
+}
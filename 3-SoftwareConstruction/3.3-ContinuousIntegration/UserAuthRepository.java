@@ -0,0 +1,18 @@
+package com.example.hygimeter.repository;
+
+import com.example.hygimeter.config.AuthUser;
+import com.example.hygimeter.model.User;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+@org.springframework.stereotype.Repository
+public interface UserAuthRepository extends Repository<User, Integer> {
+
+    @Query("select new com.example.hygimeter.config.AuthUser("
+            + "u.id, u.name, u.surname, u.email, u.password, u.role) "
+            + "from User u where u.email = :email")
+    Optional<AuthUser> findAuthUserByEmail(@Param("email") String email); //один запит за індексом email
+}
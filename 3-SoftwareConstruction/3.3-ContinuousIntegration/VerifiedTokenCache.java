@@ -0,0 +1,126 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Cache of verified JWTs and the principals they were issued to.
+ * A token is verified by JwtService and its user loaded by
+ * UserDetailsService once; until its exp claim CachedJwtAuthenticationFilter
+ * takes the principal from here without checking the signature or
+ * querying the database.
+ * Principals are immutable AuthUser snapshots, never the managed User
+ * entity. The cache is bounded by entry count and an entry never outlives
+ * its token. AuthUserListener revokes the tokens of a changed user; logout
+ * must revoke the token itself.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public record VerifiedToken(AuthUser principal, Instant expiresAt) {
+
+        /**
+         * Creates the entry of a verified token; a User entity is copied
+         * into an AuthUser.
+         */
+        public static VerifiedToken of(UserDetails details, Instant expiresAt) {
+            if (details instanceof AuthUser user) {
+                return new VerifiedToken(user, expiresAt);
+            }
+            if (details instanceof User user) {
+                return new VerifiedToken(new AuthUser(user.getId(), user.getName(), user.getSurname(),
+                        user.getEmail(), user.getPassword(), user.getRole()), expiresAt);
+            }
+            throw new IllegalArgumentException("Unsupported principal " + details.getClass().getName());
+        }
+    }
+
+    private static final Duration MAX_EXPIRY = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final Cache<String, VerifiedToken> tokens;
+    private final Clock clock;
+
+    public VerifiedTokenCache(@Value("${hygimeter.cache.tokens.max-size:50000}") long maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(long maxSize, Clock clock) {
+        this.clock = clock;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the principal of a token, verifying it on a miss.
+     * The verifier returns null for an invalid token; such tokens and
+     * tokens already expired are not cached.
+     *
+     * @return the principal or null if the token is not valid
+     */
+    public AuthUser getOrVerify(String token, Function<String, VerifiedToken> verifier) {
+        VerifiedToken verified = tokens.getIfPresent(token);
+        if (verified == null) {
+            verified = verifier.apply(token);
+            if (verified == null || !verified.expiresAt().isAfter(clock.instant())) {
+                return null;
+            }
+            tokens.put(token, verified);
+        }
+        return verified.principal();
+    }
+
+    public void revoke(String token) {
+        tokens.invalidate(token);
+    }
+
+    /**
+     * Revokes every cached token of a user, e.g. after a password or role
+     * change. Users are matched by id, since usernames are not unique.
+     */
+    public void revokeUser(Integer userId) {
+        tokens.asMap().values().removeIf(verified -> Objects.equals(verified.principal().id(), userId));
+    }
+
+    public void clear() {
+        tokens.invalidateAll();
+    }
+
+    private class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            Duration remaining = Duration.between(clock.instant(), verified.expiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            // toNanos overflows after about 292 years
+            return remaining.compareTo(MAX_EXPIRY) < 0 ? remaining.toNanos() : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
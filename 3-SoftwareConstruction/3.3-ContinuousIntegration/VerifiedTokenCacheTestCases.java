@@ -0,0 +1,86 @@
+package com.example.hygimeter.config;
+
+import com.example.hygimeter.model.Role;
+import com.example.hygimeter.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-01T00:00:00Z");
+
+    private final VerifiedTokenCache verifiedTokenCache =
+            new VerifiedTokenCache(100, Clock.fixed(NOW, ZoneOffset.UTC));
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    public void getOrVerify_RepeatedToken_VerifyOnce() {
+        AuthUser anna = new AuthUser(1, "Anna", "Koval", "anna@test.com", "hash", Role.USER);
+
+        verifiedTokenCache.getOrVerify("token", verifier(anna, NOW.plusSeconds(3_600)));
+        AuthUser principal = verifiedTokenCache.getOrVerify("token", verifier(anna, NOW.plusSeconds(3_600)));
+
+        assertSame(anna, principal);
+        assertEquals(1, verifications.get());
+        assertNull(verifiedTokenCache.getOrVerify("invalid", token -> null));
+        assertNull(verifiedTokenCache.getOrVerify("expired", verifier(anna, NOW)));
+    }
+
+    @Test
+    public void revokeUser_SameUsernameOtherUser_KeepItsTokens() {
+        AuthUser anna = new AuthUser(1, "Anna", "Koval", "anna@test.com", "hash", Role.USER);
+        AuthUser namesake = new AuthUser(2, "Anna", "Koval", "koval@test.com", "hash", Role.USER);
+        verifiedTokenCache.getOrVerify("first", verifier(anna, NOW.plusSeconds(3_600)));
+        verifiedTokenCache.getOrVerify("second", verifier(namesake, NOW.plusSeconds(3_600)));
+
+        verifiedTokenCache.revokeUser(1);
+        verifiedTokenCache.getOrVerify("first", verifier(anna, NOW.plusSeconds(3_600)));
+        verifiedTokenCache.getOrVerify("second", verifier(namesake, NOW.plusSeconds(3_600)));
+
+        assertEquals(3, verifications.get());
+    }
+
+    @Test
+    public void getOrVerify_FarFutureExpiry_CacheWithoutOverflow() {
+        AuthUser anna = new AuthUser(1, "Anna", "Koval", "anna@test.com", "hash", Role.USER);
+
+        verifiedTokenCache.getOrVerify("token", verifier(anna, Instant.MAX));
+        verifiedTokenCache.getOrVerify("token", verifier(anna, Instant.MAX));
+
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    public void of_UserEntity_CopyIntoAuthUser() {
+        User user = new User();
+        user.setId(1);
+        user.setName("Anna");
+        user.setSurname("Koval");
+        user.setEmail("anna@test.com");
+        user.setPassword("hash");
+        user.setRole(Role.USER);
+
+        AuthUser principal = VerifiedTokenCache.VerifiedToken.of(user, NOW).principal();
+        user.setRole(Role.ADMIN);
+
+        assertEquals(1, principal.id());
+        assertEquals("hash", principal.getPassword());
+        assertEquals(Role.USER, principal.role());
+    }
+
+    private Function<String, VerifiedTokenCache.VerifiedToken> verifier(AuthUser user, Instant expiresAt) {
+        return token -> {
+            verifications.incrementAndGet();
+            return new VerifiedTokenCache.VerifiedToken(user, expiresAt);
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.hygimeter.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in execution of requests on virtual threads, enabled by
+ * {@code hygimeter.web.virtual-threads=true}; requires Java 21 at runtime.
+ * The build targets Java 17, so the virtual-thread executor is looked up
+ * reflectively and enabling the mode on an older runtime fails at startup.
+ * Tomcat runs every request of the controllers on its own virtual thread,
+ * so a request blocked on PostgreSQL does not hold a platform thread.
+ * Concurrency is then limited by the connection pool only: its size stays
+ * fixed to what the database serves and a request waits for a connection
+ * at most {@code hygimeter.web.virtual-threads.connection-timeout}.
+ * HikariCP 5.1+ and the PostgreSQL driver 42.6+ are needed, since older
+ * versions block inside synchronized blocks, which pin the carrier thread
+ * before Java 24.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hygimeter.web.virtual-threads", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadConnectionPool(Environment environment) {
+        int maxPoolSize = environment.getProperty(
+                "hygimeter.web.virtual-threads.max-pool-size", Integer.class, 20);
+        long connectionTimeout = environment.getProperty(
+                "hygimeter.web.virtual-threads.connection-timeout", Long.class, 2000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setMaximumPoolSize(maxPoolSize);
+                    dataSource.setMinimumIdle(maxPoolSize);
+                    dataSource.setConnectionTimeout(connectionTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("hygimeter.web.virtual-threads requires Java 21, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the virtual-thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.dto.HumidityDTO;
+import com.example.hygimeter.dto.MicroclimateDTO;
+import com.example.hygimeter.dto.PlanParametersDTO;
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.mapper.PlanPatternMapper;
+import com.example.hygimeter.model.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Object graphs shared by the benchmarks.
+ * The values follow the samples of the controller test cases.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * MapStruct mapper wired by Spring, as the application uses it.
+     */
+    static PlanPatternMapper planPatternMapper() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.scan("com.example.hygimeter.mapper");
+        context.refresh();
+        return context.getBean(PlanPatternMapper.class);
+    }
+
+    static PlanPattern planPattern(int id, int plans) {
+        Humidity humidity = new Humidity();
+        humidity.setId(id);
+        humidity.setRelativeHumidity(50f);
+        humidity.setAbsoluteHumidity(10f);
+
+        Microclimate microclimate = new Microclimate();
+        microclimate.setId(id);
+        microclimate.setTemperature("22");
+        microclimate.setVentilation("TypeB");
+        microclimate.setLightLevel(0.8f);
+        microclimate.setHumidity(humidity);
+
+        PlanParameters planParameters = new PlanParameters();
+        planParameters.setId(id);
+        planParameters.setTemperatureSked("Every 6 hours");
+        planParameters.setLightsOffTime(LocalTime.of(22, 0));
+
+        PlanPattern planPattern = new PlanPattern();
+        planPattern.setId(id);
+        planPattern.setDevice("DeviceTypeA");
+        planPattern.setMicroclimate(microclimate);
+        planPattern.setPlanParameters(planParameters);
+
+        User user = User.builder().id(id).name("Anna").surname("Test").role(Role.USER).build();
+        List<MicroclimatePlan> microclimatePlans = new ArrayList<>(plans);
+        for (int i = 0; i < plans; i++) {
+            MicroclimatePlan microclimatePlan = new MicroclimatePlan();
+            microclimatePlan.setId(id * plans + i);
+            microclimatePlan.setPlanPattern(planPattern);
+            microclimatePlan.setInitialMicroclimate(microclimate);
+            microclimatePlan.setUser(user);
+            microclimatePlans.add(microclimatePlan);
+        }
+        planPattern.setMicroclimatePlans(microclimatePlans);
+        return planPattern;
+    }
+
+    static List<PlanPattern> planPatterns(int size, int plans) {
+        List<PlanPattern> planPatterns = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            planPatterns.add(planPattern(i, plans));
+        }
+        return planPatterns;
+    }
+
+    static PlanPatternDTO planPatternDTO(Integer id) {
+        HumidityDTO humidity = new HumidityDTO();
+        humidity.setRelativeHumidity(50f);
+        humidity.setAbsoluteHumidity(10f);
+
+        MicroclimateDTO microclimate = new MicroclimateDTO();
+        microclimate.setTemperature("22");
+        microclimate.setVentilation("TypeB");
+        microclimate.setLightLevel(0.8f);
+        microclimate.setHumidity(humidity);
+
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked("Every 6 hours");
+        planParameters.setLightsOffTime(LocalTime.of(22, 0));
+
+        PlanPatternDTO planPatternDTO = new PlanPatternDTO();
+        planPatternDTO.setId(id);
+        planPatternDTO.setDevice("DeviceTypeA");
+        planPatternDTO.setMicroclimateDTO(microclimate);
+        planPatternDTO.setPlanParametersDTO(planParameters);
+        return planPatternDTO;
+    }
+
+    static List<PlanPatternDTO> planPatternDTOS(int size) {
+        List<PlanPatternDTO> planPatternDTOS = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            planPatternDTOS.add(planPatternDTO(i));
+        }
+        return planPatternDTOS;
+    }
+}
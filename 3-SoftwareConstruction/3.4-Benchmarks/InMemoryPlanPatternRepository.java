@@ -0,0 +1,253 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.dto.PlanPatternPatch;
+import com.example.hygimeter.model.Humidity;
+import com.example.hygimeter.model.Microclimate;
+import com.example.hygimeter.model.PlanParameters;
+import com.example.hygimeter.model.PlanPattern;
+import com.example.hygimeter.repository.PlanPatternPatchRepository;
+import com.example.hygimeter.repository.PlanPatternRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PlanPatternRepository and PlanPatternPatchRepository over one sorted map.
+ * Only the methods called by PlanPatternServiceImpl are supported, so the
+ * service can be measured without a database. The rows are the entities
+ * themselves, so the EntityManager has nothing to detach.
+ */
+final class InMemoryPlanPatternRepository {
+
+    private final TreeMap<Integer, PlanPattern> rows = new TreeMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    PlanPatternRepository repository() {
+        return (PlanPatternRepository) Proxy.newProxyInstance(
+                PlanPatternRepository.class.getClassLoader(),
+                new Class<?>[]{PlanPatternRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> save((PlanPattern) args[0]);
+                    case "saveAll" -> {
+                        List<PlanPattern> saved = new ArrayList<>();
+                        for (PlanPattern planPattern : (Iterable<PlanPattern>) args[0]) {
+                            saved.add(save(planPattern));
+                        }
+                        yield saved;
+                    }
+                    case "findById", "findPlanPatternById", "findWithPlansById" ->
+                            Optional.ofNullable(rows.get((Integer) args[0]));
+                    case "findAllById", "findAllByIdIn" -> {
+                        List<PlanPattern> found = new ArrayList<>();
+                        for (Integer id : (Iterable<Integer>) args[0]) {
+                            PlanPattern planPattern = rows.get(id);
+                            if (planPattern != null) {
+                                found.add(planPattern);
+                            }
+                        }
+                        yield found;
+                    }
+                    case "findAll", "findAllSummaries" -> new ArrayList<>(rows.values());
+                    case "findByIdGreaterThanOrderByIdAsc" -> {
+                        int limit = ((Pageable) args[1]).getPageSize();
+                        List<PlanPattern> page = new ArrayList<>(limit);
+                        for (Map.Entry<Integer, PlanPattern> row : rows.tailMap((Integer) args[0], false).entrySet()) {
+                            if (page.size() == limit) {
+                                break;
+                            }
+                            page.add(row.getValue());
+                        }
+                        yield page;
+                    }
+                    case "deleteById" -> {
+                        rows.remove((Integer) args[0]);
+                        yield null;
+                    }
+                    case "updateIfVersion" -> updateIfVersion((Integer) args[0], (Integer) args[1],
+                            (String) args[2], (String) args[3], (LocalTime) args[4]);
+                    case "existsById" -> rows.containsKey((Integer) args[0]);
+                    case "count" -> (long) rows.size();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryPlanPatternRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * EntityManager whose detach and getReference do nothing to the rows.
+     */
+    EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getReference" -> rows.get((Integer) args[1]);
+                    case "detach", "flush", "clear" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryEntityManager";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Applies merge patches to the rows of {@link #repository()}.
+     */
+    PlanPatternPatchRepository patchRepository() {
+        return new PlanPatternPatchRepository(null) {
+            @Override
+            public PatchResult patch(Integer id, PlanPatternPatch patch) {
+                PlanPattern planPattern = rows.get(id);
+                if (planPattern == null) {
+                    return new PatchResult(false, false, false, null);
+                }
+                PlanParameters planParameters = planPattern.getPlanParameters();
+                boolean parametersPatched = patch.contains(PlanPatternPatch.Field.TEMPERATURE_SKED)
+                        || patch.contains(PlanPatternPatch.Field.LIGHTS_OFF_TIME);
+                if (parametersPatched && planParameters == null) {
+                    return new PatchResult(true, false, true, null);
+                }
+                if (patch.version() != null && !patch.version().equals(planPattern.getVersion())) {
+                    return new PatchResult(true, false, false, null);
+                }
+                if (patch.contains(PlanPatternPatch.Field.DEVICE)) {
+                    planPattern.setDevice((String) patch.get(PlanPatternPatch.Field.DEVICE));
+                }
+                if (patch.contains(PlanPatternPatch.Field.TEMPERATURE_SKED)) {
+                    planParameters.setTemperatureSked((String) patch.get(PlanPatternPatch.Field.TEMPERATURE_SKED));
+                }
+                if (patch.contains(PlanPatternPatch.Field.LIGHTS_OFF_TIME)) {
+                    planParameters.setLightsOffTime((LocalTime) patch.get(PlanPatternPatch.Field.LIGHTS_OFF_TIME));
+                }
+                planPattern.setVersion(planPattern.getVersion() + 1);
+                Microclimate microclimate = planPattern.getMicroclimate();
+                Humidity humidity = microclimate != null ? microclimate.getHumidity() : null;
+                return new PatchResult(true, true, false, new PlanPatternPatchRepository.PatchedState(
+                        planParameters != null ? planParameters.getId() : null,
+                        planPattern.getVersion(),
+                        planPattern.getDevice(),
+                        planParameters != null ? planParameters.getTemperatureSked() : null,
+                        planParameters != null ? planParameters.getLightsOffTime() : null,
+                        microclimate != null ? microclimate.getId() : null,
+                        microclimate != null ? microclimate.getTemperature() : null,
+                        microclimate != null ? microclimate.getVentilation() : null,
+                        microclimate != null ? microclimate.getLightLevel() : null,
+                        humidity != null ? humidity.getId() : null,
+                        humidity != null ? humidity.getRelativeHumidity() : null,
+                        humidity != null ? humidity.getAbsoluteHumidity() : null));
+            }
+        };
+    }
+
+    private PlanPatternRepository.VersionedUpdate updateIfVersion(Integer id, Integer version, String device,
+                                                                  String temperatureSked, LocalTime lightsOffTime) {
+        PlanPattern planPattern = rows.get(id);
+        boolean updated = planPattern != null && (version == null || version.equals(planPattern.getVersion()));
+        if (updated) {
+            planPattern.setDevice(device);
+            planPattern.getPlanParameters().setTemperatureSked(temperatureSked);
+            planPattern.getPlanParameters().setLightsOffTime(lightsOffTime);
+            planPattern.setVersion(planPattern.getVersion() + 1);
+        }
+        return new PlanPatternRepository.VersionedUpdate() {
+            @Override
+            public boolean getFound() {
+                return planPattern != null;
+            }
+
+            @Override
+            public boolean getUpdated() {
+                return updated;
+            }
+
+            @Override
+            public Integer getPlanParametersId() {
+                return updated ? planPattern.getPlanParameters().getId() : null;
+            }
+
+            @Override
+            public Integer getVersion() {
+                return updated ? planPattern.getVersion() : null;
+            }
+
+            @Override
+            public String getDevice() {
+                return updated ? planPattern.getDevice() : null;
+            }
+
+            @Override
+            public String getTemperatureSked() {
+                return updated ? planPattern.getPlanParameters().getTemperatureSked() : null;
+            }
+
+            @Override
+            public LocalTime getLightsOffTime() {
+                return updated ? planPattern.getPlanParameters().getLightsOffTime() : null;
+            }
+
+            @Override
+            public Integer getMicroclimateId() {
+                return microclimate() != null ? microclimate().getId() : null;
+            }
+
+            @Override
+            public String getTemperature() {
+                return microclimate() != null ? microclimate().getTemperature() : null;
+            }
+
+            @Override
+            public String getVentilation() {
+                return microclimate() != null ? microclimate().getVentilation() : null;
+            }
+
+            @Override
+            public Float getLightLevel() {
+                return microclimate() != null ? microclimate().getLightLevel() : null;
+            }
+
+            @Override
+            public Integer getHumidityId() {
+                return humidity() != null ? humidity().getId() : null;
+            }
+
+            @Override
+            public Float getRelativeHumidity() {
+                return humidity() != null ? humidity().getRelativeHumidity() : null;
+            }
+
+            @Override
+            public Float getAbsoluteHumidity() {
+                return humidity() != null ? humidity().getAbsoluteHumidity() : null;
+            }
+
+            private Microclimate microclimate() {
+                return updated ? planPattern.getMicroclimate() : null;
+            }
+
+            private Humidity humidity() {
+                return microclimate() != null ? microclimate().getHumidity() : null;
+            }
+        };
+    }
+
+    private PlanPattern save(PlanPattern planPattern) {
+        if (planPattern.getId() == null) {
+            planPattern.setId(sequence.incrementAndGet());
+        }
+        if (planPattern.getVersion() == null) {
+            planPattern.setVersion(0);
+        }
+        rows.put(planPattern.getId(), planPattern);
+        return planPattern;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.timeseries.MicroclimateReadingStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Appends to and scans of MicroclimateReadingStore in direct buffers and
+ * in memory-mapped files; scores are readings per microsecond. Appends go
+ * in batches to one series, which drops its oldest segments as it grows;
+ * a scan reads a day of readings taken every second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MicroclimateReadingStoreBenchmark {
+
+    private static final int BATCH = 10_000;
+    private static final int DAY = 86_400;
+    private static final long SECOND = 1_000L;
+    // keys outside the Long cache, so -prof gc shows a boxed key
+    private static final long APPENDED = 1_001;
+    private static final long SCANNED = 1_002;
+
+    @Param({"false", "true"})
+    private boolean mapped;
+
+    private Path directory;
+    private MicroclimateReadingStore store;
+    private long timestamp;
+
+    @Setup
+    public void setUp() throws IOException {
+        Duration retention = Duration.ofDays(2);
+        if (mapped) {
+            directory = Files.createTempDirectory("readings");
+            store = MicroclimateReadingStore.mapped(directory, 4096, 64, retention);
+        } else {
+            store = MicroclimateReadingStore.inMemory(4096, 64, retention);
+        }
+        for (int second = 0; second < DAY; second++) {
+            store.append(SCANNED, second * SECOND, 21.5f, 55f, 10.5f, 0.8f);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                List<Path> paths = files.sorted(Comparator.reverseOrder()).toList();
+                for (Path path : paths) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void append() {
+        for (int i = 0; i < BATCH; i++) {
+            store.append(APPENDED, timestamp, 21.5f, 55f, 10.5f, 0.8f);
+            timestamp += SECOND;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAY)
+    public int scanDay(Blackhole blackhole) {
+        return store.scan(SCANNED, 0, DAY * SECOND, (timestamp, temperature, relativeHumidity,
+                absoluteHumidity, lightLevel) -> blackhole.consume(temperature));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.mapper.PlanPatternMapper;
+import com.example.hygimeter.model.PlanPattern;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanPatternMapperBenchmark {
+
+    @Param({"0", "10"})
+    private int plansPerPattern;
+
+    @Param({"100"})
+    private int listSize;
+
+    private PlanPatternMapper planPatternMapper;
+    private PlanPattern planPattern;
+    private PlanPatternDTO planPatternDTO;
+    private List<PlanPattern> planPatterns;
+
+    @Setup
+    public void setUp() {
+        planPatternMapper = BenchmarkData.planPatternMapper();
+        planPattern = BenchmarkData.planPattern(1, plansPerPattern);
+        planPatternDTO = BenchmarkData.planPatternDTO(1);
+        planPatterns = BenchmarkData.planPatterns(listSize, plansPerPattern);
+    }
+
+    @Benchmark
+    public PlanPatternDTO toPlanPatternDTO() {
+        return planPatternMapper.toPlanPatternDTO(planPattern);
+    }
+
+    @Benchmark
+    public PlanPattern toPlanPattern() {
+        return planPatternMapper.toPlanPattern(planPatternDTO);
+    }
+
+    @Benchmark
+    public List<PlanPatternDTO> toPlanPatternDTOS() {
+        return planPatternMapper.toPlanPatternDTOS(planPatterns);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.dto.PlanPatternPageDTO;
+import com.example.hygimeter.dto.PlanPatternPatch;
+import com.example.hygimeter.model.PlanPattern;
+import com.example.hygimeter.repository.PlanPatternRepository;
+import com.example.hygimeter.schedule.TemperatureScheduleCache;
+import com.example.hygimeter.service.PlanPatternServiceImpl;
+import com.example.hygimeter.service.PlanPatternValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PlanPatternServiceImpl CRUD and patch methods against
+ * InMemoryPlanPatternRepository.
+ * The results show the CPU cost of the service and the mapper without the
+ * database round trips.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanPatternServiceBenchmark {
+
+    @Param({"1000"})
+    private int patterns;
+
+    private PlanPatternServiceImpl planPatternService;
+    private PlanPatternDTO newPlanPatternDTO;
+    private PlanPatternDTO updatedPlanPatternDTO;
+    private PlanPatternPatch lightsOffTimePatch;
+
+    @Setup
+    public void setUp() {
+        InMemoryPlanPatternRepository rows = new InMemoryPlanPatternRepository();
+        PlanPatternRepository planPatternRepository = rows.repository();
+        for (PlanPattern planPattern : BenchmarkData.planPatterns(patterns, 0)) {
+            planPattern.setId(null);
+            planPatternRepository.save(planPattern);
+        }
+        planPatternService = new PlanPatternServiceImpl(planPatternRepository,
+                BenchmarkData.planPatternMapper(), new PlanPatternValidator(), new TemperatureScheduleCache(1000),
+                rows.entityManager(), rows.patchRepository(), event -> { }, new TransactionTemplate());
+
+        newPlanPatternDTO = BenchmarkData.planPatternDTO(null);
+        newPlanPatternDTO.setDevice(null);
+        newPlanPatternDTO.setMicroclimateDTO(null);
+        updatedPlanPatternDTO = BenchmarkData.planPatternDTO(1);
+        lightsOffTimePatch = new PlanPatternPatch(null,
+                Map.of(PlanPatternPatch.Field.LIGHTS_OFF_TIME, LocalTime.of(21, 30)));
+    }
+
+    @Benchmark
+    public PlanPatternDTO getPlanPatternById() {
+        return planPatternService.getPlanPatternById(patterns / 2);
+    }
+
+    @Benchmark
+    public List<PlanPatternDTO> getAllPlanPatterns() {
+        return planPatternService.getAllPlanPatterns();
+    }
+
+    @Benchmark
+    public PlanPatternPageDTO getPlanPatternsPage() {
+        return planPatternService.getPlanPatternsPage(patterns / 2, 50);
+    }
+
+    @Benchmark
+    public PlanPatternDTO updatePlanPattern() {
+        return planPatternService.updatePlanPattern(1, updatedPlanPatternDTO);
+    }
+
+    @Benchmark
+    public PlanPatternDTO patchPlanPattern() {
+        return planPatternService.patchPlanPattern(1, lightsOffTimePatch);
+    }
+
+    @Benchmark
+    public PlanPatternDTO createAndDeletePlanPattern() {
+        PlanPatternDTO created = planPatternService.createPlanPattern(newPlanPatternDTO);
+        planPatternService.deletePlanPattern(created.getId());
+        return created;
+    }
+}
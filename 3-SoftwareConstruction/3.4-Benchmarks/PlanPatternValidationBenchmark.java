@@ -0,0 +1,196 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.dto.HumidityDTO;
+import com.example.hygimeter.dto.MicroclimateDTO;
+import com.example.hygimeter.dto.PlanParametersDTO;
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.dto.group.OnCreate;
+import com.example.hygimeter.dto.group.OnUpdate;
+import com.example.hygimeter.exception.InvalidDataException;
+import com.example.hygimeter.exception.StatusCodes;
+import com.example.hygimeter.service.PlanPatternValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares PlanPatternValidator with the former
+ * PlanPatternServiceImpl.planPatternValidation on valid and invalid DTOs.
+ * The invalid DTO violates several rules: the former method stops at the
+ * first one and throws, the validator collects all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanPatternValidationBenchmark {
+
+    private final PlanPatternValidator validator = new PlanPatternValidator();
+
+    private PlanPatternDTO valid;
+    private PlanPatternDTO invalid;
+
+    @Setup
+    public void setUp() {
+        valid = planPattern("22", 0.8f, 50f, "Every 6 hours", LocalTime.of(22, 0));
+        invalid = planPattern("Temperature longer than twenty characters", -1f, -5f, "", null);
+    }
+
+    @Benchmark
+    public List<String> validatorValid() {
+        return validator.validate(valid, OnUpdate.class);
+    }
+
+    @Benchmark
+    public List<String> validatorInvalid() {
+        return validator.validate(invalid, OnUpdate.class);
+    }
+
+    @Benchmark
+    public boolean legacyValid() {
+        legacyValidation(valid, OnUpdate.class);
+        return true;
+    }
+
+    @Benchmark
+    public Object legacyInvalid() {
+        try {
+            legacyValidation(invalid, OnUpdate.class);
+            return null;
+        } catch (InvalidDataException e) {
+            return e;
+        }
+    }
+
+    private static PlanPatternDTO planPattern(String temperature, float level, float humidityValue,
+                                              String sked, LocalTime lightsOffTime) {
+        HumidityDTO humidity = new HumidityDTO();
+        humidity.setRelativeHumidity(humidityValue);
+        humidity.setAbsoluteHumidity(humidityValue);
+
+        MicroclimateDTO microclimate = new MicroclimateDTO();
+        microclimate.setTemperature(temperature);
+        microclimate.setVentilation("TypeB");
+        microclimate.setLightLevel(level);
+        microclimate.setHumidity(humidity);
+
+        PlanParametersDTO planParameters = new PlanParametersDTO();
+        planParameters.setTemperatureSked(sked);
+        planParameters.setLightsOffTime(lightsOffTime);
+
+        PlanPatternDTO planPattern = new PlanPatternDTO();
+        planPattern.setId(1);
+        planPattern.setDevice("DeviceTypeA");
+        planPattern.setMicroclimateDTO(microclimate);
+        planPattern.setPlanParametersDTO(planParameters);
+        return planPattern;
+    }
+
+    /**
+     * Copy of the former PlanPatternServiceImpl.planPatternValidation.
+     */
+    private static void legacyValidation(final PlanPatternDTO planPatternDTO,
+                                         final Class<?> validationGroup) {
+        MicroclimateDTO microclimate = planPatternDTO.getMicroclimateDTO();
+        HumidityDTO humidity =
+            microclimate == null ? null : microclimate.getHumidity();
+        PlanParametersDTO planParameters = planPatternDTO.getPlanParametersDTO();
+
+        // Assuming that an ID of null means this is a create operation
+        boolean isCreateOperation = (planPatternDTO.getId() == null);
+
+        if (isCreateOperation && validationGroup.equals(OnCreate.class)) {
+            // Perform validations specific to OnCreate group
+            if (planPatternDTO.getDevice() != null) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Device must be null at fulling"
+                                               + "the form");
+            }
+            if (microclimate != null) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Microclimate should be null"
+                                               + "while 1st time creating");
+            }
+            if (planParameters == null) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Plan parameters cannot be"
+                                               + "null");
+            }
+            if (humidity != null && humidity.getRelativeHumidity() != null) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Relative humidity must be null"
+                                               + "on creating plan parameters");
+            }
+            if (humidity != null && humidity.getAbsoluteHumidity() != null) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Absolute humidity must be null"
+                                               + "on creating plan parameters");
+            }
+        } else if (!isCreateOperation
+                   && validationGroup.equals(OnUpdate.class)) {
+            // Perform validations specific to OnUpdate group
+            int maxTempLength = 20;
+            if (microclimate.getTemperature().length() > maxTempLength) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Max size of temperature is 20"
+                                               + "characters");
+            }
+            int maxVentLength = 100;
+            if (microclimate.getVentilation().length() > maxVentLength) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Max size of ventilation is 100"
+                                               + "characters");
+            }
+            int negativeLightLevel = 0;
+            if (microclimate.getLightLevel() <= negativeLightLevel) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Light level must be greater"
+                                               + "than 0");
+            }
+            if (humidity.getRelativeHumidity() == null
+                || humidity.getRelativeHumidity() <= 0) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Relative humidity must be not"
+                                               + "null and greater than 0 on"
+                                               + "updating parameters");
+            }
+            if (humidity.getAbsoluteHumidity() == null
+                || humidity.getAbsoluteHumidity() <= 0) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Absolute humidity must be not"
+                                               + "null and greater than 0 on"
+                                               + "updating parameters");
+            }
+            if (planParameters.getTemperatureSked() == null
+                || planParameters.getTemperatureSked().isEmpty()) {
+                throw new InvalidDataException(
+                    StatusCodes.INVALID_DATA.name(),
+                    "Temperature schedule must be not"
+                    + "null and not empty on"
+                    + "updating parameters");
+            }
+            int maxLength = 100;
+            if (planParameters.getTemperatureSked().length() > maxLength) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Max size of temperature"
+                                               + "schedule"
+                                               + "is 100 characters");
+            }
+            int expendedHour = 23;
+            int notExistingHour = 0;
+            if (planParameters.getLightsOffTime() == null
+                || planParameters.getLightsOffTime().getHour() > expendedHour
+                || planParameters.getLightsOffTime()
+                .getHour() < notExistingHour) {
+                throw new InvalidDataException(StatusCodes.INVALID_DATA.name(),
+                                               "Time when lights go off"
+                                               + "must be not"
+                                               + "null on updating parameters");
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.model.Permission;
+import com.example.hygimeter.model.Role;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Role authorities and permission checks: the precomputed authority list
+ * and the bit mask check against the former per-call authority list with
+ * string comparison.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoleBenchmark {
+
+    @Param({"ADMIN", "USER"})
+    private Role role;
+
+    private final Permission required = Permission.ADMIN_UPDATE;
+
+    @Benchmark
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    @Benchmark
+    public List<SimpleGrantedAuthority> legacyGetAuthorities() {
+        return legacyAuthorities(role);
+    }
+
+    @Benchmark
+    public boolean maskCheck() {
+        return role.hasPermission(required);
+    }
+
+    @Benchmark
+    public boolean legacyStringCheck() {
+        String permission = required.getPermission();
+        for (SimpleGrantedAuthority authority : legacyAuthorities(role)) {
+            if (authority.getAuthority().equals(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy of the former Role.getAuthorities.
+     */
+    private static List<SimpleGrantedAuthority> legacyAuthorities(Role role) {
+        var authorities = role.getPermissions()
+                .stream()
+                .map(permission -> new SimpleGrantedAuthority(permission.getPermission()))
+                .collect(Collectors.toList());
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        return authorities;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.dto.RemoteResponse;
+import com.example.hygimeter.exception.StatusCodes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private PlanPatternDTO planPatternDTO;
+    private List<PlanPatternDTO> planPatternDTOS;
+    private RemoteResponse remoteResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        planPatternDTO = BenchmarkData.planPatternDTO(1);
+        planPatternDTOS = BenchmarkData.planPatternDTOS(listSize);
+        remoteResponse = RemoteResponse.create(true, StatusCodes.OK.name(),
+                "Plan patterns have been found", planPatternDTOS);
+    }
+
+    @Benchmark
+    public byte[] planPatternDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(planPatternDTO);
+    }
+
+    @Benchmark
+    public byte[] planPatternDTOList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(planPatternDTOS);
+    }
+
+    @Benchmark
+    public byte[] remoteResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(remoteResponse);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.search.SuggestionTrie;
+import com.example.hygimeter.search.SuggestionTrie.Kind;
+import com.example.hygimeter.search.SuggestionTrie.Suggestion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SuggestionTrie lookups of short and long prefixes over generated theme
+ * titles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestionTrieBenchmark {
+
+    private static final String[] WORDS = {
+            "вологість", "повітря", "спальня", "вентиляція", "пліснява", "зволожувач", "температура",
+            "humidity", "air", "sensor", "mold", "ventilation", "sleep", "window"
+    };
+
+    @Param({"100000"})
+    private int themes;
+
+    private SuggestionTrie trie;
+
+    @Setup
+    public void setUp() {
+        trie = new SuggestionTrie();
+        Random random = new Random(1);
+        for (int id = 0; id < themes; id++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            trie.put(new Suggestion(Kind.THEME, id, title, random.nextInt(10_000)));
+        }
+    }
+
+    @Benchmark
+    public List<Suggestion> shortPrefix() {
+        return trie.suggest("в", SuggestionTrie.MAX_SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<Suggestion> longPrefix() {
+        return trie.suggest("вологість пов", SuggestionTrie.MAX_SUGGESTIONS);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.hygimeter.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load of a running hygimeter application.
+ * Every client sends GET /plan-pattern requests one after another for the
+ * given time; throughput, p50, p99 and errors are printed. The application
+ * is started once with and once without hygimeter.web.virtual-threads and
+ * the same load is applied at 1000 to 10000 clients:
+ * <pre>
+ * java -cp hygimeter-benchmarks.jar com.example.hygimeter.benchmark.WebLoadBenchmark \
+ *     http://localhost:8080/plan-pattern?limit=50 "$JWT" 30 1000 2500 5000 10000
+ * </pre>
+ * Clients run on virtual threads, so the generator itself does not limit
+ * the concurrency. It compiles with the Java 17 toolchain of the build and
+ * looks the virtual-thread executor up at runtime, so it must be run on
+ * Java 21.
+ */
+public class WebLoadBenchmark {
+
+    private static final int MAX_SAMPLES_PER_CLIENT = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        String token = args[1];
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        System.out.printf("%8s %12s %10s %10s %8s%n", "clients", "req/s", "p50 ms", "p99 ms", "errors");
+        for (int i = 3; i < args.length; i++) {
+            run(httpClient, request, Integer.parseInt(args[i]), duration);
+        }
+    }
+
+    private static void run(HttpClient httpClient, HttpRequest request, int clients, Duration duration)
+            throws InterruptedException {
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        try {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                executor.execute(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < end) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request,
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length && count < MAX_SAMPLES_PER_CLIENT) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        if (count < samples.length) {
+                            samples[count++] = System.nanoTime() - sent;
+                        }
+                    }
+                    latencies[client] = samples;
+                    counts[client] = count;
+                    done.countDown();
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        System.out.printf("%8d %12.1f %10.2f %10.2f %8d%n",
+                clients, total / seconds, percentile(all, 0.50), percentile(all, 0.99), errors.get());
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("WebLoadBenchmark requires Java 21, running on " + Runtime.version(), e);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
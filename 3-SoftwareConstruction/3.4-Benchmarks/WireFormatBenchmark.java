@@ -0,0 +1,133 @@
+package com.example.hygimeter.benchmark;
+
+import com.example.hygimeter.dto.PlanPatternDTO;
+import com.example.hygimeter.dto.RemoteResponse;
+import com.example.hygimeter.exception.StatusCodes;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.luben.zstd.Zstd;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding of a PlanPatternDTO list response in the wire
+ * formats of WireFormatConfig: JSON, CBOR, Smile and JSON compressed with
+ * gzip and zstd. The encode benchmarks count the encoded bytes in the
+ * auxiliary counter "bytes": in throughput mode it is reported in bytes per
+ * microsecond, so the size of one payload is its score divided by the score
+ * of the benchmark.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    public enum Format {
+        JSON, CBOR, SMILE, JSON_GZIP, JSON_ZSTD
+    }
+
+    private static final TypeReference<List<PlanPatternDTO>> PLAN_PATTERN_DTOS = new TypeReference<>() {
+    };
+
+    /**
+     * Encoded bytes of the encode benchmarks, reset every iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EncodedBytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Param({"100", "1000"})
+    private int listSize;
+
+    @Param
+    private Format format;
+
+    private ObjectMapper objectMapper;
+    private List<PlanPatternDTO> planPatternDTOS;
+    private RemoteResponse remoteResponse;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper(factory(format));
+        objectMapper.registerModule(new JavaTimeModule());
+        planPatternDTOS = BenchmarkData.planPatternDTOS(listSize);
+        remoteResponse = RemoteResponse.create(true, StatusCodes.OK.name(),
+                "Plan patterns have been found", planPatternDTOS);
+        encoded = compress(objectMapper.writeValueAsBytes(planPatternDTOS));
+    }
+
+    @Benchmark
+    public byte[] encodeResponse(EncodedBytes encodedBytes) throws IOException {
+        byte[] bytes = compress(objectMapper.writeValueAsBytes(remoteResponse));
+        encodedBytes.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] encodeList(EncodedBytes encodedBytes) throws IOException {
+        byte[] bytes = compress(objectMapper.writeValueAsBytes(planPatternDTOS));
+        encodedBytes.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<PlanPatternDTO> decodeList() throws IOException {
+        return objectMapper.readValue(decompress(encoded), PLAN_PATTERN_DTOS);
+    }
+
+    private static JsonFactory factory(Format format) {
+        return switch (format) {
+            case CBOR -> new CBORFactory();
+            case SMILE -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    private byte[] compress(byte[] bytes) throws IOException {
+        if (format == Format.JSON_ZSTD) {
+            return Zstd.compress(bytes, 3);
+        }
+        if (format != Format.JSON_GZIP) {
+            return bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] decompress(byte[] bytes) throws IOException {
+        if (format == Format.JSON_ZSTD) {
+            return Zstd.decompress(bytes, (int) Zstd.decompressedSize(bytes));
+        }
+        if (format != Format.JSON_GZIP) {
+            return bytes;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
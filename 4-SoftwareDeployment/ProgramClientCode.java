@@ -1,37 +1,451 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
 
+// Export of a table to a CSV or NDJSON file.
+//
+// Usage: java -cp "./postgresql-42.6.0.jar:." Main <table> <csv|ndjson> <file> [partitions] [fetchSize]
+// e.g.:  java -cp "./postgresql-42.6.0.jar:." Main microclimateplan ndjson plans.ndjson 4 10000
+//
+// The id range of the table is split into partitions that are read in
+// parallel, each over its own connection with a server-side cursor, so
+// memory use does not depend on the table size. Every partition is
+// streamed to its own part file and the parts are joined at the end.
+// All partitions read the snapshot exported by the transaction that reads
+// the id range (pg_export_snapshot), so the file is one consistent copy of
+// the table even while it is being written to.
+// Connection settings are taken from the system properties db.url,
+// db.user, db.password and export.key (the integer key column, "id").
 public class Main {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-Fa-f-]+");
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
     public static void main(String[] args) {
-        String url = "jdbc:postgresql://localhost:5455/lab12";
+        if (args.length < 3) {
+            System.err.println("Usage: Main <table> <csv|ndjson> <file> [partitions] [fetchSize]");
+            System.exit(2);
+        }
+        String table = identifier(args[0]);
+        Format format = Format.valueOf(args[1].toUpperCase());
+        Path output = Paths.get(args[2]);
+        int partitions = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int fetchSize = args.length > 4 ? Integer.parseInt(args[4]) : 10_000;
+        if (partitions <= 0) {
+            System.err.println("The number of partitions must be positive: " + partitions);
+            System.exit(2);
+        }
 
         // Database credentials
-        String user = "postgres";
-        String password = "root";
+        String url = System.getProperty("db.url", "jdbc:postgresql://localhost:5455/lab12");
+        String user = System.getProperty("db.user", "postgres");
+        String password = System.getProperty("db.password", "root");
+        String key = identifier(System.getProperty("export.key", "id"));
 
         try {
-            // Connect to the database
+            Export export = new Export(url, user, password, table, key, format, fetchSize);
+            long started = System.nanoTime();
+            long rows = export.run(output, partitions);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.err.printf("Exported %d rows of %s in %.1f s (%.0f rows/s)%n",
+                    rows, table, seconds, rows / seconds);
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid identifier: " + name);
+        }
+        return name;
+    }
+
+    enum Format {
+        CSV, NDJSON
+    }
+
+    static class Export {
+
+        private final String url;
+        private final String user;
+        private final String password;
+        private final String table;
+        private final String key;
+        private final Format format;
+        private final int fetchSize;
+        private final LongAdder exportedRows = new LongAdder();
+
+        Export(String url, String user, String password, String table, String key,
+               Format format, int fetchSize) {
+            this.url = url;
+            this.user = user;
+            this.password = password;
+            this.table = table;
+            this.key = key;
+            this.format = format;
+            this.fetchSize = fetchSize;
+        }
+
+        long run(Path output, int partitions) throws SQLException, IOException {
+            if (partitions <= 0) {
+                throw new IllegalArgumentException("The number of partitions must be positive: " + partitions);
+            }
+            // The snapshot can be imported only while its transaction is open
+            try (Connection connection = connect()) {
+                String snapshot = exportSnapshot(connection);
+                Column[] columns = columns(connection);
+                long min;
+                long max;
+                try (Statement statement = connection.createStatement();
+                     ResultSet range = statement.executeQuery(
+                             "SELECT min(" + key + "), max(" + key + ") FROM " + table)) {
+                    range.next();
+                    min = range.getLong(1);
+                    max = range.getLong(2);
+                    if (range.wasNull()) {
+                        // Empty table
+                        try (Writer writer = openWriter(output)) {
+                            writeHeader(writer, columns);
+                        }
+                        return 0;
+                    }
+                }
+                long rows = exportPartitions(output, partitions, snapshot, columns, min, max);
+                connection.commit();
+                return rows;
+            }
+        }
+
+        private long exportPartitions(Path output, int partitions, String snapshot, Column[] columns,
+                                      long min, long max) throws SQLException, IOException {
+            // Split [min, max] into ranges of equal width
+            long width = Math.max(1, (max - min + partitions) / partitions);
+            List<Path> parts = new ArrayList<>();
+            ExecutorService readers = Executors.newFixedThreadPool(partitions);
+            ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+            long started = System.nanoTime();
+            progress.scheduleAtFixedRate(() -> {
+                long rows = exportedRows.sum();
+                double seconds = (System.nanoTime() - started) / 1e9;
+                System.err.printf("%d rows, %.0f rows/s%n", rows, rows / seconds);
+            }, 5, 5, TimeUnit.SECONDS);
+            try {
+                List<Future<Void>> reads = new ArrayList<>();
+                for (long from = min; from <= max; from += width) {
+                    long lower = from;
+                    long upper = Math.min(max, from + width - 1);
+                    Path part = output.resolveSibling(output.getFileName() + ".part" + parts.size());
+                    boolean first = parts.isEmpty();
+                    parts.add(part);
+                    reads.add(readers.submit(() -> {
+                        exportRange(part, snapshot, columns, lower, upper, first);
+                        return null;
+                    }));
+                }
+                for (Future<Void> read : reads) {
+                    read.get();
+                }
+                join(parts, output);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Export interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new IOException(cause);
+            } finally {
+                readers.shutdownNow();
+                progress.shutdownNow();
+                for (Path part : parts) {
+                    Files.deleteIfExists(part);
+                }
+            }
+            return exportedRows.sum();
+        }
+
+        private Connection connect() throws SQLException {
             Connection connection = DriverManager.getConnection(url, user, password);
+            // PostgreSQL uses a cursor for the fetch size only inside a transaction
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            // a snapshot can be imported only by a repeatable read transaction
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            return connection;
+        }
 
-            // Create a statement
-            Statement statement = connection.createStatement();
+        // Must run first in the transaction, so the snapshot is the one of the whole export
+        private static String exportSnapshot(Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
 
-            // Execute a query
-            String query = "SELECT * FROM example_table";
-            ResultSet resultSet = statement.executeQuery(query);
+        private static void importSnapshot(Connection connection, String snapshot) throws SQLException {
+            if (!SNAPSHOT_ID.matcher(snapshot).matches()) {
+                throw new SQLException("Invalid snapshot id: " + snapshot);
+            }
+            // SET TRANSACTION SNAPSHOT takes no parameters
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+            }
+        }
 
-            // Process the query results
-            while (resultSet.next()) {
-                // Replace 'column_name' with your column names
-                System.out.println(resultSet.getInt(1) + " " +
-                        resultSet.getString(2) + " " + resultSet.getInt(3));
+        private Column[] columns(Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table + " WHERE false")) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                Column[] columns = new Column[metaData.getColumnCount()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = new Column(metaData.getColumnLabel(i + 1), metaData.getColumnType(i + 1));
+                }
+                return columns;
             }
+        }
 
-            // Close the resources
-            resultSet.close();
-            statement.close();
-            connection.close();
-        } catch (SQLException e) {
-            e.printStackTrace();
+        private void exportRange(Path part, String snapshot, Column[] columns, long lower, long upper,
+                                 boolean header) throws SQLException, IOException {
+            String query = "SELECT * FROM " + table + " WHERE " + key + " BETWEEN ? AND ?";
+            try (Connection connection = connect()) {
+                importSnapshot(connection, snapshot);
+                try (PreparedStatement statement = connection.prepareStatement(query,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, lower);
+                    statement.setLong(2, upper);
+                    try (ResultSet resultSet = statement.executeQuery();
+                         Writer writer = openWriter(part)) {
+                        if (header) {
+                            writeHeader(writer, columns);
+                        }
+                        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter() : new JsonRowWriter();
+                        long rows = 0;
+                        while (resultSet.next()) {
+                            rowWriter.write(writer, resultSet, columns);
+                            if (++rows % 1000 == 0) {
+                                exportedRows.add(1000);
+                            }
+                        }
+                        exportedRows.add(rows % 1000);
+                    }
+                    connection.commit();
+                }
+            }
+        }
+
+        private static Writer openWriter(Path path) throws IOException {
+            return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8),
+                    WRITE_BUFFER_SIZE);
+        }
+
+        private void writeHeader(Writer writer, Column[] columns) throws IOException {
+            if (format != Format.CSV) {
+                return;
+            }
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                CsvRowWriter.writeText(writer, columns[i].name());
+            }
+            writer.write('\n');
+        }
+
+        private static void join(List<Path> parts, Path output) throws IOException {
+            try (FileChannel target = FileChannel.open(output, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Path part : parts) {
+                    try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = source.size();
+                        while (position < size) {
+                            position += source.transferTo(position, size - position, target);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Column of the exported table and the kind of value read from it
+    record Column(String name, Kind kind) {
+
+        Column(String name, int sqlType) {
+            this(name, Kind.of(sqlType));
+        }
+    }
+
+    enum Kind {
+        INT, LONG, DOUBLE, DECIMAL, BOOLEAN, DATE, TIME, TIMESTAMP, TIMESTAMP_TZ, TEXT;
+
+        static Kind of(int sqlType) {
+            return switch (sqlType) {
+                case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> INT;
+                case Types.BIGINT -> LONG;
+                case Types.REAL, Types.FLOAT, Types.DOUBLE -> DOUBLE;
+                case Types.NUMERIC, Types.DECIMAL -> DECIMAL;
+                case Types.BIT, Types.BOOLEAN -> BOOLEAN;
+                case Types.DATE -> DATE;
+                case Types.TIME -> TIME;
+                case Types.TIMESTAMP -> TIMESTAMP;
+                case Types.TIMESTAMP_WITH_TIMEZONE -> TIMESTAMP_TZ;
+                default -> TEXT;
+            };
+        }
+
+        // Reads the value of a column as its Java type, null for SQL NULL
+        Object read(ResultSet resultSet, int index) throws SQLException {
+            Object value = switch (this) {
+                case INT -> resultSet.getInt(index);
+                case LONG -> resultSet.getLong(index);
+                case DOUBLE -> resultSet.getDouble(index);
+                case DECIMAL -> resultSet.getBigDecimal(index);
+                case BOOLEAN -> resultSet.getBoolean(index);
+                case DATE -> resultSet.getObject(index, LocalDate.class);
+                case TIME -> resultSet.getObject(index, LocalTime.class);
+                case TIMESTAMP -> resultSet.getObject(index, LocalDateTime.class);
+                case TIMESTAMP_TZ -> resultSet.getObject(index, OffsetDateTime.class);
+                case TEXT -> resultSet.getString(index);
+            };
+            return resultSet.wasNull() ? null : value;
+        }
+
+        boolean numeric() {
+            return this == INT || this == LONG || this == DOUBLE || this == DECIMAL || this == BOOLEAN;
+        }
+    }
+
+    interface RowWriter {
+        void write(Writer writer, ResultSet resultSet, Column[] columns) throws SQLException, IOException;
+    }
+
+    // RFC 4180 rows, NULL is written as an empty field
+    static class CsvRowWriter implements RowWriter {
+
+        @Override
+        public void write(Writer writer, ResultSet resultSet, Column[] columns) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns[i].kind().read(resultSet, i + 1);
+                if (value == null) {
+                    continue;
+                }
+                if (columns[i].kind().numeric()) {
+                    writer.write(plain(value));
+                } else {
+                    writeText(writer, value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        static void writeText(Writer writer, String text) throws IOException {
+            boolean quoted = false;
+            for (int i = 0; i < text.length() && !quoted; i++) {
+                char c = text.charAt(i);
+                quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quoted) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+    }
+
+    // One JSON object per line with the column names as keys
+    static class JsonRowWriter implements RowWriter {
+
+        @Override
+        public void write(Writer writer, ResultSet resultSet, Column[] columns) throws SQLException, IOException {
+            writer.write('{');
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeString(writer, columns[i].name());
+                writer.write(':');
+                Object value = columns[i].kind().read(resultSet, i + 1);
+                if (value == null) {
+                    writer.write("null");
+                } else if (columns[i].kind().numeric()) {
+                    writer.write(plain(value));
+                } else {
+                    writeString(writer, value.toString());
+                }
+            }
+            writer.write("}\n");
+        }
+
+        private static void writeString(Writer writer, String text) throws IOException {
+            writer.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> writer.write("\\\"");
+                    case '\\' -> writer.write("\\\\");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    case '\t' -> writer.write("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            writer.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            writer.write(c);
+                        }
+                    }
+                }
+            }
+            writer.write('"');
+        }
+    }
+
+    private static String plain(Object number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (number instanceof Double d && (d.isNaN() || d.isInfinite())) {
+            return "null";
         }
+        return number.toString();
     }
 }